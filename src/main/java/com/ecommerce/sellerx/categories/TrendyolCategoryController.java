@@ -2,6 +2,9 @@ package com.ecommerce.sellerx.categories;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,11 +17,21 @@ public class TrendyolCategoryController {
     
     private final TrendyolCategoryService categoryService;
     
+    /**
+     * Serves the precomputed category payload; a matching If-None-Match gets 304 without a body
+     */
     @GetMapping
-    public ResponseEntity<CategoriesResponse> getAllCategories() {
-        log.info("GET /api/categories - Get all categories");
-        CategoriesResponse response = categoryService.getAllCategories();
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("GET /api/categories - Get all categories");
+        TrendyolCategoryIndex.Payload payload = categoryService.getAllCategories();
+        if (ifNoneMatch != null && (ifNoneMatch.contains(payload.etag()) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(payload.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(payload.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload.body());
     }
     
     @PostMapping("/bulk-insert")
@@ -0,0 +1,119 @@
+package com.ecommerce.sellerx.categories;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory copy of trendyol_categories: categoryId → commission rate, average shipment size, name and parent,
+ * plus the serialised GET /api/categories body and its ETag. Loaded at startup and swapped as a whole after
+ * every bulk insert, so readers always see one consistent version and never touch the database.
+ */
+@Component
+@Slf4j
+public class TrendyolCategoryIndex {
+
+    private final TrendyolCategoryRepository categoryRepository;
+    private final TrendyolCategoryMapper categoryMapper;
+    private final ObjectMapper objectMapper;
+    private volatile Snapshot snapshot;
+
+    public TrendyolCategoryIndex(TrendyolCategoryRepository categoryRepository, TrendyolCategoryMapper categoryMapper,
+                                 ObjectMapper objectMapper) {
+        this.categoryRepository = categoryRepository;
+        this.categoryMapper = categoryMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    public record CategoryInfo(Long categoryId, String categoryName, String parentCategory,
+                               BigDecimal commissionRate, BigDecimal averageShipmentSize) {
+    }
+
+    /**
+     * Serialised CategoriesResponse sorted by category name; etag is a quoted strong validator of the body
+     */
+    public record Payload(byte[] body, String etag) {
+    }
+
+    private record Snapshot(Map<Long, CategoryInfo> byId, Payload payload) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        refresh();
+    }
+
+    /**
+     * Category of a Trendyol pimCategoryId, or null when unknown
+     */
+    public CategoryInfo find(Long categoryId) {
+        return categoryId != null ? snapshot().byId().get(categoryId) : null;
+    }
+
+    public Payload payload() {
+        return snapshot().payload();
+    }
+
+    /**
+     * Rebuilds the index from the table; inside a transaction the rebuild runs after commit
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    public synchronized void refresh() {
+        List<TrendyolCategory> categories = categoryRepository.findAllOrderByCategoryName();
+        Map<Long, CategoryInfo> byId = new HashMap<>(categories.size() * 2);
+        for (TrendyolCategory category : categories) {
+            byId.put(category.getCategoryId(), new CategoryInfo(category.getCategoryId(), category.getCategoryName(),
+                    category.getParentCategory(), category.getCommissionRate(), category.getAverageShipmentSize()));
+        }
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new CategoriesResponse(categoryMapper.toDtoList(categories)));
+            snapshot = new Snapshot(Map.copyOf(byId), new Payload(body, etag(body)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialise categories", e);
+        }
+        log.info("Loaded {} Trendyol categories into the category index", byId.size());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Used before ApplicationReadyEvent
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(body)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
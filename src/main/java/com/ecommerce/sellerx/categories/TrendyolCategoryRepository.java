@@ -2,7 +2,6 @@ package com.ecommerce.sellerx.categories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,7 +17,4 @@ public interface TrendyolCategoryRepository extends JpaRepository<TrendyolCatego
     
     @Query("SELECT tc FROM TrendyolCategory tc ORDER BY tc.categoryName")
     List<TrendyolCategory> findAllOrderByCategoryName();
-    
-    @Query("SELECT tc.categoryId FROM TrendyolCategory tc WHERE tc.categoryId IN :categoryIds")
-    List<Long> findExistingCategoryIds(@Param("categoryIds") List<Long> categoryIds);
 }
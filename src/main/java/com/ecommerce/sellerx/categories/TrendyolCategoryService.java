@@ -2,93 +2,97 @@ package com.ecommerce.sellerx.categories;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TrendyolCategoryService {
-    
-    private final TrendyolCategoryRepository categoryRepository;
+
+    /**
+     * One statement for the whole request: rows arrive as parallel arrays and are upserted by category_id.
+     * Existing categories are only rewritten when a value differs; inserted tells new rows from updated ones.
+     */
+    private static final String UPSERT_SQL =
+            "INSERT INTO trendyol_categories (category_id, category_name, parent_category, commission_rate, average_shipment_size) " +
+            "SELECT * FROM unnest(CAST(? AS BIGINT[]), CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[]), " +
+            "CAST(? AS NUMERIC[]), CAST(? AS NUMERIC[])) " +
+            "ON CONFLICT (category_id) DO UPDATE SET " +
+            "category_name = EXCLUDED.category_name, " +
+            "parent_category = EXCLUDED.parent_category, " +
+            "commission_rate = EXCLUDED.commission_rate, " +
+            "average_shipment_size = EXCLUDED.average_shipment_size " +
+            "WHERE (trendyol_categories.category_name, trendyol_categories.parent_category, " +
+            "trendyol_categories.commission_rate, trendyol_categories.average_shipment_size) IS DISTINCT FROM " +
+            "(EXCLUDED.category_name, EXCLUDED.parent_category, EXCLUDED.commission_rate, EXCLUDED.average_shipment_size) " +
+            "RETURNING (xmax = 0) AS inserted";
+
     private final TrendyolCategoryMapper categoryMapper;
-    
-    public CategoriesResponse getAllCategories() {
-        log.info("Fetching all categories");
-        List<TrendyolCategory> categories = categoryRepository.findAllOrderByCategoryName();
-        List<TrendyolCategoryDto> categoryDtos = categoryMapper.toDtoList(categories);
-        return new CategoriesResponse(categoryDtos);
+    private final TrendyolCategoryIndex categoryIndex;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Serialised category list with its ETag, served from the in-memory index
+     */
+    public TrendyolCategoryIndex.Payload getAllCategories() {
+        return categoryIndex.payload();
     }
-    
+
     @Transactional
     public String bulkInsertCategories(CategoryBulkInsertRequest request) {
-        log.info("Starting bulk insert of {} categories", request.getResult().size());
-        
-        int insertedCount = 0;
-        int skippedCount = 0;
-        int batchSize = 50; // Reduced batch size for better performance
-        
         List<CategoryBulkInsertRequest.CategoryInsertDto> categories = request.getResult();
-        
-        // Process in batches to avoid memory/transaction issues
-        for (int i = 0; i < categories.size(); i += batchSize) {
-            int endIndex = Math.min(i + batchSize, categories.size());
-            List<CategoryBulkInsertRequest.CategoryInsertDto> batch = categories.subList(i, endIndex);
-            
-            log.info("Processing batch {}/{}: items {} to {}", 
-                    (i / batchSize) + 1, 
-                    (categories.size() + batchSize - 1) / batchSize,
-                    i + 1, 
-                    endIndex);
-            
-            // Get existing category IDs for this batch
-            List<Long> batchCategoryIds = batch.stream()
-                    .map(CategoryBulkInsertRequest.CategoryInsertDto::getCategoryId)
-                    .toList();
-            
-            List<Long> existingIds = categoryRepository.findExistingCategoryIds(batchCategoryIds);
-            
-            List<TrendyolCategory> categoriesToSave = new ArrayList<>();
-            
-            for (CategoryBulkInsertRequest.CategoryInsertDto insertDto : batch) {
-                try {
-                    // Check if category already exists
-                    if (existingIds.contains(insertDto.getCategoryId())) {
-                        log.debug("Category with ID {} already exists, skipping", insertDto.getCategoryId());
-                        skippedCount++;
-                        continue;
-                    }
-                    
-                    // Convert to entity
-                    TrendyolCategory category = categoryMapper.fromInsertDto(insertDto);
-                    categoriesToSave.add(category);
-                    
-                } catch (Exception e) {
-                    log.error("Error processing category with ID {}: {}", insertDto.getCategoryId(), e.getMessage());
-                    skippedCount++;
-                }
-            }
-            
-            // Batch save
-            if (!categoriesToSave.isEmpty()) {
-                try {
-                    categoryRepository.saveAll(categoriesToSave);
-                    insertedCount += categoriesToSave.size();
-                    log.info("Successfully saved batch of {} categories", categoriesToSave.size());
-                } catch (Exception e) {
-                    log.error("Error saving batch: {}", e.getMessage());
-                    skippedCount += categoriesToSave.size();
+        log.info("Starting bulk insert of {} categories", categories.size());
+
+        int invalidCount = 0;
+        // Keyed by category id: one statement may not touch the same row twice, the last occurrence wins
+        Map<Long, TrendyolCategory> unique = new LinkedHashMap<>();
+        for (CategoryBulkInsertRequest.CategoryInsertDto insertDto : categories) {
+            try {
+                TrendyolCategory category = categoryMapper.fromInsertDto(insertDto);
+                if (category == null || category.getCategoryId() == null || category.getCategoryName() == null) {
+                    invalidCount++;
+                    continue;
                 }
+                unique.put(category.getCategoryId(), category);
+            } catch (Exception e) {
+                log.error("Error processing category with ID {}: {}", insertDto.getCategoryId(), e.getMessage());
+                invalidCount++;
             }
-            
-            // Log progress every batch
-            log.info("Progress: Inserted {} / Skipped {} so far", insertedCount, skippedCount);
         }
-        
-        log.info("Bulk insert completed. Total Inserted: {}, Total Skipped: {}", insertedCount, skippedCount);
-        return String.format("Bulk insert completed. Inserted: %d, Skipped: %d", insertedCount, skippedCount);
+
+        List<Boolean> written = unique.isEmpty() ? List.of() : jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPSERT_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint",
+                    unique.values().stream().map(TrendyolCategory::getCategoryId).toArray()));
+            ps.setArray(2, connection.createArrayOf("varchar",
+                    unique.values().stream().map(TrendyolCategory::getCategoryName).toArray()));
+            ps.setArray(3, connection.createArrayOf("varchar",
+                    unique.values().stream().map(TrendyolCategory::getParentCategory).toArray()));
+            ps.setArray(4, connection.createArrayOf("numeric",
+                    unique.values().stream().map(TrendyolCategory::getCommissionRate).toArray(BigDecimal[]::new)));
+            ps.setArray(5, connection.createArrayOf("numeric",
+                    unique.values().stream().map(TrendyolCategory::getAverageShipmentSize).toArray(BigDecimal[]::new)));
+            return ps;
+        }, (rs, rowNum) -> rs.getBoolean("inserted"));
+
+        int insertedCount = (int) written.stream().filter(Boolean::booleanValue).count();
+        int updatedCount = written.size() - insertedCount;
+        int skippedCount = categories.size() - written.size();
+        if (!written.isEmpty()) {
+            categoryIndex.refreshAfterCommit();
+        }
+
+        log.info("Bulk insert completed. Inserted: {}, Updated: {}, Skipped: {} ({} invalid)",
+                insertedCount, updatedCount, skippedCount, invalidCount);
+        return String.format("Bulk insert completed. Inserted: %d, Updated: %d, Skipped: %d",
+                insertedCount, updatedCount, skippedCount);
     }
 }
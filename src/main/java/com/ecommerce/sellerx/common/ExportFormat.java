@@ -0,0 +1,38 @@
+package com.ecommerce.sellerx.common;
+
+/**
+ * Output format of the streaming export endpoints.
+ */
+public enum ExportFormat {
+    /** One JSON object per line. */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** Header line plus one row per record, RFC 4180 quoting. */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return ExportFormat.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export format: " + value);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.sellerx.common;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes export rows straight to a response stream as NDJSON or CSV, optionally gzip-compressed.
+ * Rows are written as they are produced and nothing is retained, so memory stays constant for any row count.
+ * Values are written as JSON values / CSV fields; a RawJson value is embedded as-is in NDJSON and as its text in CSV.
+ */
+public final class ExportWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** A JSON document produced by the database, e.g. a JSONB column or json_agg, written without re-parsing. */
+    public record RawJson(String json) {
+
+        /** Null for a null column, so it is written as null / empty. */
+        public static RawJson of(String json) {
+            return json != null ? new RawJson(json) : null;
+        }
+    }
+
+    private final List<String> columns;
+    private final OutputStream stream;
+    private final JsonGenerator json;
+    private final Writer csv;
+    private int rows;
+
+    private ExportWriter(ExportFormat format, List<String> columns, OutputStream stream, ObjectMapper objectMapper)
+            throws IOException {
+        this.columns = columns;
+        this.stream = stream;
+        if (format == ExportFormat.NDJSON) {
+            this.json = objectMapper.createGenerator(stream, JsonEncoding.UTF8);
+            this.json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            this.csv = null;
+        } else {
+            this.json = null;
+            this.csv = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writeCsvLine(columns.toArray());
+        }
+    }
+
+    /**
+     * Opens a writer over the response stream; the stream is closed with the writer
+     */
+    public static ExportWriter open(OutputStream out, ExportFormat format, boolean gzip, List<String> columns,
+                                    ObjectMapper objectMapper) throws IOException {
+        OutputStream stream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        return new ExportWriter(format, columns, stream, objectMapper);
+    }
+
+    /**
+     * Whether the client's Accept-Encoding allows a gzip-encoded response
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    /**
+     * Writes one row; values are in column order
+     */
+    public void writeRow(Object... values) {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + values.length);
+        }
+        try {
+            if (json != null) {
+                writeJsonObject(values);
+            } else {
+                writeCsvLine(values);
+            }
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            if (rows > 0) {
+                json.writeRaw('\n');
+            }
+            json.close();
+        } else {
+            csv.close();
+        }
+        stream.close();
+    }
+
+    private void writeJsonObject(Object[] values) throws IOException {
+        json.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            json.writeFieldName(columns.get(i));
+            if (values[i] instanceof RawJson raw) {
+                json.writeRawValue(raw.json());
+            } else {
+                json.writeObject(values[i]);
+            }
+        }
+        json.writeEndObject();
+    }
+
+    private void writeCsvLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            csv.write(csvField(values[i]));
+        }
+        csv.write("\r\n");
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof RawJson raw ? raw.json()
+                : value instanceof BigDecimal decimal ? decimal.toPlainString()
+                : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.sellerx.common;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AuthorizeHttpRequestsConfigurer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MetricsSecurityRules implements SecurityRules {
+    @Override
+    public void configure(AuthorizeHttpRequestsConfigurer<HttpSecurity>.AuthorizationManagerRequestMatcherRegistry registry) {
+        registry
+                .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                // Per-route Trendyol latency and cache metrics are operational data, not public
+                .requestMatchers(HttpMethod.GET, "/actuator/prometheus").hasRole("ADMIN");
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.sellerx.dashboard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.dashboard")
+public class DashboardConfig {
+    /** Order and product detail rows embedded per period in the stats response, i.e. their first page. */
+    private int detailLimit = 50;
+    /** Upper bound of the size parameter of the detail listing endpoints. */
+    private int maxPageSize = 200;
+    /** How long a computed "today" period is served from DashboardStatsCache; the other periods live until rollover or invalidation. */
+    private int todayTtlSeconds = 30;
+}
@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -44,4 +45,42 @@ public class DashboardController {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Cursor-paginated revenue orders of one period (today, yesterday, thisMonth, lastMonth).
+     * sort: date | revenue, direction: asc | desc
+     */
+    @GetMapping("/stats/{storeId}/orders")
+    public ResponseEntity<?> getOrderDetails(
+            @PathVariable UUID storeId,
+            @RequestParam(defaultValue = "thisMonth") String period,
+            @RequestParam(defaultValue = "date") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(dashboardStatsService.getOrderDetails(storeId, period, sort, direction, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Cursor-paginated per-product totals of one period.
+     * sort: revenue | quantity | gross_profit | commission, direction: asc | desc
+     */
+    @GetMapping("/stats/{storeId}/products")
+    public ResponseEntity<?> getProductDetails(
+            @PathVariable UUID storeId,
+            @RequestParam(defaultValue = "thisMonth") String period,
+            @RequestParam(defaultValue = "revenue") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(dashboardStatsService.getProductDetails(storeId, period, sort, direction, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.sellerx.dashboard;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Opaque continuation token of a detail listing: the sort value and tie-breaker of the last row returned and the
+ * filter it was issued for, i.e. the listing with its store, period, sort and direction. A token is only accepted by
+ * a listing with the same filter, and its values are parsed while decoding so a tampered token is rejected as invalid.
+ */
+record DashboardCursor<V, K>(String filter, V value, K tieBreaker) {
+
+    private static final String SEPARATOR = "\u001f";
+
+    /**
+     * The filter of a listing: its kind followed by the values it was called with
+     */
+    static String filter(String kind, Object... values) {
+        StringBuilder filter = new StringBuilder(kind);
+        for (Object value : values) {
+            filter.append('|').append(value);
+        }
+        return filter.toString();
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, filter, format(value), format(tieBreaker));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token issued for the given filter, parsing its sort value and tie-breaker with the given parsers;
+     * null or blank tokens mean the first page
+     */
+    static <V, K> DashboardCursor<V, K> decode(String token, String filter, Function<String, ? extends V> valueParser,
+                                               Function<String, ? extends K> tieBreakerParser) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !parts[0].equals(filter)) {
+            throw new IllegalArgumentException("Cursor does not belong to this listing");
+        }
+        try {
+            return new DashboardCursor<>(parts[0], valueParser.apply(parts[1]), tieBreakerParser.apply(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Amounts are written without an exponent so they parse back to the same value
+    private static String format(Object value) {
+        return value instanceof BigDecimal amount ? amount.toPlainString() : value.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.sellerx.dashboard;
+
+import java.util.List;
+
+/**
+ * One page of a dashboard detail listing; nextCursor is null on the last page
+ */
+public record DashboardDetailPage<T>(List<T> items, String nextCursor, boolean hasMore) {
+
+    static <T> DashboardDetailPage<T> of(List<T> items, String nextCursor) {
+        return new DashboardDetailPage<>(items, nextCursor, nextCursor != null);
+    }
+}
@@ -0,0 +1,195 @@
+package com.ecommerce.sellerx.dashboard;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Detail listings of a dashboard period, aggregated in PostgreSQL so no order entity is loaded.
+ * Both listings are keyset paginated: a page is the rows after the cursor's (sort value, tie-breaker) in the
+ * requested order, and one extra row is read to know whether another page follows.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardDetailQueries {
+
+    private static final String ORDERS_SQL =
+            "SELECT o.id, o.ty_order_number, o.order_date, o.gross_amount, o.total_discount, o.stoppage, " +
+            "o.estimated_commission, " +
+            "COALESCE((SELECT SUM(i.cost * i.quantity) FROM trendyol_order_items i " +
+            "WHERE i.order_id = o.id AND i.cost > 0), 0) AS total_cost " +
+            "FROM trendyol_orders o " +
+            "WHERE o.store_id = ? AND o.order_date >= ? AND o.order_date < ? " +
+            "AND o.status IN " + StoreDailyMetricsService.REVENUE_STATUSES;
+
+    private static final String ORDER_LINES_SQL =
+            "SELECT order_id, product_name, quantity FROM trendyol_order_items " +
+            "WHERE order_id = ANY(?) ORDER BY order_id, line_no";
+
+    // Return quantities only count for barcodes that also sold in the period, as before
+    private static final String PRODUCTS_SQL =
+            "WITH sold AS (SELECT i.barcode, MAX(i.product_name) AS product_name, " +
+            "SUM(i.quantity) AS total_sold_quantity, " +
+            "SUM(COALESCE(i.price, 0) * i.quantity) AS revenue, " +
+            "SUM(CASE WHEN i.cost > 0 THEN i.cost * i.quantity ELSE 0 END) AS total_cost, " +
+            "SUM(COALESCE(i.unit_estimated_commission, 0) * i.quantity) AS estimated_commission " +
+            "FROM trendyol_order_items i JOIN trendyol_orders o ON o.id = i.order_id " +
+            "WHERE i.store_id = ? AND i.order_date >= ? AND i.order_date < ? " +
+            "AND o.status IN " + StoreDailyMetricsService.REVENUE_STATUSES + " GROUP BY i.barcode), " +
+            "returned AS (SELECT i.barcode, SUM(i.quantity) AS return_quantity " +
+            "FROM trendyol_order_items i JOIN trendyol_orders o ON o.id = i.order_id " +
+            "WHERE i.store_id = ? AND i.order_date >= ? AND i.order_date < ? AND o.status = 'Returned' " +
+            "GROUP BY i.barcode) " +
+            "SELECT * FROM (SELECT s.barcode, COALESCE(s.barcode, '') AS sort_key, s.product_name, " +
+            "s.total_sold_quantity, COALESCE(r.return_quantity, 0) AS return_quantity, s.revenue, " +
+            "s.revenue - s.total_cost AS gross_profit, s.estimated_commission " +
+            "FROM sold s LEFT JOIN returned r ON r.barcode IS NOT DISTINCT FROM s.barcode) p";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Revenue orders of the period in the given order, starting after the cursor
+     */
+    public DashboardDetailPage<OrderDetailDto> findOrders(UUID storeId, DashboardPeriod period, DashboardOrderSort sort,
+                                                          boolean ascending, String cursor, int size) {
+        String direction = ascending ? "ASC" : "DESC";
+        String filter = DashboardCursor.filter("orders", storeId, period.name(), period.startDate(), sort.name(), direction);
+        Function<String, Object> valueParser = sort == DashboardOrderSort.DATE ? LocalDateTime::parse : BigDecimal::new;
+        DashboardCursor<Object, UUID> after = DashboardCursor.decode(cursor, filter, valueParser, UUID::fromString);
+        StringBuilder sql = new StringBuilder(ORDERS_SQL);
+        List<Object> args = new ArrayList<>(List.of(storeId, start(period), end(period)));
+        if (after != null) {
+            sql.append(" AND (").append(sort.expression).append(", o.id) ").append(ascending ? ">" : "<").append(" (?, ?)");
+            args.add(after.value() instanceof LocalDateTime orderDate ? Timestamp.valueOf(orderDate) : after.value());
+            args.add(after.tieBreaker());
+        }
+        sql.append(" ORDER BY ").append(sort.expression).append(' ').append(direction)
+                .append(", o.id ").append(direction).append(" LIMIT ?");
+        args.add(size + 1);
+
+        List<UUID> ids = new ArrayList<>();
+        List<OrderDetailDto> orders = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            ids.add(rs.getObject("id", UUID.class));
+            BigDecimal grossAmount = zeroIfNull(rs.getBigDecimal("gross_amount"));
+            BigDecimal revenue = grossAmount.subtract(zeroIfNull(rs.getBigDecimal("total_discount")));
+            return OrderDetailDto.builder()
+                    .orderNumber(rs.getString("ty_order_number"))
+                    .orderDate(rs.getTimestamp("order_date").toLocalDateTime())
+                    .totalPrice(grossAmount)
+                    .returnPrice(BigDecimal.ZERO)
+                    .revenue(revenue)
+                    .grossProfit(revenue.subtract(rs.getBigDecimal("total_cost")))
+                    .stoppage(zeroIfNull(rs.getBigDecimal("stoppage")))
+                    .estimatedCommission(zeroIfNull(rs.getBigDecimal("estimated_commission")))
+                    .build();
+        }, args.toArray());
+
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = new ArrayList<>(orders.subList(0, size));
+            ids.subList(size, ids.size()).clear();
+            OrderDetailDto last = orders.get(size - 1);
+            Object value = sort == DashboardOrderSort.DATE ? last.getOrderDate() : last.getRevenue();
+            nextCursor = new DashboardCursor<>(filter, value, ids.get(size - 1)).encode();
+        }
+
+        Map<UUID, List<OrderProductDetailDto>> lines = findLines(ids);
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setProducts(lines.getOrDefault(ids.get(i), List.of()));
+        }
+        return DashboardDetailPage.of(orders, nextCursor);
+    }
+
+    /**
+     * Products sold in the period grouped by barcode, in the given order, starting after the cursor
+     */
+    public DashboardDetailPage<ProductDetailDto> findProducts(UUID storeId, DashboardPeriod period, DashboardProductSort sort,
+                                                              boolean ascending, String cursor, int size) {
+        String direction = ascending ? "ASC" : "DESC";
+        String filter = DashboardCursor.filter("products", storeId, period.name(), period.startDate(), sort.name(),
+                direction);
+        DashboardCursor<BigDecimal, String> after = DashboardCursor.decode(cursor, filter, BigDecimal::new,
+                Function.identity());
+        Timestamp start = start(period);
+        Timestamp end = end(period);
+        StringBuilder sql = new StringBuilder(PRODUCTS_SQL);
+        List<Object> args = new ArrayList<>(List.of(storeId, start, end, storeId, start, end));
+        if (after != null) {
+            sql.append(" WHERE (p.").append(sort.column).append(", p.sort_key) ").append(ascending ? ">" : "<")
+                    .append(" (?, ?)");
+            args.add(after.value());
+            args.add(after.tieBreaker());
+        }
+        sql.append(" ORDER BY p.").append(sort.column).append(' ').append(direction)
+                .append(", p.sort_key ").append(direction).append(" LIMIT ?");
+        args.add(size + 1);
+
+        List<BigDecimal> sortValues = new ArrayList<>();
+        List<String> sortKeys = new ArrayList<>();
+        List<ProductDetailDto> products = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            sortValues.add(rs.getBigDecimal(sort.column));
+            sortKeys.add(rs.getString("sort_key"));
+            return ProductDetailDto.builder()
+                    .barcode(rs.getString("barcode"))
+                    .productName(rs.getString("product_name"))
+                    .totalSoldQuantity(rs.getInt("total_sold_quantity"))
+                    .returnQuantity(rs.getInt("return_quantity"))
+                    .revenue(rs.getBigDecimal("revenue"))
+                    .grossProfit(rs.getBigDecimal("gross_profit"))
+                    .estimatedCommission(rs.getBigDecimal("estimated_commission"))
+                    .build();
+        }, args.toArray());
+
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = new ArrayList<>(products.subList(0, size));
+            nextCursor = new DashboardCursor<>(filter, sortValues.get(size - 1), sortKeys.get(size - 1)).encode();
+        }
+        return DashboardDetailPage.of(products, nextCursor);
+    }
+
+    // Lines of the page's orders in one query, accumulated per order
+    private Map<UUID, List<OrderProductDetailDto>> findLines(List<UUID> orderIds) {
+        Map<UUID, List<OrderProductDetailDto>> lines = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return lines;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ORDER_LINES_SQL);
+            Array ids = connection.createArrayOf("uuid", orderIds.toArray());
+            ps.setArray(1, ids);
+            return ps;
+        }, rs -> {
+            lines.computeIfAbsent(rs.getObject("order_id", UUID.class), id -> new ArrayList<>())
+                    .add(OrderProductDetailDto.builder()
+                            .productName(rs.getString("product_name"))
+                            .quantity(rs.getInt("quantity"))
+                            .build());
+        });
+        return lines;
+    }
+
+    private static Timestamp start(DashboardPeriod period) {
+        return Timestamp.valueOf(period.startDate().atStartOfDay());
+    }
+
+    private static Timestamp end(DashboardPeriod period) {
+        return Timestamp.valueOf(period.endDate().plusDays(1).atStartOfDay());
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
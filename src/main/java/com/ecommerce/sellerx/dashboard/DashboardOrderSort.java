@@ -0,0 +1,25 @@
+package com.ecommerce.sellerx.dashboard;
+
+import java.util.Locale;
+
+/**
+ * Sort keys of the order detail listing; ties are broken by order id in the same direction
+ */
+public enum DashboardOrderSort {
+    DATE("o.order_date"),
+    REVENUE("(COALESCE(o.gross_amount, 0) - COALESCE(o.total_discount, 0))");
+
+    final String expression;
+
+    DashboardOrderSort(String expression) {
+        this.expression = expression;
+    }
+
+    public static DashboardOrderSort parse(String value) {
+        try {
+            return value == null ? DATE : valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown order sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.sellerx.dashboard;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One of the dashboard's reporting windows, as an inclusive range of Turkey-local dates
+ */
+public record DashboardPeriod(String name, LocalDate startDate, LocalDate endDate) {
+
+    public static final String TODAY = "today";
+    public static final String YESTERDAY = "yesterday";
+    public static final String THIS_MONTH = "thisMonth";
+    public static final String LAST_MONTH = "lastMonth";
+
+    /**
+     * today, yesterday, thisMonth and lastMonth relative to the given date
+     */
+    public static List<DashboardPeriod> all(LocalDate today) {
+        LocalDate firstDayOfMonth = today.withDayOfMonth(1);
+        return List.of(
+                new DashboardPeriod(TODAY, today, today),
+                new DashboardPeriod(YESTERDAY, today.minusDays(1), today.minusDays(1)),
+                new DashboardPeriod(THIS_MONTH, firstDayOfMonth, today),
+                new DashboardPeriod(LAST_MONTH, firstDayOfMonth.minusMonths(1), firstDayOfMonth.minusDays(1)));
+    }
+
+    /**
+     * The period with the given name relative to the given date
+     */
+    public static DashboardPeriod named(String name, LocalDate today) {
+        return all(today).stream()
+                .filter(period -> period.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown period: " + name));
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.sellerx.dashboard;
+
+import java.util.Locale;
+
+/**
+ * Sort keys of the product detail listing, columns of the per-barcode aggregate; ties are broken by barcode
+ */
+public enum DashboardProductSort {
+    REVENUE("revenue"),
+    QUANTITY("total_sold_quantity"),
+    GROSS_PROFIT("gross_profit"),
+    COMMISSION("estimated_commission");
+
+    final String column;
+
+    DashboardProductSort(String column) {
+        this.column = column;
+    }
+
+    public static DashboardProductSort parse(String value) {
+        try {
+            return value == null ? REVENUE : valueOf(value.replace("-", "_").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown product sort: " + value);
+        }
+    }
+}
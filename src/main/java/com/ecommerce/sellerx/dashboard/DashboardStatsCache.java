@@ -0,0 +1,163 @@
+package com.ecommerce.sellerx.dashboard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-store cache of computed dashboard periods.
+ * lastMonth stays valid until the month rolls over, yesterday and thisMonth until the day rolls over, today for
+ * app.dashboard.today-ttl-seconds; any of them is dropped earlier when a write touches one of its days
+ * (invalidateDays) or the store's expenses change (invalidate). Only one request per store computes at a time;
+ * concurrent requests wait for it and then read its result.
+ */
+@Component
+@Slf4j
+public class DashboardStatsCache {
+
+    private final long todayTtlNanos;
+    private final ConcurrentHashMap<UUID, Map<String, CachedPeriod>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Long> versions = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public DashboardStatsCache(DashboardConfig config, MeterRegistry meterRegistry) {
+        this.todayTtlNanos = TimeUnit.SECONDS.toNanos(config.getTodayTtlSeconds());
+        this.hits = Counter.builder("dashboard.stats.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("dashboard.stats.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * A computed period; computedFor is the "today" its range was derived from
+     */
+    public record CachedPeriod(DashboardStatsDto stats, LocalDate computedFor, Instant computedAt, long computedAtNanos) {
+    }
+
+    /**
+     * All periods of the store for the given date. Stale periods are computed by the loader, which receives only
+     * those periods and returns their stats keyed by period name.
+     */
+    public Map<String, CachedPeriod> get(UUID storeId, LocalDate today,
+                                         Function<List<DashboardPeriod>, Map<String, DashboardStatsDto>> loader) {
+        while (true) {
+            Map<String, CachedPeriod> cached = entries.getOrDefault(storeId, Map.of());
+            long now = System.nanoTime();
+            List<DashboardPeriod> stale = DashboardPeriod.all(today).stream()
+                    .filter(period -> !isFresh(period.name(), cached.get(period.name()), today, now))
+                    .toList();
+            if (stale.isEmpty()) {
+                hits.increment();
+                return cached;
+            }
+
+            CompletableFuture<Void> computation = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(storeId, computation);
+            if (running != null) {
+                // Another request is computing this store; re-check once it is done, whatever its outcome
+                running.handle((ignored, error) -> null).join();
+                continue;
+            }
+            try {
+                misses.increment();
+                return compute(storeId, today, cached, stale, loader);
+            } finally {
+                inFlight.remove(storeId, computation);
+                computation.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Drops every period whose range contains one of the days; inside a transaction it happens again after commit
+     */
+    public void invalidateDays(UUID storeId, Collection<LocalDate> days) {
+        if (days == null || days.isEmpty()) {
+            return;
+        }
+        runNowAndAfterCommit(() -> invalidateDaysNow(storeId, days));
+    }
+
+    /**
+     * Drops all periods of the store, e.g. after an expense change
+     */
+    public void invalidate(UUID storeId) {
+        runNowAndAfterCommit(() -> entries.compute(storeId, (id, current) -> {
+            versions.merge(storeId, 1L, Long::sum);
+            return null;
+        }));
+    }
+
+    private Map<String, CachedPeriod> compute(UUID storeId, LocalDate today, Map<String, CachedPeriod> cached,
+                                              List<DashboardPeriod> stale,
+                                              Function<List<DashboardPeriod>, Map<String, DashboardStatsDto>> loader) {
+        long version = versions.getOrDefault(storeId, 0L);
+        Map<String, DashboardStatsDto> computed = loader.apply(stale);
+        Instant computedAt = Instant.now();
+        long computedAtNanos = System.nanoTime();
+
+        Map<String, CachedPeriod> result = new HashMap<>(cached);
+        computed.forEach((name, stats) -> result.put(name, new CachedPeriod(stats, today, computedAt, computedAtNanos)));
+        Map<String, CachedPeriod> snapshot = Map.copyOf(result);
+        // A write that happened while computing may not be reflected; such a result is returned but not kept
+        entries.compute(storeId, (id, current) ->
+                versions.getOrDefault(storeId, 0L) == version ? snapshot : current);
+        log.debug("Computed dashboard periods {} for store {}", computed.keySet(), storeId);
+        return snapshot;
+    }
+
+    private boolean isFresh(String period, CachedPeriod cached, LocalDate today, long now) {
+        if (cached == null) {
+            return false;
+        }
+        return switch (period) {
+            case DashboardPeriod.LAST_MONTH -> YearMonth.from(cached.computedFor()).equals(YearMonth.from(today));
+            case DashboardPeriod.TODAY -> cached.computedFor().equals(today) && now - cached.computedAtNanos() < todayTtlNanos;
+            default -> cached.computedFor().equals(today);
+        };
+    }
+
+    private void invalidateDaysNow(UUID storeId, Collection<LocalDate> days) {
+        entries.compute(storeId, (id, current) -> {
+            versions.merge(storeId, 1L, Long::sum);
+            if (current == null) {
+                return null;
+            }
+            Map<String, CachedPeriod> kept = new HashMap<>(current);
+            kept.entrySet().removeIf(entry -> {
+                DashboardPeriod period = DashboardPeriod.named(entry.getKey(), entry.getValue().computedFor());
+                return days.stream().anyMatch(day ->
+                        !day.isBefore(period.startDate()) && !day.isAfter(period.endDate()));
+            });
+            return kept.isEmpty() ? null : Map.copyOf(kept);
+        });
+    }
+
+    private void runNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
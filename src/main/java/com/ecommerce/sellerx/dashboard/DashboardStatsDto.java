@@ -45,7 +45,9 @@ public class DashboardStatsDto {
     private BigDecimal totalExpenseAmount; // Toplam masraf tutarı
     
     // Detailed data
-    private List<OrderDetailDto> orders; // Siparişlerin detayları
-    private List<ProductDetailDto> products; // Ürünlerin detayları
+    private List<OrderDetailDto> orders; // Siparişlerin detayları (ilk sayfa)
+    private String ordersNextCursor; // Sonraki sipariş sayfası, yoksa null
+    private List<ProductDetailDto> products; // Ürünlerin detayları (ilk sayfa)
+    private String productsNextCursor; // Sonraki ürün sayfası, yoksa null
     private List<PeriodExpenseDto> expenses; // Dönem masrafları
 }
@@ -3,20 +3,17 @@ package com.ecommerce.sellerx.dashboard;
 import com.ecommerce.sellerx.expenses.ExpenseFrequency;
 import com.ecommerce.sellerx.expenses.StoreExpense;
 import com.ecommerce.sellerx.expenses.StoreExpenseRepository;
-import com.ecommerce.sellerx.orders.OrderItem;
-import com.ecommerce.sellerx.orders.TrendyolOrder;
-import com.ecommerce.sellerx.orders.TrendyolOrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,8 +24,11 @@ import java.util.UUID;
 @Slf4j
 public class DashboardStatsService {
     
-    private final TrendyolOrderRepository orderRepository;
     private final StoreExpenseRepository storeExpenseRepository;
+    private final StoreDailyMetricsService dailyMetricsService;
+    private final DashboardDetailQueries detailQueries;
+    private final DashboardConfig dashboardConfig;
+    private final DashboardStatsCache statsCache;
     
     // Turkey timezone
     private static final ZoneId TURKEY_ZONE = ZoneId.of("Europe/Istanbul");
@@ -36,76 +36,95 @@ public class DashboardStatsService {
     // Return cost per item (50 TL for now)
     private static final BigDecimal RETURN_COST_PER_ITEM = BigDecimal.valueOf(50);
     
+    /**
+     * Served from DashboardStatsCache; stale periods are recomputed together. Totals come from one grouped
+     * query over store_daily_metrics; only the first detail-limit orders and products of each period are
+     * embedded, with cursors for the detail endpoints. calculatedAt is the time of the oldest period.
+     */
     public DashboardStatsResponse getStatsForStore(UUID storeId) {
-        log.info("Calculating dashboard stats for store: {}", storeId);
-        
         LocalDate today = LocalDate.now(TURKEY_ZONE);
-        LocalDate yesterday = today.minusDays(1);
-        LocalDate firstDayOfMonth = today.withDayOfMonth(1);
-        LocalDate firstDayOfLastMonth = today.minusMonths(1).withDayOfMonth(1);
-        LocalDate lastDayOfLastMonth = today.withDayOfMonth(1).minusDays(1);
-        
-        log.info("Current Turkey date: {}", today);
+        Map<String, DashboardStatsCache.CachedPeriod> stats = statsCache.get(storeId, today,
+                periods -> calculatePeriods(storeId, periods));
         
-        DashboardStatsDto todayStats = calculateStatsForPeriod(storeId, "today", today, today);
-        DashboardStatsDto yesterdayStats = calculateStatsForPeriod(storeId, "yesterday", yesterday, yesterday);
-        DashboardStatsDto thisMonthStats = calculateStatsForPeriod(storeId, "thisMonth", firstDayOfMonth, today);
-        DashboardStatsDto lastMonthStats = calculateStatsForPeriod(storeId, "lastMonth", firstDayOfLastMonth, lastDayOfLastMonth);
+        Instant calculatedAt = stats.values().stream()
+                .map(DashboardStatsCache.CachedPeriod::computedAt)
+                .min(Comparator.naturalOrder())
+                .orElseGet(Instant::now);
         
         return DashboardStatsResponse.builder()
-                .today(todayStats)
-                .yesterday(yesterdayStats)
-                .thisMonth(thisMonthStats)
-                .lastMonth(lastMonthStats)
+                .today(stats.get(DashboardPeriod.TODAY).stats())
+                .yesterday(stats.get(DashboardPeriod.YESTERDAY).stats())
+                .thisMonth(stats.get(DashboardPeriod.THIS_MONTH).stats())
+                .lastMonth(stats.get(DashboardPeriod.LAST_MONTH).stats())
                 .storeId(storeId.toString())
-                .calculatedAt(LocalDateTime.now(TURKEY_ZONE).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .calculatedAt(LocalDateTime.ofInstant(calculatedAt, TURKEY_ZONE).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
                 .build();
     }
     
-    private DashboardStatsDto calculateStatsForPeriod(UUID storeId, String period, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-        
-        log.debug("Calculating stats for period {} from {} to {}", period, startDateTime, endDateTime);
+    private Map<String, DashboardStatsDto> calculatePeriods(UUID storeId, List<DashboardPeriod> periods) {
+        log.info("Calculating dashboard periods {} for store: {}", periods.stream().map(DashboardPeriod::name).toList(), storeId);
         
-        // Get revenue orders (not cancelled, returned etc.)
-        List<TrendyolOrder> revenueOrders = orderRepository.findRevenueOrdersByStoreAndDateRange(
-                storeId, startDateTime, endDateTime);
-        
-        // Get returned orders
-        List<TrendyolOrder> returnedOrders = orderRepository.findReturnedOrdersByStoreAndDateRange(
-                storeId, startDateTime, endDateTime);
+        Map<String, StoreDailyMetricsService.DailyMetricsTotals> totals = dailyMetricsService.getTotals(storeId, periods);
+        List<StoreExpense> allExpenses = storeExpenseRepository.findByStoreIdOrderByDateDesc(storeId);
         
-        // Calculate basic stats
-        int totalOrders = revenueOrders.size();
-        int totalProductsSold = calculateTotalProductsSold(revenueOrders);
-        int returnCount = returnedOrders.size();
+        Map<String, DashboardStatsDto> stats = new HashMap<>();
+        for (DashboardPeriod period : periods) {
+            stats.put(period.name(), calculateStatsForPeriod(storeId, period, totals.get(period.name()), allExpenses));
+        }
+        return stats;
+    }
+    
+    /**
+     * One page of a period's revenue orders; pass the previous page's nextCursor to continue
+     */
+    public DashboardDetailPage<OrderDetailDto> getOrderDetails(UUID storeId, String period, String sort,
+                                                               String direction, String cursor, int size) {
+        return detailQueries.findOrders(storeId, DashboardPeriod.named(period, LocalDate.now(TURKEY_ZONE)),
+                DashboardOrderSort.parse(sort), isAscending(direction), cursor, pageSize(size));
+    }
+    
+    /**
+     * One page of a period's per-product totals; pass the previous page's nextCursor to continue
+     */
+    public DashboardDetailPage<ProductDetailDto> getProductDetails(UUID storeId, String period, String sort,
+                                                                   String direction, String cursor, int size) {
+        return detailQueries.findProducts(storeId, DashboardPeriod.named(period, LocalDate.now(TURKEY_ZONE)),
+                DashboardProductSort.parse(sort), isAscending(direction), cursor, pageSize(size));
+    }
+    
+    private boolean isAscending(String direction) {
+        if (direction == null || direction.equalsIgnoreCase("desc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("asc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unknown sort direction: " + direction);
+    }
+    
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, dashboardConfig.getMaxPageSize()));
+    }
+    
+    private DashboardStatsDto calculateStatsForPeriod(UUID storeId, DashboardPeriod period,
+                                                      StoreDailyMetricsService.DailyMetricsTotals totals,
+                                                      List<StoreExpense> allExpenses) {
+        log.debug("Calculating stats for period {} from {} to {}", period.name(), period.startDate(), period.endDate());
         
-        // Calculate revenue (Ciro = gross_amount - total_discount)
-        BigDecimal totalRevenue = calculateTotalRevenue(revenueOrders);
+        // Only the first page of each listing; the rest is served by the detail endpoints
+        DashboardDetailPage<OrderDetailDto> orders = detailQueries.findOrders(storeId, period,
+                DashboardOrderSort.DATE, false, null, dashboardConfig.getDetailLimit());
+        DashboardDetailPage<ProductDetailDto> products = detailQueries.findProducts(storeId, period,
+                DashboardProductSort.REVENUE, false, null, dashboardConfig.getDetailLimit());
         
         // Calculate return cost
-        BigDecimal returnCost = RETURN_COST_PER_ITEM.multiply(BigDecimal.valueOf(returnCount));
-        
-        // Calculate product costs and items without cost
-        ProductCostResult productCostResult = calculateProductCosts(revenueOrders);
-        BigDecimal totalProductCosts = productCostResult.getTotalCosts();
-        int itemsWithoutCost = productCostResult.getItemsWithoutCost();
+        BigDecimal returnCost = RETURN_COST_PER_ITEM.multiply(BigDecimal.valueOf(totals.returnCount()));
         
         // Calculate gross profit
-        BigDecimal grossProfit = totalRevenue.subtract(totalProductCosts);
-        
-        // Calculate VAT difference
-        BigDecimal vatDifference = calculateVatDifference(revenueOrders);
-        
-        // Calculate total stoppage
-        BigDecimal totalStoppage = calculateTotalStoppage(revenueOrders);
-        
-        // Calculate total estimated commission
-        BigDecimal totalEstimatedCommission = calculateTotalEstimatedCommission(revenueOrders);
+        BigDecimal grossProfit = totals.totalRevenue().subtract(totals.totalProductCosts());
         
         // Calculate period expenses
-        List<PeriodExpenseDto> expenses = calculatePeriodExpenses(storeId, startDate, endDate);
+        List<PeriodExpenseDto> expenses = calculatePeriodExpenses(allExpenses, period.startDate(), period.endDate());
         
         // Calculate expense summary
         int totalExpenseNumber = expenses.size();
@@ -114,286 +133,30 @@ public class DashboardStatsService {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         
         return DashboardStatsDto.builder()
-                .period(period)
-                .totalOrders(totalOrders)
-                .totalProductsSold(totalProductsSold)
-                .totalRevenue(totalRevenue)
-                .returnCount(returnCount)
+                .period(period.name())
+                .totalOrders(totals.totalOrders())
+                .totalProductsSold(totals.totalProductsSold())
+                .totalRevenue(totals.totalRevenue())
+                .returnCount(totals.returnCount())
                 .returnCost(returnCost)
-                .totalProductCosts(totalProductCosts)
+                .totalProductCosts(totals.totalProductCosts())
                 .grossProfit(grossProfit)
-                .vatDifference(vatDifference)
-                .totalStoppage(totalStoppage)
-                .totalEstimatedCommission(totalEstimatedCommission)
-                .itemsWithoutCost(itemsWithoutCost)
+                .vatDifference(totals.vatDifference())
+                .totalStoppage(totals.totalStoppage())
+                .totalEstimatedCommission(totals.totalEstimatedCommission())
+                .itemsWithoutCost(totals.itemsWithoutCost())
                 .totalExpenseNumber(totalExpenseNumber)
                 .totalExpenseAmount(totalExpenseAmount)
-                .orders(calculateOrderDetails(revenueOrders, returnedOrders))
-                .products(calculateProductDetails(revenueOrders, returnedOrders))
+                .orders(orders.items())
+                .ordersNextCursor(orders.nextCursor())
+                .products(products.items())
+                .productsNextCursor(products.nextCursor())
                 .expenses(expenses)
                 .build();
     }
     
-    private int calculateTotalProductsSold(List<TrendyolOrder> orders) {
-        return orders.stream()
-                .flatMap(order -> order.getOrderItems().stream())
-                .mapToInt(OrderItem::getQuantity)
-                .sum();
-    }
-    
-    private BigDecimal calculateTotalRevenue(List<TrendyolOrder> orders) {
-        return orders.stream()
-                .map(order -> {
-                    BigDecimal grossAmount = order.getGrossAmount() != null ? order.getGrossAmount() : BigDecimal.ZERO;
-                    BigDecimal totalDiscount = order.getTotalDiscount() != null ? order.getTotalDiscount() : BigDecimal.ZERO;
-                    return grossAmount.subtract(totalDiscount);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-    
-    private ProductCostResult calculateProductCosts(List<TrendyolOrder> orders) {
-        BigDecimal totalCosts = BigDecimal.ZERO;
-        int itemsWithoutCost = 0;
-        
-        for (TrendyolOrder order : orders) {
-            for (OrderItem item : order.getOrderItems()) {
-                if (item.getCost() != null && item.getCost().compareTo(BigDecimal.ZERO) > 0) {
-                    // Item has cost - add to total
-                    BigDecimal itemTotalCost = item.getCost().multiply(BigDecimal.valueOf(item.getQuantity()));
-                    totalCosts = totalCosts.add(itemTotalCost);
-                } else {
-                    // Item doesn't have cost
-                    itemsWithoutCost += item.getQuantity();
-                }
-            }
-        }
-        
-        return new ProductCostResult(totalCosts, itemsWithoutCost);
-    }
-    
-    private BigDecimal calculateVatDifference(List<TrendyolOrder> orders) {
-        BigDecimal totalVatDifference = BigDecimal.ZERO;
-        
-        for (TrendyolOrder order : orders) {
-            for (OrderItem item : order.getOrderItems()) {
-                // Only calculate VAT difference if both cost and price exist
-                if (item.getPrice() != null && item.getCost() != null && 
-                    item.getPrice().compareTo(BigDecimal.ZERO) > 0 && 
-                    item.getCost().compareTo(BigDecimal.ZERO) > 0) {
-                    
-                    // Sales VAT (Tahsil Edilen KDV) - Calculate from price using vatBaseAmount as rate
-                    BigDecimal salesVat;
-                    if (item.getVatBaseAmount() != null && item.getVatBaseAmount().compareTo(BigDecimal.ZERO) > 0) {
-                        // vatBaseAmount is actually the VAT rate (e.g., 20 for 20%)
-                        BigDecimal salesVatRate = item.getVatBaseAmount().divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
-                        BigDecimal salesPriceIncludingVat = item.getPrice();
-                        
-                        // Formula: Sales VAT = (Sales Price (VAT Included) / (1 + VAT Rate)) × VAT Rate
-                        BigDecimal salesPriceExcludingVat = salesPriceIncludingVat.divide(
-                                BigDecimal.ONE.add(salesVatRate), 4, RoundingMode.HALF_UP);
-                        salesVat = salesPriceExcludingVat.multiply(salesVatRate);
-                    } else {
-                        // Fallback: Calculate from price assuming 20% VAT
-                        BigDecimal salesPrice = item.getPrice();
-                        salesVat = salesPrice.multiply(BigDecimal.valueOf(0.20))
-                                .divide(BigDecimal.valueOf(1.20), 2, RoundingMode.HALF_UP);
-                    }
-                    
-                    // Cost VAT (Ödenen KDV) - Calculate using actual costVat rate
-                    BigDecimal costVat = BigDecimal.ZERO;
-                    if (item.getCostVat() != null && item.getCostVat() > 0) {
-                        // costVat is the VAT rate (e.g., 20 for 20%)
-                        BigDecimal costVatRate = BigDecimal.valueOf(item.getCostVat()).divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
-                        BigDecimal costIncludingVat = item.getCost();
-                        
-                        // Formula: Cost VAT = (Cost (VAT Included) / (1 + VAT Rate)) × VAT Rate
-                        BigDecimal costExcludingVat = costIncludingVat.divide(
-                                BigDecimal.ONE.add(costVatRate), 4, RoundingMode.HALF_UP);
-                        costVat = costExcludingVat.multiply(costVatRate);
-                    }
-                    
-                    // VAT difference per item (Net KDV Farkı)
-                    // KDV Farkı = Satış KDV − Alış KDV
-                    BigDecimal vatDifferencePerItem = salesVat.subtract(costVat);
-                    
-                    // Total VAT difference for this item (multiply by quantity)
-                    BigDecimal itemVatDifference = vatDifferencePerItem.multiply(BigDecimal.valueOf(item.getQuantity()));
-                    
-                    totalVatDifference = totalVatDifference.add(itemVatDifference);
-                    
-                    log.debug("VAT calculation for {}: Sales VAT={}, Cost VAT={}, Difference={}, Quantity={}, Total Diff={}", 
-                            item.getBarcode(), salesVat, costVat, vatDifferencePerItem, item.getQuantity(), itemVatDifference);
-                }
-            }
-        }
-        
-        return totalVatDifference;
-    }
-    
-    private BigDecimal calculateTotalStoppage(List<TrendyolOrder> orders) {
-        return orders.stream()
-                .map(order -> order.getStoppage() != null ? order.getStoppage() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-    
-    // Helper class for product cost calculation result
-    private static class ProductCostResult {
-        private final BigDecimal totalCosts;
-        private final int itemsWithoutCost;
-        
-        public ProductCostResult(BigDecimal totalCosts, int itemsWithoutCost) {
-            this.totalCosts = totalCosts;
-            this.itemsWithoutCost = itemsWithoutCost;
-        }
-        
-        public BigDecimal getTotalCosts() {
-            return totalCosts;
-        }
-        
-        public int getItemsWithoutCost() {
-            return itemsWithoutCost;
-        }
-    }
-    
-    private List<OrderDetailDto> calculateOrderDetails(List<TrendyolOrder> revenueOrders, List<TrendyolOrder> returnedOrders) {
-        return revenueOrders.stream()
-                .map(order -> {
-                    // Siparişin ürünlerini listele
-                    List<OrderProductDetailDto> products = order.getOrderItems().stream()
-                            .map(item -> OrderProductDetailDto.builder()
-                                    .productName(item.getProductName())
-                                    .quantity(item.getQuantity())
-                                    .build())
-                            .toList();
-                    
-                    // Sipariş için ciro hesaplama (gross_amount - total_discount)
-                    BigDecimal grossAmount = order.getGrossAmount() != null ? order.getGrossAmount() : BigDecimal.ZERO;
-                    BigDecimal totalDiscount = order.getTotalDiscount() != null ? order.getTotalDiscount() : BigDecimal.ZERO;
-                    BigDecimal orderRevenue = grossAmount.subtract(totalDiscount);
-                    
-                    // Sipariş için toplam maliyet hesaplama
-                    BigDecimal orderTotalCost = order.getOrderItems().stream()
-                            .filter(item -> item.getCost() != null && item.getCost().compareTo(BigDecimal.ZERO) > 0)
-                            .map(item -> item.getCost().multiply(BigDecimal.valueOf(item.getQuantity())))
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    
-                    // Brüt kar hesaplama
-                    BigDecimal orderGrossProfit = orderRevenue.subtract(orderTotalCost);
-                    
-                    // İade fiyatı (şimdilik 0, gerekirse daha sonra hesaplanabilir)
-                    BigDecimal returnPrice = BigDecimal.ZERO;
-                    
-                    // Stoppage amount
-                    BigDecimal stoppage = order.getStoppage() != null ? order.getStoppage() : BigDecimal.ZERO;
-                    
-                    // Estimated commission
-                    BigDecimal estimatedCommission = order.getEstimatedCommission() != null ? order.getEstimatedCommission() : BigDecimal.ZERO;
-                    
-                    return OrderDetailDto.builder()
-                            .orderNumber(order.getTyOrderNumber())
-                            .orderDate(order.getOrderDate())
-                            .products(products)
-                            .totalPrice(grossAmount)
-                            .returnPrice(returnPrice)
-                            .revenue(orderRevenue)
-                            .grossProfit(orderGrossProfit)
-                            .stoppage(stoppage)
-                            .estimatedCommission(estimatedCommission)
-                            .build();
-                })
-                .toList();
-    }
-    
-    private List<ProductDetailDto> calculateProductDetails(List<TrendyolOrder> revenueOrders, List<TrendyolOrder> returnedOrders) {
-        Map<String, ProductDetailDto.ProductDetailDtoBuilder> productMap = new HashMap<>();
-        
-        // Revenue siparişlerinden ürün bilgilerini topla
-        for (TrendyolOrder order : revenueOrders) {
-            for (OrderItem item : order.getOrderItems()) {
-                String barcode = item.getBarcode();
-                String productName = item.getProductName();
-                ProductDetailDto.ProductDetailDtoBuilder builder = productMap.computeIfAbsent(barcode, 
-                        k -> ProductDetailDto.builder()
-                                .productName(productName)
-                                .barcode(barcode)
-                                .totalSoldQuantity(0)
-                                .returnQuantity(0)
-                                .revenue(BigDecimal.ZERO)
-                                .grossProfit(BigDecimal.ZERO)
-                                .estimatedCommission(BigDecimal.ZERO));
-                
-                // Mevcut bilgileri al
-                ProductDetailDto current = builder.build();
-                
-                // Satış miktarını ekle
-                int newTotalSold = current.getTotalSoldQuantity() + item.getQuantity();
-                
-                // Ürün için ciro hesaplama (price * quantity)
-                BigDecimal itemRevenue = item.getPrice() != null ? 
-                        item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())) : BigDecimal.ZERO;
-                BigDecimal newRevenue = current.getRevenue().add(itemRevenue);
-                
-                // Ürün için maliyet ve brüt kar hesaplama
-                BigDecimal itemCost = BigDecimal.ZERO;
-                if (item.getCost() != null && item.getCost().compareTo(BigDecimal.ZERO) > 0) {
-                    itemCost = item.getCost().multiply(BigDecimal.valueOf(item.getQuantity()));
-                }
-                BigDecimal itemGrossProfit = itemRevenue.subtract(itemCost);
-                BigDecimal newGrossProfit = current.getGrossProfit().add(itemGrossProfit);
-                
-                // Ürün için komisyon hesaplama
-                BigDecimal itemCommission = BigDecimal.ZERO;
-                if (item.getUnitEstimatedCommission() != null) {
-                    itemCommission = item.getUnitEstimatedCommission().multiply(BigDecimal.valueOf(item.getQuantity()));
-                }
-                BigDecimal newEstimatedCommission = current.getEstimatedCommission().add(itemCommission);
-                
-                // Builder'ı güncelle
-                productMap.put(barcode, ProductDetailDto.builder()
-                        .productName(productName)
-                        .barcode(barcode)
-                        .totalSoldQuantity(newTotalSold)
-                        .returnQuantity(current.getReturnQuantity()) // İade miktarı aynı kalır bu döngüde
-                        .revenue(newRevenue)
-                        .grossProfit(newGrossProfit)
-                        .estimatedCommission(newEstimatedCommission));
-            }
-        }
-        
-        // İade siparişlerinden iade miktarlarını ekle
-        for (TrendyolOrder order : returnedOrders) {
-            for (OrderItem item : order.getOrderItems()) {
-                String barcode = item.getBarcode();
-                String productName = item.getProductName();
-                ProductDetailDto.ProductDetailDtoBuilder builder = productMap.get(barcode);
-                
-                if (builder != null) {
-                    ProductDetailDto current = builder.build();
-                    int newReturnQuantity = current.getReturnQuantity() + item.getQuantity();
-                    
-                    // Builder'ı güncelle
-                    productMap.put(barcode, ProductDetailDto.builder()
-                            .productName(productName)
-                            .barcode(barcode)
-                            .totalSoldQuantity(current.getTotalSoldQuantity())
-                            .returnQuantity(newReturnQuantity)
-                            .revenue(current.getRevenue())
-                            .grossProfit(current.getGrossProfit())
-                            .estimatedCommission(current.getEstimatedCommission()));
-                }
-            }
-        }
-        
-        return productMap.values().stream()
-                .map(ProductDetailDto.ProductDetailDtoBuilder::build)
-                .toList();
-    }
-    
-    private List<PeriodExpenseDto> calculatePeriodExpenses(UUID storeId, LocalDate startDate, LocalDate endDate) {
-        log.debug("Calculating expenses for store {} from {} to {}", storeId, startDate, endDate);
-        
-        // Get all expenses for the store
-        List<StoreExpense> allExpenses = storeExpenseRepository.findByStoreIdOrderByDateDesc(storeId);
+    private List<PeriodExpenseDto> calculatePeriodExpenses(List<StoreExpense> allExpenses, LocalDate startDate, LocalDate endDate) {
+        log.debug("Calculating expenses from {} to {}", startDate, endDate);
         
         Map<String, PeriodExpenseDto> expenseMap = new HashMap<>();
         
@@ -521,10 +284,4 @@ public class DashboardStatsService {
         
         return count;
     }
-    
-    private BigDecimal calculateTotalEstimatedCommission(List<TrendyolOrder> orders) {
-        return orders.stream()
-                .map(order -> order.getEstimatedCommission() != null ? order.getEstimatedCommission() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
 }
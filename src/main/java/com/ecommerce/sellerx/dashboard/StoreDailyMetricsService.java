@@ -0,0 +1,191 @@
+package com.ecommerce.sellerx.dashboard;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains store_daily_metrics, the per-day rollup behind the dashboard totals.
+ * Writers (order sync, webhooks, FIFO re-allocation) report which order days they touched and those days are
+ * recomputed from the order tables in one statement; the dashboard then sums at most a month of day rows per period,
+ * all periods in one query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoreDailyMetricsService {
+
+    static final String REVENUE_STATUSES =
+            "('Created', 'Picking', 'Invoiced', 'Shipped', 'Delivered', 'AtCollectionPoint', 'UnPacked')";
+
+    // Same per-line formula as the Java VAT difference: sales VAT minus cost VAT, rates rounded to 4 places
+    private static final String VAT_DIFFERENCE =
+            "CASE WHEN i.price > 0 AND i.cost > 0 THEN " +
+            "((CASE WHEN i.vat_base_amount > 0 " +
+            "THEN ROUND(i.price / (1 + ROUND(i.vat_base_amount / 100, 4)), 4) * ROUND(i.vat_base_amount / 100, 4) " +
+            "ELSE ROUND(i.price * 0.20 / 1.20, 2) END) " +
+            "- (CASE WHEN i.cost_vat > 0 " +
+            "THEN ROUND(i.cost / (1 + ROUND(i.cost_vat / 100.0, 4)), 4) * ROUND(i.cost_vat / 100.0, 4) " +
+            "ELSE 0 END)) * i.quantity ELSE 0 END";
+
+    // Days without any order are written as zero rows so stale totals never survive a refresh
+    private static final String REFRESH_SQL =
+            "WITH days AS (SELECT DISTINCT d AS metric_date FROM unnest(CAST(? AS DATE[])) d), " +
+            "order_days AS (SELECT CAST(o.order_date AS DATE) AS metric_date, " +
+            "COUNT(*) FILTER (WHERE o.status IN " + REVENUE_STATUSES + ") AS total_orders, " +
+            "COALESCE(SUM(COALESCE(o.gross_amount, 0) - COALESCE(o.total_discount, 0)) FILTER (WHERE o.status IN " + REVENUE_STATUSES + "), 0) AS total_revenue, " +
+            "COALESCE(SUM(COALESCE(o.stoppage, 0)) FILTER (WHERE o.status IN " + REVENUE_STATUSES + "), 0) AS total_stoppage, " +
+            "COALESCE(SUM(COALESCE(o.estimated_commission, 0)) FILTER (WHERE o.status IN " + REVENUE_STATUSES + "), 0) AS total_estimated_commission, " +
+            "COUNT(*) FILTER (WHERE o.status = 'Returned') AS return_count " +
+            "FROM trendyol_orders o WHERE o.store_id = ? AND o.order_date >= ? AND o.order_date < ? " +
+            "AND CAST(o.order_date AS DATE) IN (SELECT metric_date FROM days) " +
+            "GROUP BY CAST(o.order_date AS DATE)), " +
+            "item_days AS (SELECT CAST(i.order_date AS DATE) AS metric_date, " +
+            "COALESCE(SUM(i.quantity), 0) AS total_products_sold, " +
+            "COALESCE(SUM(CASE WHEN i.cost > 0 THEN i.cost * i.quantity ELSE 0 END), 0) AS total_product_costs, " +
+            "COALESCE(SUM(CASE WHEN i.cost > 0 THEN 0 ELSE i.quantity END), 0) AS items_without_cost, " +
+            "COALESCE(SUM(" + VAT_DIFFERENCE + "), 0) AS vat_difference " +
+            "FROM trendyol_order_items i JOIN trendyol_orders o ON o.id = i.order_id " +
+            "WHERE i.store_id = ? AND i.order_date >= ? AND i.order_date < ? " +
+            "AND CAST(i.order_date AS DATE) IN (SELECT metric_date FROM days) AND o.status IN " + REVENUE_STATUSES + " " +
+            "GROUP BY CAST(i.order_date AS DATE)) " +
+            "INSERT INTO store_daily_metrics (store_id, metric_date, total_orders, total_products_sold, total_revenue, " +
+            "total_product_costs, items_without_cost, vat_difference, total_stoppage, total_estimated_commission, " +
+            "return_count, updated_at) " +
+            "SELECT ?, d.metric_date, COALESCE(od.total_orders, 0), COALESCE(id.total_products_sold, 0), " +
+            "COALESCE(od.total_revenue, 0), COALESCE(id.total_product_costs, 0), COALESCE(id.items_without_cost, 0), " +
+            "COALESCE(id.vat_difference, 0), COALESCE(od.total_stoppage, 0), COALESCE(od.total_estimated_commission, 0), " +
+            "COALESCE(od.return_count, 0), ? " +
+            "FROM days d LEFT JOIN order_days od ON od.metric_date = d.metric_date " +
+            "LEFT JOIN item_days id ON id.metric_date = d.metric_date " +
+            "ON CONFLICT (store_id, metric_date) DO UPDATE SET " +
+            "total_orders = EXCLUDED.total_orders, total_products_sold = EXCLUDED.total_products_sold, " +
+            "total_revenue = EXCLUDED.total_revenue, total_product_costs = EXCLUDED.total_product_costs, " +
+            "items_without_cost = EXCLUDED.items_without_cost, vat_difference = EXCLUDED.vat_difference, " +
+            "total_stoppage = EXCLUDED.total_stoppage, total_estimated_commission = EXCLUDED.total_estimated_commission, " +
+            "return_count = EXCLUDED.return_count, updated_at = EXCLUDED.updated_at";
+
+    // One row per requested period, each summing the day rows of its range
+    private static final String PERIOD_TOTALS_SELECT =
+            "SELECT p.period, COALESCE(SUM(m.total_orders), 0) AS total_orders, " +
+            "COALESCE(SUM(m.total_products_sold), 0) AS total_products_sold, " +
+            "COALESCE(SUM(m.total_revenue), 0) AS total_revenue, " +
+            "COALESCE(SUM(m.total_product_costs), 0) AS total_product_costs, " +
+            "COALESCE(SUM(m.items_without_cost), 0) AS items_without_cost, " +
+            "COALESCE(SUM(m.vat_difference), 0) AS vat_difference, " +
+            "COALESCE(SUM(m.total_stoppage), 0) AS total_stoppage, " +
+            "COALESCE(SUM(m.total_estimated_commission), 0) AS total_estimated_commission, " +
+            "COALESCE(SUM(m.return_count), 0) AS return_count " +
+            "FROM (VALUES ";
+
+    private static final String PERIOD_ROW = "(CAST(? AS VARCHAR), CAST(? AS DATE), CAST(? AS DATE))";
+
+    private static final String PERIOD_TOTALS_FROM =
+            ") AS p(period, start_date, end_date) " +
+            "LEFT JOIN store_daily_metrics m ON m.store_id = ? AND m.metric_date BETWEEN p.start_date AND p.end_date " +
+            "GROUP BY p.period";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DashboardStatsCache statsCache;
+
+    /**
+     * Recomputes the given order days of a store from trendyol_orders / trendyol_order_items and drops the cached
+     * dashboard periods containing them
+     */
+    @Transactional
+    public void refreshDays(UUID storeId, Collection<LocalDate> days) {
+        if (days == null || days.isEmpty()) {
+            return;
+        }
+        LocalDate first = Collections.min(days);
+        LocalDate last = Collections.max(days);
+        Timestamp from = Timestamp.valueOf(first.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(last.plusDays(1).atStartOfDay());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(ZoneId.of("Europe/Istanbul")));
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(REFRESH_SQL);
+            Array dayArray = connection.createArrayOf("date", days.stream().map(Date::valueOf).toArray());
+            ps.setArray(1, dayArray);
+            ps.setObject(2, storeId);
+            ps.setTimestamp(3, from);
+            ps.setTimestamp(4, to);
+            ps.setObject(5, storeId);
+            ps.setTimestamp(6, from);
+            ps.setTimestamp(7, to);
+            ps.setObject(8, storeId);
+            ps.setTimestamp(9, now);
+            return ps;
+        });
+        log.debug("Refreshed {} daily metric rows for store {} between {} and {}", days.size(), storeId, first, last);
+        statsCache.invalidateDays(storeId, days);
+    }
+
+    /**
+     * Totals of every period in one grouped query over the day rows, keyed by period name
+     */
+    public Map<String, DailyMetricsTotals> getTotals(UUID storeId, List<DashboardPeriod> periods) {
+        StringBuilder sql = new StringBuilder(PERIOD_TOTALS_SELECT);
+        List<Object> args = new ArrayList<>(periods.size() * 3 + 1);
+        for (DashboardPeriod period : periods) {
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(PERIOD_ROW);
+            args.add(period.name());
+            args.add(Date.valueOf(period.startDate()));
+            args.add(Date.valueOf(period.endDate()));
+        }
+        sql.append(PERIOD_TOTALS_FROM);
+        args.add(storeId);
+
+        Map<String, DailyMetricsTotals> totals = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            totals.put(rs.getString("period"), DailyMetricsTotals.builder()
+                    .totalOrders(rs.getInt("total_orders"))
+                    .totalProductsSold(rs.getInt("total_products_sold"))
+                    .totalRevenue(rs.getBigDecimal("total_revenue"))
+                    .totalProductCosts(rs.getBigDecimal("total_product_costs"))
+                    .itemsWithoutCost(rs.getInt("items_without_cost"))
+                    .vatDifference(rs.getBigDecimal("vat_difference"))
+                    .totalStoppage(rs.getBigDecimal("total_stoppage"))
+                    .totalEstimatedCommission(rs.getBigDecimal("total_estimated_commission"))
+                    .returnCount(rs.getInt("return_count"))
+                    .build());
+        }, args.toArray());
+        return totals;
+    }
+
+    @Builder
+    public record DailyMetricsTotals(
+            int totalOrders,
+            int totalProductsSold,
+            BigDecimal totalRevenue,
+            BigDecimal totalProductCosts,
+            int itemsWithoutCost,
+            BigDecimal vatDifference,
+            BigDecimal totalStoppage,
+            BigDecimal totalEstimatedCommission,
+            int returnCount
+    ) {
+    }
+}
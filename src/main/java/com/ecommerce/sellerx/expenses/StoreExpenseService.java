@@ -1,5 +1,6 @@
 package com.ecommerce.sellerx.expenses;
 
+import com.ecommerce.sellerx.dashboard.DashboardStatsCache;
 import com.ecommerce.sellerx.products.TrendyolProductRepository;
 import com.ecommerce.sellerx.stores.Store;
 import com.ecommerce.sellerx.stores.StoreRepository;
@@ -23,6 +24,7 @@ public class StoreExpenseService {
     private final TrendyolProductRepository productRepository;
     private final StoreExpenseMapper storeExpenseMapper;
     private final ExpenseCategoryMapper expenseCategoryMapper;
+    private final DashboardStatsCache statsCache;
     
     public StoreExpensesResponse getExpensesByStore(UUID storeId) {
         // Store'un varlığını kontrol et
@@ -83,6 +85,7 @@ public class StoreExpenseService {
         }
         
         storeExpenseRepository.save(expense);
+        statsCache.invalidate(storeId);
         return storeExpenseMapper.toDto(expense);
     }
     
@@ -123,6 +126,7 @@ public class StoreExpenseService {
         }
         
         storeExpenseRepository.save(expense);
+        statsCache.invalidate(storeId);
         return storeExpenseMapper.toDto(expense);
     }
     
@@ -141,5 +145,6 @@ public class StoreExpenseService {
         }
         
         storeExpenseRepository.delete(expense);
+        statsCache.invalidate(storeId);
     }
 }
@@ -0,0 +1,125 @@
+package com.ecommerce.sellerx.orders;
+
+import com.ecommerce.sellerx.products.CostAndStockInfo;
+import com.ecommerce.sellerx.products.TrendyolProduct;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * In-memory FIFO state for one allocation run: one lot cursor per barcode, fed order lines in date order.
+ * Allocation keeps the original rule: a line takes the oldest lot dated on or before the order date that still has
+ * stock, and consumes min(needed, remaining) from that lot only.
+ */
+final class FifoAllocator {
+
+    private final Map<String, LotCursor> cursors = new HashMap<>();
+
+    /**
+     * Registers a product's dated lots with their usage reset to zero; products without lots are not tracked
+     */
+    void addProduct(TrendyolProduct product, List<CostAndStockInfo> productLots) {
+        if (product.getBarcode() == null || productLots == null) {
+            return;
+        }
+        List<CostAndStockInfo> lots = productLots.stream()
+                .filter(lot -> lot.getStockDate() != null)
+                .sorted(Comparator.comparing(CostAndStockInfo::getStockDate))
+                .toList();
+        if (!lots.isEmpty()) {
+            cursors.put(product.getBarcode(), new LotCursor(product, lots));
+        }
+    }
+
+    boolean tracks(String barcode) {
+        return barcode != null && cursors.containsKey(barcode);
+    }
+
+    /**
+     * Allocates one line and returns the lot it was costed from, or null when no stock covers it
+     */
+    CostAndStockInfo allocate(String barcode, int quantity, LocalDate orderDate) {
+        LotCursor cursor = cursors.get(barcode);
+        return cursor != null ? cursor.allocate(quantity, orderDate) : null;
+    }
+
+    /**
+     * Copies the recomputed usage onto the lots and returns one change per lot whose usage actually changed
+     */
+    List<UsageChange> applyUsage() {
+        List<UsageChange> changed = new ArrayList<>();
+        for (LotCursor cursor : cursors.values()) {
+            cursor.applyUsage(changed);
+        }
+        return changed;
+    }
+
+    /**
+     * New used quantity of one lot, written back as a single row update
+     */
+    record UsageChange(UUID productId, LocalDate stockDate, int usedQuantity) {
+    }
+
+    /**
+     * True when the stored cost fields of a line differ from what the allocated lot (or no lot) implies
+     */
+    static boolean differs(BigDecimal cost, Integer costVat, LocalDate stockDate, CostAndStockInfo lot) {
+        BigDecimal newCost = lot != null && lot.getUnitCost() != null ? BigDecimal.valueOf(lot.getUnitCost()) : null;
+        Integer newCostVat = lot != null ? lot.getCostVatRate() : null;
+        LocalDate newStockDate = lot != null ? lot.getStockDate() : null;
+        boolean sameCost = cost == null ? newCost == null : newCost != null && cost.compareTo(newCost) == 0;
+        return !sameCost || !Objects.equals(costVat, newCostVat) || !Objects.equals(stockDate, newStockDate);
+    }
+
+    /**
+     * Lots of one barcode sorted by stock date. Allocation always drains the oldest lot with stock left,
+     * so exhausted lots form a prefix and the head index only moves forward.
+     */
+    private static final class LotCursor {
+        private final TrendyolProduct product;
+        private final CostAndStockInfo[] lots;
+        private final long[] epochDays;
+        private final int[] quantities;
+        private final int[] used;
+        private int head;
+
+        LotCursor(TrendyolProduct product, List<CostAndStockInfo> sortedLots) {
+            this.product = product;
+            this.lots = sortedLots.toArray(new CostAndStockInfo[0]);
+            this.epochDays = new long[lots.length];
+            this.quantities = new int[lots.length];
+            this.used = new int[lots.length];
+            for (int i = 0; i < lots.length; i++) {
+                epochDays[i] = lots[i].getStockDate().toEpochDay();
+                quantities[i] = lots[i].getQuantity() != null ? lots[i].getQuantity() : 0;
+            }
+        }
+
+        CostAndStockInfo allocate(int quantity, LocalDate orderDate) {
+            while (head < lots.length && quantities[head] - used[head] <= 0) {
+                head++;
+            }
+            if (head == lots.length || epochDays[head] > orderDate.toEpochDay()) {
+                return null;
+            }
+            used[head] += Math.min(quantity, quantities[head] - used[head]);
+            return lots[head];
+        }
+
+        void applyUsage(List<UsageChange> changed) {
+            for (int i = 0; i < lots.length; i++) {
+                if (lots[i].getUsedQuantity() != used[i]) {
+                    lots[i].setUsedQuantity(used[i]);
+                    changed.add(new UsageChange(product.getId(), lots[i].getStockDate(), used[i]));
+                }
+            }
+        }
+    }
+}
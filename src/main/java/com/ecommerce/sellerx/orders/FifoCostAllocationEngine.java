@@ -0,0 +1,162 @@
+package com.ecommerce.sellerx.orders;
+
+import com.ecommerce.sellerx.dashboard.StoreDailyMetricsService;
+import com.ecommerce.sellerx.products.CostAndStockInfo;
+import com.ecommerce.sellerx.products.ProductSnapshotCache;
+import com.ecommerce.sellerx.products.ProductStockLotRepository;
+import com.ecommerce.sellerx.products.TrendyolProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Recomputes FIFO cost allocation for a store in one pass: the store's order lines are streamed from
+ * trendyol_order_items in date order and allocated against per-barcode lot cursors held in memory.
+ * Only lines whose cost, cost VAT or stock date changed are written back, and only lots whose usage changed are
+ * updated, one product_stock_lots row each. A run can be scoped to a single barcode.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FifoCostAllocationEngine {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int UPDATE_BATCH_SIZE = 500;
+
+    private static final String SELECT_LINES =
+            "SELECT order_id, line_no, barcode, quantity, order_date, cost, cost_vat, stock_date " +
+            "FROM trendyol_order_items WHERE store_id = ?";
+
+    private static final String ORDER_BY = " ORDER BY order_date, order_id, line_no";
+
+    private static final String UPDATE_LINE =
+            "UPDATE trendyol_order_items SET cost = ?, cost_vat = ?, stock_date = ? WHERE order_id = ? AND line_no = ?";
+
+    // Bumps the version so an edit based on the lot as read before this run is rejected
+    private static final String UPDATE_LOT_USAGE =
+            "UPDATE product_stock_lots SET used_quantity = ?, version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE product_id = ? AND stock_date = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrendyolProductRepository productRepository;
+    private final ProductStockLotRepository lotRepository;
+    private final StoreDailyMetricsService dailyMetricsService;
+    private final ProductSnapshotCache snapshotCache;
+
+    /**
+     * Reallocates every barcode of the store (barcode null) or just the given one
+     */
+    @Transactional
+    public FifoAllocationResult allocate(UUID storeId, String barcode) {
+        long started = System.nanoTime();
+        // Runs for the same store are serialized; a whole-store run and a barcode run would otherwise race on lot usage
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> { }, "fifo:" + storeId);
+
+        FifoAllocator allocator = new FifoAllocator();
+        if (barcode == null) {
+            Map<UUID, List<CostAndStockInfo>> lots = lotRepository.findInfoByStoreId(storeId);
+            productRepository.findByStoreId(storeId).forEach(product ->
+                    allocator.addProduct(product, lots.get(product.getId())));
+        } else {
+            productRepository.findByStoreIdAndBarcode(storeId, barcode).ifPresent(product ->
+                    allocator.addProduct(product, lotRepository.findInfoByProductId(product.getId())));
+        }
+
+        List<Object[]> pending = new ArrayList<>(UPDATE_BATCH_SIZE);
+        int[] counts = new int[2]; // scanned, updated
+        Set<LocalDate> changedDays = new HashSet<>();
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    SELECT_LINES + (barcode != null ? " AND barcode = ?" : "") + ORDER_BY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setObject(1, storeId);
+            if (barcode != null) {
+                ps.setString(2, barcode);
+            }
+            return ps;
+        }, (ResultSet rs) -> {
+            counts[0]++;
+            String lineBarcode = rs.getString("barcode");
+            // Lines of products without stock lots keep whatever cost they were given
+            if (!allocator.tracks(lineBarcode)) {
+                return;
+            }
+            int quantity = rs.getInt("quantity");
+            LocalDate orderDate = rs.getTimestamp("order_date").toLocalDateTime().toLocalDate();
+            CostAndStockInfo lot = allocator.allocate(lineBarcode, quantity, orderDate);
+
+            Date storedStockDate = rs.getDate("stock_date");
+            Integer storedCostVat = (Integer) rs.getObject("cost_vat");
+            if (FifoAllocator.differs(rs.getBigDecimal("cost"), storedCostVat,
+                    storedStockDate != null ? storedStockDate.toLocalDate() : null, lot)) {
+                pending.add(updateArgs(rs, lot));
+                changedDays.add(orderDate);
+                if (pending.size() >= UPDATE_BATCH_SIZE) {
+                    counts[1] += flush(pending);
+                }
+            }
+        });
+        counts[1] += flush(pending);
+        // Product costs, VAT difference and items without cost of those days changed with the lines
+        dailyMetricsService.refreshDays(storeId, changedDays);
+
+        List<FifoAllocator.UsageChange> changedLots = allocator.applyUsage();
+        Set<UUID> changedProducts = new HashSet<>();
+        if (!changedLots.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_LOT_USAGE, changedLots, UPDATE_BATCH_SIZE, (ps, change) -> {
+                ps.setInt(1, change.usedQuantity());
+                ps.setObject(2, change.productId());
+                ps.setDate(3, Date.valueOf(change.stockDate()));
+            });
+            changedLots.forEach(change -> changedProducts.add(change.productId()));
+            lotRepository.refreshTotals(changedProducts);
+            // Remaining quantities of the cached lots are stale now
+            snapshotCache.invalidate(storeId);
+        }
+
+        FifoAllocationResult result = new FifoAllocationResult(counts[0], counts[1], changedProducts.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        log.info("FIFO allocation for store {}{}: {} lines scanned, {} lines updated, {} products updated in {} ms",
+                storeId, barcode != null ? " barcode " + barcode : "", result.linesScanned(), result.linesUpdated(),
+                result.productsUpdated(), result.durationMs());
+        return result;
+    }
+
+    private Object[] updateArgs(ResultSet rs, CostAndStockInfo lot) throws SQLException {
+        BigDecimal cost = lot != null && lot.getUnitCost() != null ? BigDecimal.valueOf(lot.getUnitCost()) : null;
+        Integer costVat = lot != null ? lot.getCostVatRate() : null;
+        Date stockDate = lot != null ? Date.valueOf(lot.getStockDate()) : null;
+        return new Object[]{cost, costVat, stockDate, rs.getObject("order_id"), rs.getInt("line_no")};
+    }
+
+    private int flush(List<Object[]> pending) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        int size = pending.size();
+        jdbcTemplate.batchUpdate(UPDATE_LINE, pending,
+                new int[]{Types.NUMERIC, Types.INTEGER, Types.DATE, Types.OTHER, Types.INTEGER});
+        pending.clear();
+        return size;
+    }
+
+    public record FifoAllocationResult(int linesScanned, int linesUpdated, int productsUpdated, long durationMs) {
+    }
+}
@@ -1,8 +1,7 @@
 package com.ecommerce.sellerx.orders;
 
-import com.ecommerce.sellerx.products.CostAndStockInfo;
-import com.ecommerce.sellerx.products.TrendyolProduct;
-import com.ecommerce.sellerx.products.TrendyolProductRepository;
+import com.ecommerce.sellerx.products.ProductSnapshot;
+import com.ecommerce.sellerx.products.ProductSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -11,50 +10,41 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderCostCalculator {
     
-    private final TrendyolProductRepository productRepository;
+    private final ProductSnapshotCache snapshotCache;
     
     /**
-     * Calculate and set cost information for an OrderItem builder using FIFO allocation
+     * Calculate and set cost information for an OrderItem builder using FIFO allocation.
+     * Without a productCache the store's shared snapshot from ProductSnapshotCache is used, never a query per line.
      */
     public void setCostInfo(OrderItem.OrderItemBuilder itemBuilder, String barcode, UUID storeId, 
-                           LocalDateTime orderDate, Map<String, TrendyolProduct> productCache) {
+                           LocalDateTime orderDate, Map<String, ProductSnapshot> productCache) {
         if (barcode == null || barcode.isEmpty()) {
             return;
         }
         
-        TrendyolProduct product = null;
-        
-        // Use cache if available, otherwise query database
-        if (productCache != null) {
-            product = productCache.get(barcode);
-        } else {
-            Optional<TrendyolProduct> productOpt = productRepository.findByStoreIdAndBarcode(storeId, barcode);
-            product = productOpt.orElse(null);
-        }
+        Map<String, ProductSnapshot> products = productCache != null ? productCache : snapshotCache.get(storeId);
+        ProductSnapshot product = products.get(barcode);
         
         if (product != null) {
             // Find the first available stock entry using FIFO logic
-            CostAndStockInfo appropriateCost = findFirstAvailableStockForOrder(product, orderDate.toLocalDate());
+            ProductSnapshot.Lot appropriateCost = product.firstAvailableLot(orderDate.toLocalDate());
             
             if (appropriateCost != null) {
-                itemBuilder.cost(appropriateCost.getUnitCost() != null ? 
-                                BigDecimal.valueOf(appropriateCost.getUnitCost()) : null)
-                          .costVat(appropriateCost.getCostVatRate())
-                          .stockDate(appropriateCost.getStockDate()); // Set the stock date for tracking
+                itemBuilder.cost(appropriateCost.unitCost() != null ? 
+                                BigDecimal.valueOf(appropriateCost.unitCost()) : null)
+                          .costVat(appropriateCost.costVatRate())
+                          .stockDate(appropriateCost.stockDate()); // Set the stock date for tracking
                 
                 log.debug("Found cost {} from stock date {} for product {} on order date {}", 
-                        appropriateCost.getUnitCost(), appropriateCost.getStockDate(), barcode, orderDate);
+                        appropriateCost.unitCost(), appropriateCost.stockDate(), barcode, orderDate);
             } else {
                 log.debug("No available stock found for product {} on order date {}", 
                         barcode, orderDate);
@@ -70,13 +60,13 @@ public class OrderCostCalculator {
     /**
      * Set commission information for an OrderItem builder
      */
-    public void setCommissionInfo(OrderItem.OrderItemBuilder itemBuilder, TrendyolProduct product) {
-        if (product.getCommissionRate() != null) {
-            itemBuilder.commissionRate(product.getCommissionRate());
+    public void setCommissionInfo(OrderItem.OrderItemBuilder itemBuilder, ProductSnapshot product) {
+        if (product.commissionRate() != null) {
+            itemBuilder.commissionRate(product.commissionRate());
         }
         
-        if (product.getShippingVolumeWeight() != null) {
-            itemBuilder.shippingVolumeWeight(product.getShippingVolumeWeight());
+        if (product.shippingVolumeWeight() != null) {
+            itemBuilder.shippingVolumeWeight(product.shippingVolumeWeight());
         }
     }
     
@@ -106,70 +96,14 @@ public class OrderCostCalculator {
     }
     
     /**
-     * Find the most appropriate cost for a product on a given order date
+     * Find the most appropriate cost for a product on a given order date:
+     * the latest lot on or before the order date, else the earliest lot
      */
-    public CostAndStockInfo findAppropriateCostForProduct(TrendyolProduct product, LocalDate orderDate) {
-        if (product.getCostAndStockInfo().isEmpty()) {
-            log.debug("No cost information found for product with barcode: {}", product.getBarcode());
-            return null;
-        }
-        
-        // Sort cost and stock info by date (earliest first)
-        List<CostAndStockInfo> sortedCosts = product.getCostAndStockInfo().stream()
-                .filter(cost -> cost.getStockDate() != null)
-                .sorted((c1, c2) -> c1.getStockDate().compareTo(c2.getStockDate()))
-                .collect(Collectors.toList());
-        
-        if (sortedCosts.isEmpty()) {
-            return null;
+    public ProductSnapshot.Lot findAppropriateCostForProduct(ProductSnapshot product, LocalDate orderDate) {
+        ProductSnapshot.Lot appropriateCost = product.latestLotOnOrBefore(orderDate);
+        if (appropriateCost == null) {
+            log.debug("No cost information found for product with barcode: {}", product.barcode());
         }
-        
-        return findAppropriateCost(sortedCosts, orderDate);
-    }
-    
-    /**
-     * Find the most appropriate cost for the given order date
-     * Logic: Use the latest cost entry that is on or before the order date
-     */
-    private CostAndStockInfo findAppropriateCost(List<CostAndStockInfo> sortedCosts, LocalDate orderDate) {
-        CostAndStockInfo appropriateCost = null;
-        
-        for (CostAndStockInfo cost : sortedCosts) {
-            // If cost date is after order date, break (since list is sorted)
-            if (cost.getStockDate().isAfter(orderDate)) {
-                break;
-            }
-            // This cost is on or before the order date, so it's a candidate
-            appropriateCost = cost;
-        }
-        
-        // If no cost found before or on order date, use the first available cost
-        if (appropriateCost == null && !sortedCosts.isEmpty()) {
-            appropriateCost = sortedCosts.get(0);
-            log.debug("No cost found before order date, using earliest available cost from: {}", 
-                     appropriateCost.getStockDate());
-        }
-        
         return appropriateCost;
     }
-    
-    /**
-     * Find the first available stock entry for an order using FIFO logic
-     * This method should ideally coordinate with StockOrderSynchronizationService
-     * but for now provides basic FIFO selection
-     */
-    private CostAndStockInfo findFirstAvailableStockForOrder(TrendyolProduct product, LocalDate orderDate) {
-        if (product.getCostAndStockInfo() == null || product.getCostAndStockInfo().isEmpty()) {
-            return null;
-        }
-        
-        // Get stock entries sorted by date (FIFO)
-        return product.getCostAndStockInfo().stream()
-                .filter(stock -> stock.getStockDate() != null)
-                .filter(stock -> !stock.getStockDate().isAfter(orderDate)) // Stock must exist before order
-                .filter(stock -> stock.getRemainingQuantity() > 0) // Must have remaining stock
-                .sorted((s1, s2) -> s1.getStockDate().compareTo(s2.getStockDate())) // FIFO order
-                .findFirst()
-                .orElse(null);
-    }
 }
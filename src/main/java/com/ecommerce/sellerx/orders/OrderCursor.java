@@ -0,0 +1,56 @@
+package com.ecommerce.sellerx.orders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token of an order listing: the (order_date, id) of the last order returned and the filter
+ * it was issued for, i.e. the listing kind with its store and filter values. A token is only accepted by a listing
+ * with the same filter.
+ */
+record OrderCursor(String filter, LocalDateTime orderDate, UUID id) {
+
+    private static final String SEPARATOR = "\u001f";
+
+    /**
+     * The filter of a listing: its kind followed by the values it was called with
+     */
+    static String filter(String kind, Object... values) {
+        StringBuilder filter = new StringBuilder(kind);
+        for (Object value : values) {
+            filter.append('|').append(value);
+        }
+        return filter.toString();
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, filter, orderDate.toString(), id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token issued for the given filter; null or blank tokens mean the first page
+     */
+    static OrderCursor decode(String token, String filter) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !parts[0].equals(filter)) {
+            throw new IllegalArgumentException("Cursor does not belong to this listing");
+        }
+        try {
+            return new OrderCursor(parts[0], LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.sellerx.orders;
+
+import java.util.List;
+
+/**
+ * One page of a cursor order listing, as summary rows. nextCursor is null on the last page; approximateTotal is the planner's row
+ * estimate for the whole listing and only filled when requested.
+ */
+public record OrderCursorPage(List<TrendyolOrderSummary> content, String nextCursor, boolean hasMore, Long approximateTotal) {
+}
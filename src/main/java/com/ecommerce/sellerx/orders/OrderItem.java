@@ -1,11 +1,17 @@
 package com.ecommerce.sellerx.orders;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
 import lombok.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+/**
+ * One line of a Trendyol package, stored in trendyol_order_items
+ */
+@Embeddable
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,46 +19,60 @@ import java.time.LocalDate;
 public class OrderItem {
     
     @JsonProperty("barcode")
+    @Column(name = "barcode")
     private String barcode;
     
     @JsonProperty("productName")
+    @Column(name = "product_name")
     private String productName;
     
     @JsonProperty("quantity")
+    @Column(name = "quantity")
     private Integer quantity;
     
     @JsonProperty("unitPriceOrder")
+    @Column(name = "unit_price_order")
     private BigDecimal unitPriceOrder; // This is "amount" from Trendyol API
     
     @JsonProperty("unitPriceDiscount")
+    @Column(name = "unit_price_discount")
     private BigDecimal unitPriceDiscount; // This is "discount" from Trendyol API
     
     @JsonProperty("unitPriceTyDiscount")
+    @Column(name = "unit_price_ty_discount")
     private BigDecimal unitPriceTyDiscount; // This is "tyDiscount" from Trendyol API
     
     @JsonProperty("vatBaseAmount")
+    @Column(name = "vat_base_amount")
     private BigDecimal vatBaseAmount;
     
     @JsonProperty("price")
+    @Column(name = "price")
     private BigDecimal price; // This is the actual price after discounts
     
     // Additional fields that we'll get from our trendyol_products table
     @JsonProperty("cost")
+    @Column(name = "cost")
     private BigDecimal cost; // Product cost from our system
     
     @JsonProperty("costVat")
+    @Column(name = "cost_vat")
     private Integer costVat; // VAT rate for cost calculation
     
     @JsonProperty("stockDate")
+    @Column(name = "stock_date")
     private LocalDate stockDate; // Which stock date this order item was sourced from
     
     // Commission fields from trendyol_products
     @JsonProperty("commissionRate")
+    @Column(name = "commission_rate")
     private BigDecimal commissionRate; // Commission rate percentage from product
     
     @JsonProperty("shippingVolumeWeight")
+    @Column(name = "shipping_volume_weight")
     private BigDecimal shippingVolumeWeight; // Shipping volume weight from product
     
     @JsonProperty("unitEstimatedCommission")
+    @Column(name = "unit_estimated_commission")
     private BigDecimal unitEstimatedCommission; // Calculated as (unitPriceOrder - unitPriceDiscount) * commissionRate / 100
 }
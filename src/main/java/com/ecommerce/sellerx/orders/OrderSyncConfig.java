@@ -0,0 +1,24 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.order-sync")
+public class OrderSyncConfig {
+    /** Look-back window of a FULL sync. */
+    private int fullSyncMonths = 3;
+    /** Trendyol limits how wide a single date range may be, so sync windows are split into chunks. */
+    private int chunkDays = 15;
+    private int pageSize = 200;
+    /** Packages of a fetched page converted and written together in one upsert. */
+    private int writeBatchSize = 50;
+    /** INCREMENTAL syncs start this far before the watermark to absorb late-arriving modifications. */
+    private int incrementalOverlapMinutes = 30;
+    /** A RUNNING state with no checkpoint update for this long is treated as crashed and may be resumed. */
+    private int staleRunMinutes = 15;
+    /** Stores synced at the same time; keep below the datasource pool size. */
+    private int concurrency = 4;
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.sellerx.orders;
+
+import com.ecommerce.sellerx.stores.Store;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Syncs many stores in parallel. Every store runs on its own virtual thread; a semaphore caps
+ * how many talk to Trendyol and the database at the same time. A failing store only ends its
+ * own task and is reported in the summary.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSyncEngine {
+
+    private final TrendyolOrderService orderService;
+    private final OrderSyncConfig syncConfig;
+
+    public OrderSyncReport syncStores(List<Store> stores, OrderSyncMode mode) {
+        int concurrency = Math.max(1, syncConfig.getConcurrency());
+        LocalDateTime startedAt = LocalDateTime.now(ZoneId.of("Europe/Istanbul"));
+        long started = System.nanoTime();
+        Semaphore permits = new Semaphore(concurrency);
+
+        log.info("Starting {} order sync for {} stores with concurrency {}", mode, stores.size(), concurrency);
+
+        List<OrderSyncReport.StoreSyncSummary> summaries = new ArrayList<>(stores.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<OrderSyncReport.StoreSyncSummary>> futures = new ArrayList<>(stores.size());
+            for (Store store : stores) {
+                futures.add(executor.submit(() -> syncStore(store, mode, permits)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                summaries.add(awaitSummary(futures.get(i), stores.get(i)));
+            }
+        }
+
+        int successful = (int) summaries.stream().filter(OrderSyncReport.StoreSyncSummary::success).count();
+        OrderSyncReport report = OrderSyncReport.builder()
+                .mode(mode)
+                .concurrency(concurrency)
+                .startedAt(startedAt)
+                .durationMs((System.nanoTime() - started) / 1_000_000)
+                .totalStores(stores.size())
+                .successfulStores(successful)
+                .failedStores(stores.size() - successful)
+                .totalPages(summaries.stream().mapToInt(OrderSyncReport.StoreSyncSummary::pages).sum())
+                .totalPackages(summaries.stream().mapToInt(OrderSyncReport.StoreSyncSummary::packages).sum())
+                .stores(summaries)
+                .build();
+
+        log.info("Completed order sync: {} successful, {} failed, {} pages, {} packages in {} ms",
+                report.successfulStores(), report.failedStores(), report.totalPages(),
+                report.totalPackages(), report.durationMs());
+        return report;
+    }
+
+    private OrderSyncReport.StoreSyncSummary syncStore(Store store, OrderSyncMode mode, Semaphore permits)
+            throws InterruptedException {
+        permits.acquire();
+        long started = System.nanoTime();
+        try {
+            log.info("Syncing orders for store: {} ({})", store.getStoreName(), store.getId());
+            OrderSyncResult result = orderService.fetchAndSaveOrdersForStore(store.getId(), mode);
+            return OrderSyncReport.StoreSyncSummary.builder()
+                    .storeId(store.getId())
+                    .storeName(store.getStoreName())
+                    .success(true)
+                    .durationMs(elapsedMs(started))
+                    .pages(result.pages())
+                    .packages(result.packages())
+                    .saved(result.saved())
+                    .updated(result.updated())
+                    .unchanged(result.unchanged())
+                    .skipped(result.skipped())
+                    .build();
+        } catch (Exception e) {
+            log.error("Failed to sync orders for store {} ({}): {}",
+                    store.getStoreName(), store.getId(), e.getMessage(), e);
+            return failedSummary(store, elapsedMs(started), e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private OrderSyncReport.StoreSyncSummary awaitSummary(Future<OrderSyncReport.StoreSyncSummary> future, Store store) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failedSummary(store, 0, e);
+        } catch (ExecutionException e) {
+            return failedSummary(store, 0, e.getCause() instanceof Exception cause ? cause : e);
+        }
+    }
+
+    private OrderSyncReport.StoreSyncSummary failedSummary(Store store, long durationMs, Exception e) {
+        return OrderSyncReport.StoreSyncSummary.builder()
+                .storeId(store.getId())
+                .storeName(store.getStoreName())
+                .success(false)
+                .durationMs(durationMs)
+                .error(e.getMessage())
+                .build();
+    }
+
+    private long elapsedMs(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+}
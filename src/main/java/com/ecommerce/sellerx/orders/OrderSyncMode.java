@@ -0,0 +1,22 @@
+package com.ecommerce.sellerx.orders;
+
+/**
+ * How much of the order history a sync run asks Trendyol for.
+ */
+public enum OrderSyncMode {
+    /** Re-read the whole look-back window (default: last 3 months). */
+    FULL,
+    /** Only packages modified since the store's last successful watermark. */
+    INCREMENTAL;
+
+    public static OrderSyncMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        try {
+            return OrderSyncMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown order sync mode: " + value);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Summary of a multi-store order sync run
+ */
+@Builder
+public record OrderSyncReport(
+    OrderSyncMode mode,
+    int concurrency,
+    LocalDateTime startedAt,
+    long durationMs,
+    int totalStores,
+    int successfulStores,
+    int failedStores,
+    int totalPages,
+    int totalPackages,
+    List<StoreSyncSummary> stores
+) {
+
+    @Builder
+    public record StoreSyncSummary(
+        UUID storeId,
+        String storeName,
+        boolean success,
+        long durationMs,
+        int pages,
+        int packages,
+        int saved,
+        int updated,
+        int unchanged,
+        int skipped,
+        String error
+    ) {}
+}
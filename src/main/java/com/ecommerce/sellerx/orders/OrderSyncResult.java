@@ -0,0 +1,23 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outcome of syncing orders for a single store. unchanged counts packages that matched the stored row and were not
+ * rewritten; skipped counts packages that were not written at all (no package number, UnPacked, or failed to convert).
+ */
+@Builder
+public record OrderSyncResult(
+    UUID storeId,
+    OrderSyncMode mode,
+    int pages,
+    int packages,
+    int saved,
+    int updated,
+    int unchanged,
+    int skipped,
+    LocalDateTime syncedUntil
+) {}
@@ -0,0 +1,60 @@
+package com.ecommerce.sellerx.orders;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "order_sync_state")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class OrderSyncState {
+
+    @Id
+    @Column(name = "store_id")
+    @EqualsAndHashCode.Include
+    private UUID storeId;
+
+    @Column(name = "last_synced_until")
+    private LocalDateTime lastSyncedUntil;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sync_mode", length = 20)
+    private OrderSyncMode syncMode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private OrderSyncStatus status = OrderSyncStatus.IDLE;
+
+    @Column(name = "checkpoint_chunk_start")
+    private LocalDateTime checkpointChunkStart;
+
+    @Column(name = "checkpoint_chunk_end")
+    private LocalDateTime checkpointChunkEnd;
+
+    @Column(name = "checkpoint_page")
+    private Integer checkpointPage;
+
+    @Column(name = "last_started_at")
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_completed_at")
+    private LocalDateTime lastCompletedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public boolean hasCheckpoint() {
+        return checkpointChunkStart != null && checkpointChunkEnd != null;
+    }
+}
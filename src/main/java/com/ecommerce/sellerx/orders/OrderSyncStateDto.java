@@ -0,0 +1,21 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+public record OrderSyncStateDto(
+    UUID storeId,
+    OrderSyncStatus status,
+    OrderSyncMode syncMode,
+    LocalDateTime lastSyncedUntil,
+    boolean resumable,
+    LocalDateTime checkpointChunkStart,
+    LocalDateTime checkpointChunkEnd,
+    Integer checkpointPage,
+    LocalDateTime lastStartedAt,
+    LocalDateTime lastCompletedAt,
+    String lastError
+) {}
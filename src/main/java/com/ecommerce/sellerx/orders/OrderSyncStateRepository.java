@@ -0,0 +1,46 @@
+package com.ecommerce.sellerx.orders;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface OrderSyncStateRepository extends JpaRepository<OrderSyncState, UUID> {
+
+    /**
+     * Persist chunk/page progress without loading the entity, called once per fetched page
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderSyncState s SET s.checkpointChunkStart = :chunkStart, s.checkpointChunkEnd = :chunkEnd, " +
+           "s.checkpointPage = :page, s.updatedAt = :updatedAt WHERE s.storeId = :storeId")
+    int updateCheckpoint(@Param("storeId") UUID storeId,
+                         @Param("chunkStart") LocalDateTime chunkStart,
+                         @Param("chunkEnd") LocalDateTime chunkEnd,
+                         @Param("page") int page,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO order_sync_state (store_id, status, updated_at) VALUES (:storeId, 'IDLE', NULL) " +
+                   "ON CONFLICT (store_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("storeId") UUID storeId);
+
+    /**
+     * Marks the store's sync RUNNING unless another run holds it and reported progress after staleBefore.
+     * Concurrent claims serialise on the row, so exactly one of them updates it; returns the updated row count.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE OrderSyncState s SET s.status = com.ecommerce.sellerx.orders.OrderSyncStatus.RUNNING, " +
+           "s.lastStartedAt = :now, s.lastError = null, s.updatedAt = :now " +
+           "WHERE s.storeId = :storeId AND (s.status <> com.ecommerce.sellerx.orders.OrderSyncStatus.RUNNING " +
+           "OR s.updatedAt IS NULL OR s.updatedAt <= :staleBefore)")
+    int claimRun(@Param("storeId") UUID storeId,
+                 @Param("now") LocalDateTime now,
+                 @Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Keeps the per-store sync watermark and the chunk/page checkpoint of a running sync.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSyncStateService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OrderSyncStateRepository syncStateRepository;
+    private final OrderSyncConfig syncConfig;
+
+    /**
+     * Mark a sync as started. Refuses to start while another run for the same store is still
+     * reporting progress; a RUNNING state that went quiet is considered crashed and is taken over.
+     * The check and the switch to RUNNING are one conditional UPDATE, so of two concurrent runs only one starts.
+     */
+    @Transactional
+    public OrderSyncState begin(UUID storeId, OrderSyncMode mode) {
+        LocalDateTime now = now();
+        syncStateRepository.insertIfAbsent(storeId);
+        if (syncStateRepository.claimRun(storeId, now, now.minusMinutes(syncConfig.getStaleRunMinutes())) == 0) {
+            throw new RuntimeException("Order sync already running for store: " + storeId);
+        }
+        OrderSyncState state = syncStateRepository.findById(storeId)
+                .orElseThrow(() -> new RuntimeException("Order sync state not found: " + storeId));
+
+        // A FULL request must not be satisfied by resuming a narrower INCREMENTAL run
+        if (state.hasCheckpoint() && mode == OrderSyncMode.FULL && state.getSyncMode() != OrderSyncMode.FULL) {
+            clearCheckpoint(state);
+        }
+
+        if (!state.hasCheckpoint()) {
+            state.setSyncMode(mode);
+        }
+        return syncStateRepository.save(state);
+    }
+
+    public void checkpoint(UUID storeId, LocalDateTime chunkStart, LocalDateTime chunkEnd, int nextPage) {
+        syncStateRepository.updateCheckpoint(storeId, chunkStart, chunkEnd, nextPage, now());
+    }
+
+    /**
+     * Advance the watermark to the end of the finished window and drop the checkpoint
+     */
+    public void complete(UUID storeId, LocalDateTime syncedUntil) {
+        OrderSyncState state = syncStateRepository.findById(storeId)
+                .orElseThrow(() -> new RuntimeException("Order sync state not found: " + storeId));
+        clearCheckpoint(state);
+        state.setLastSyncedUntil(syncedUntil);
+        state.setStatus(OrderSyncStatus.COMPLETED);
+        state.setLastCompletedAt(now());
+        state.setUpdatedAt(now());
+        syncStateRepository.save(state);
+    }
+
+    /**
+     * Record the failure but keep the checkpoint so the next run resumes from it
+     */
+    public void fail(UUID storeId, Exception error) {
+        try {
+            syncStateRepository.findById(storeId).ifPresent(state -> {
+                String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+                state.setStatus(OrderSyncStatus.FAILED);
+                state.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                state.setUpdatedAt(now());
+                syncStateRepository.save(state);
+            });
+        } catch (Exception e) {
+            log.warn("Failed to record order sync failure for store {}: {}", storeId, e.getMessage());
+        }
+    }
+
+    public OrderSyncStateDto getState(UUID storeId) {
+        OrderSyncState state = syncStateRepository.findById(storeId)
+                .orElseGet(() -> OrderSyncState.builder().storeId(storeId).build());
+        return OrderSyncStateDto.builder()
+                .storeId(storeId)
+                .status(state.getStatus())
+                .syncMode(state.getSyncMode())
+                .lastSyncedUntil(state.getLastSyncedUntil())
+                .resumable(state.hasCheckpoint())
+                .checkpointChunkStart(state.getCheckpointChunkStart())
+                .checkpointChunkEnd(state.getCheckpointChunkEnd())
+                .checkpointPage(state.getCheckpointPage())
+                .lastStartedAt(state.getLastStartedAt())
+                .lastCompletedAt(state.getLastCompletedAt())
+                .lastError(state.getLastError())
+                .build();
+    }
+
+    private void clearCheckpoint(OrderSyncState state) {
+        state.setCheckpointChunkStart(null);
+        state.setCheckpointChunkEnd(null);
+        state.setCheckpointPage(null);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("Europe/Istanbul"));
+    }
+}
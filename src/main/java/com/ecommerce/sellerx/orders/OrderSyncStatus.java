@@ -0,0 +1,8 @@
+package com.ecommerce.sellerx.orders;
+
+public enum OrderSyncStatus {
+    IDLE,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -5,7 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -23,18 +23,23 @@ public class StockOrderSynchronizationController {
     @PostMapping("/synchronize/{storeId}")
     public ResponseEntity<Map<String, Object>> synchronizeStockOrders(
             @PathVariable UUID storeId,
-            @RequestParam(required = false) LocalDate fromDate) {
+            @RequestParam(required = false) String barcode) {
         
-        log.info("Manual stock-order synchronization requested for store: {}, fromDate: {}", storeId, fromDate);
+        log.info("Manual stock-order synchronization requested for store: {}, barcode: {}", storeId, barcode);
         
         try {
-            stockOrderSyncService.synchronizeOrdersAfterStockChange(storeId, fromDate);
+            FifoCostAllocationEngine.FifoAllocationResult result = barcode != null
+                    ? stockOrderSyncService.synchronizeBarcodeAfterStockChange(storeId, barcode)
+                    : stockOrderSyncService.synchronizeOrdersAfterStockChange(storeId);
             
             return ResponseEntity.ok(Map.of(
                 "success", true,
                 "message", "Stock-order synchronization completed successfully",
                 "storeId", storeId,
-                "fromDate", fromDate != null ? fromDate.toString() : "all"
+                "barcode", barcode != null ? barcode : "all",
+                "linesScanned", result.linesScanned(),
+                "linesUpdated", result.linesUpdated(),
+                "productsUpdated", result.productsUpdated()
             ));
             
         } catch (Exception e) {
@@ -48,6 +53,33 @@ public class StockOrderSynchronizationController {
         }
     }
 
+    /**
+     * Queued, running and failed stock resync jobs for a store
+     */
+    @GetMapping("/jobs/{storeId}")
+    public ResponseEntity<Map<String, Object>> getResyncJobs(@PathVariable UUID storeId) {
+        
+        try {
+            List<StockResyncJob> jobs = stockOrderSyncService.getResyncJobs(storeId);
+            
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "storeId", storeId,
+                "pending", jobs.stream().filter(job -> "PENDING".equals(job.status())).count(),
+                "jobs", jobs
+            ));
+            
+        } catch (Exception e) {
+            log.error("Failed to get stock resync jobs for store {}: {}", storeId, e.getMessage());
+            
+            return ResponseEntity.internalServerError().body(Map.of(
+                "success", false,
+                "message", "Failed to get stock resync jobs: " + e.getMessage(),
+                "storeId", storeId
+            ));
+        }
+    }
+
     /**
      * Get synchronization status/info for a store
      */
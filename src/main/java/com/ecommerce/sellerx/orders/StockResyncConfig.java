@@ -0,0 +1,22 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.stock-resync")
+public class StockResyncConfig {
+    /** A new job waits this long before it can be claimed, so bursts of stock edits collapse into one run. */
+    private int debounceSeconds = 5;
+    /** How often the worker looks for claimable jobs. */
+    private long pollIntervalMs = 2000;
+    /** Jobs processed at the same time; each holds a database connection for the whole allocation. */
+    private int workers = 2;
+    /** Failed jobs are retried with a growing delay until this many attempts, then kept as FAILED. */
+    private int maxAttempts = 5;
+    private int retryBackoffSeconds = 60;
+    /** A RUNNING job older than this is treated as abandoned by a crashed worker and claimed again. */
+    private int staleRunMinutes = 15;
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of stock_resync_jobs. A null barcode means the whole store.
+ */
+@Builder
+public record StockResyncJob(
+        Long id,
+        UUID storeId,
+        String barcode,
+        String status,
+        int attempts,
+        LocalDateTime requestedAt,
+        LocalDateTime runAfter,
+        LocalDateTime startedAt,
+        String lastError
+) {
+}
@@ -0,0 +1,150 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Database-backed queue of FIFO reallocation requests (stock_resync_jobs).
+ * Requests for the same (store, barcode) are merged into the one pending job; every run replays the whole store or
+ * barcode, so no affected date is kept. Workers claim jobs with {@code FOR UPDATE SKIP LOCKED} so several instances can drain the queue safely.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockResyncQueue {
+
+    /** Whole-store jobs are stored with an empty barcode so the pending unique index covers them too. */
+    private static final String STORE_WIDE = "";
+
+    private static final String COLUMNS =
+            "id, store_id, barcode, status, attempts, requested_at, run_after, started_at, last_error";
+
+    private static final String ENQUEUE_SQL =
+            "INSERT INTO stock_resync_jobs (store_id, barcode, requested_at, run_after) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (store_id, barcode) WHERE status = 'PENDING' DO UPDATE SET " +
+            "requested_at = EXCLUDED.requested_at";
+
+    // A store with a job still running is skipped so one store is never reallocated by two workers at once
+    private static final String CLAIM_SQL =
+            "UPDATE stock_resync_jobs SET status = 'RUNNING', started_at = ?, attempts = attempts + 1 " +
+            "WHERE id = (SELECT j.id FROM stock_resync_jobs j " +
+            "WHERE ((j.status = 'PENDING' AND j.run_after <= ?) OR (j.status = 'RUNNING' AND j.started_at < ?)) " +
+            "AND NOT EXISTS (SELECT 1 FROM stock_resync_jobs r WHERE r.store_id = j.store_id " +
+            "AND r.status = 'RUNNING' AND r.started_at >= ?) " +
+            "ORDER BY j.run_after LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "RETURNING " + COLUMNS;
+
+    private static final String ZONE = "Europe/Istanbul";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockResyncConfig config;
+
+    private final RowMapper<StockResyncJob> jobMapper = this::mapJob;
+
+    /**
+     * Adds a request or merges it into the pending job of the same (store, barcode); a null barcode means the whole store
+     */
+    public void enqueue(UUID storeId, String barcode) {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of(ZONE));
+        jdbcTemplate.update(ENQUEUE_SQL, storeId, barcode != null ? barcode : STORE_WIDE,
+                Timestamp.valueOf(now), Timestamp.valueOf(now.plusSeconds(config.getDebounceSeconds())));
+        log.debug("Queued stock resync for store {} barcode {}", storeId, barcode);
+    }
+
+    /**
+     * Claims the next due job. Claiming a whole-store job drops the store's pending barcode jobs,
+     * since the store-wide run covers them.
+     */
+    @Transactional
+    public Optional<StockResyncJob> claim() {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of(ZONE));
+        Timestamp staleBefore = Timestamp.valueOf(now.minusMinutes(config.getStaleRunMinutes()));
+        List<StockResyncJob> claimed = jdbcTemplate.query(CLAIM_SQL, jobMapper,
+                Timestamp.valueOf(now), Timestamp.valueOf(now), staleBefore, staleBefore);
+        if (claimed.isEmpty()) {
+            return Optional.empty();
+        }
+        StockResyncJob job = claimed.get(0);
+        if (job.barcode() == null) {
+            int dropped = jdbcTemplate.update(
+                    "DELETE FROM stock_resync_jobs WHERE store_id = ? AND barcode <> '' AND status = 'PENDING'",
+                    job.storeId());
+            if (dropped > 0) {
+                log.debug("Store-wide resync for {} replaces {} pending barcode jobs", job.storeId(), dropped);
+            }
+        }
+        return Optional.of(job);
+    }
+
+    public void complete(StockResyncJob job) {
+        jdbcTemplate.update("DELETE FROM stock_resync_jobs WHERE id = ?", job.id());
+    }
+
+    /**
+     * Schedules a retry with a growing delay, or marks the job FAILED once attempts run out.
+     * If a newer request is already pending for the same key, the failed job is folded into it.
+     */
+    @Transactional
+    public void fail(StockResyncJob job, Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        if (job.attempts() >= config.getMaxAttempts()) {
+            jdbcTemplate.update("UPDATE stock_resync_jobs SET status = 'FAILED', last_error = ? WHERE id = ?",
+                    message, job.id());
+            log.error("Stock resync job {} for store {} failed after {} attempts: {}",
+                    job.id(), job.storeId(), job.attempts(), message);
+            return;
+        }
+
+        Integer pending = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_resync_jobs WHERE store_id = ? AND barcode = ? AND status = 'PENDING'",
+                Integer.class, job.storeId(), job.barcode() != null ? job.barcode() : STORE_WIDE);
+        if (pending != null && pending > 0) {
+            jdbcTemplate.update("DELETE FROM stock_resync_jobs WHERE id = ?", job.id());
+            return;
+        }
+
+        LocalDateTime retryAt = LocalDateTime.now(ZoneId.of(ZONE))
+                .plusSeconds((long) config.getRetryBackoffSeconds() * job.attempts());
+        jdbcTemplate.update("UPDATE stock_resync_jobs SET status = 'PENDING', run_after = ?, started_at = NULL, " +
+                "last_error = ? WHERE id = ?", Timestamp.valueOf(retryAt), message, job.id());
+        log.warn("Stock resync job {} for store {} failed (attempt {}), retrying at {}: {}",
+                job.id(), job.storeId(), job.attempts(), retryAt, message);
+    }
+
+    /**
+     * Pending, running and failed jobs of a store, oldest first
+     */
+    public List<StockResyncJob> findByStore(UUID storeId) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM stock_resync_jobs WHERE store_id = ? ORDER BY requested_at",
+                jobMapper, storeId);
+    }
+
+    private StockResyncJob mapJob(ResultSet rs, int rowNum) throws SQLException {
+        String barcode = rs.getString("barcode");
+        Timestamp startedAt = rs.getTimestamp("started_at");
+        return StockResyncJob.builder()
+                .id(rs.getLong("id"))
+                .storeId(rs.getObject("store_id", UUID.class))
+                .barcode(STORE_WIDE.equals(barcode) ? null : barcode)
+                .status(rs.getString("status"))
+                .attempts(rs.getInt("attempts"))
+                .requestedAt(rs.getTimestamp("requested_at").toLocalDateTime())
+                .runAfter(rs.getTimestamp("run_after").toLocalDateTime())
+                .startedAt(startedAt != null ? startedAt.toLocalDateTime() : null)
+                .lastError(rs.getString("last_error"))
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.sellerx.orders;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains stock_resync_jobs in the background. Each poll claims jobs until the queue is empty or
+ * all worker slots are busy; every job runs on its own virtual thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockResyncWorker {
+
+    private final StockResyncQueue queue;
+    private final StockOrderSynchronizationService stockOrderSyncService;
+    private final StockResyncConfig config;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger running = new AtomicInteger();
+
+    @Scheduled(fixedDelayString = "${app.stock-resync.poll-interval-ms:2000}")
+    public void poll() {
+        while (running.get() < Math.max(1, config.getWorkers())) {
+            Optional<StockResyncJob> claimed;
+            try {
+                claimed = queue.claim();
+            } catch (Exception e) {
+                log.warn("Failed to claim stock resync job: {}", e.getMessage());
+                return;
+            }
+            if (claimed.isEmpty()) {
+                return;
+            }
+            StockResyncJob job = claimed.get();
+            running.incrementAndGet();
+            executor.submit(() -> {
+                try {
+                    process(job);
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void process(StockResyncJob job) {
+        try {
+            if (job.barcode() == null) {
+                stockOrderSyncService.synchronizeOrdersAfterStockChange(job.storeId());
+            } else {
+                stockOrderSyncService.synchronizeBarcodeAfterStockChange(job.storeId(), job.barcode());
+            }
+            queue.complete(job);
+        } catch (Exception e) {
+            try {
+                queue.fail(job, e);
+            } catch (Exception failError) {
+                // The job stays RUNNING and is claimed again once it counts as stale
+                log.error("Failed to record failure of stock resync job {}: {}", job.id(), failError.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,10 +1,9 @@
 package com.ecommerce.sellerx.orders;
 
 import com.ecommerce.sellerx.stores.Store;
-import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.Type;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -49,8 +48,10 @@ public class TrendyolOrder {
     @Builder.Default
     private BigDecimal totalTyDiscount = BigDecimal.ZERO;
     
-    @Type(JsonBinaryType.class)
-    @Column(name = "order_items", columnDefinition = "jsonb", nullable = false)
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "trendyol_order_items", joinColumns = @JoinColumn(name = "order_id"))
+    @OrderColumn(name = "line_no")
+    @BatchSize(size = 100) // items of a page of orders are loaded with one query per 100 orders
     @Builder.Default
     private List<OrderItem> orderItems = new ArrayList<>();
     
@@ -75,6 +76,9 @@ public class TrendyolOrder {
     @Builder.Default
     private Integer cargoDeci = 0;
     
+    @Column(name = "last_modified_at")
+    private LocalDateTime lastModifiedAt; // Trendyol lastModifiedDate of the package version stored here
+    
     @Column(name = "created_at")
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -65,6 +65,9 @@ public class TrendyolOrderApiResponse {
         
         @JsonProperty("cargoTrackingNumber")
         private Long cargoTrackingNumber; // We need this to filter out orders without package numbers
+        
+        @JsonProperty("lastModifiedDate")
+        private Long lastModifiedDate; // Version of the package, used to ignore out-of-order updates
     }
     
     @Data
@@ -0,0 +1,223 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes order batches to trendyol_orders with one multi-row
+ * {@code INSERT ... ON CONFLICT (store_id, package_no) DO UPDATE} per batch.
+ * New packages are inserted and their lines written to trendyol_order_items; existing ones only get status, amounts and
+ * cargo refreshed (items and cost data set by the FIFO allocation are left alone).
+ * Rows whose values and lastModifiedDate did not change are not rewritten, and a package is never moved back to an
+ * older version: an incoming row whose Trendyol lastModifiedDate is older than the stored one is ignored, so replayed
+ * or out-of-order events (webhooks, overlapping syncs) are safe to apply in any order and in parallel. A newer event
+ * with identical values still advances the stored lastModifiedDate, otherwise a late event between the two versions
+ * could roll the package back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendyolOrderBulkWriter {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO trendyol_orders (store_id, ty_order_number, package_no, order_date, gross_amount, " +
+            "total_discount, total_ty_discount, shipment_package_status, status, total_price, " +
+            "stoppage, estimated_commission, cargo_deci, last_modified_at, created_at, updated_at) VALUES ";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_SUFFIX =
+            " ON CONFLICT (store_id, package_no) DO UPDATE SET " +
+            "status = EXCLUDED.status, " +
+            "shipment_package_status = EXCLUDED.shipment_package_status, " +
+            "gross_amount = EXCLUDED.gross_amount, " +
+            "total_discount = EXCLUDED.total_discount, " +
+            "total_ty_discount = EXCLUDED.total_ty_discount, " +
+            "total_price = EXCLUDED.total_price, " +
+            "stoppage = EXCLUDED.stoppage, " +
+            "cargo_deci = EXCLUDED.cargo_deci, " +
+            "last_modified_at = COALESCE(EXCLUDED.last_modified_at, trendyol_orders.last_modified_at), " +
+            "updated_at = EXCLUDED.updated_at " +
+            "WHERE (trendyol_orders.last_modified_at IS NULL OR EXCLUDED.last_modified_at IS NULL " +
+            "OR EXCLUDED.last_modified_at >= trendyol_orders.last_modified_at) " +
+            "AND (trendyol_orders.status, trendyol_orders.shipment_package_status, trendyol_orders.gross_amount, " +
+            "trendyol_orders.total_discount, trendyol_orders.total_ty_discount, trendyol_orders.total_price, " +
+            "trendyol_orders.cargo_deci, trendyol_orders.last_modified_at) IS DISTINCT FROM (EXCLUDED.status, " +
+            "EXCLUDED.shipment_package_status, EXCLUDED.gross_amount, EXCLUDED.total_discount, " +
+            "EXCLUDED.total_ty_discount, EXCLUDED.total_price, EXCLUDED.cargo_deci, " +
+            "COALESCE(EXCLUDED.last_modified_at, trendyol_orders.last_modified_at)) " +
+            "RETURNING id, store_id, package_no, (xmax = 0) AS inserted";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO trendyol_order_items (order_id, line_no, store_id, order_date, barcode, product_name, " +
+            "quantity, unit_price_order, unit_price_discount, unit_price_ty_discount, vat_base_amount, price, " +
+            "cost, cost_vat, stock_date, commission_rate, shipping_volume_weight, unit_estimated_commission) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int COLUMNS = 16;
+    /** Keeps bind parameters per statement well below the PostgreSQL protocol limit of 65535. */
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final int[] ITEM_ARG_TYPES = {
+            Types.OTHER, Types.INTEGER, Types.OTHER, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.INTEGER,
+            Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.INTEGER,
+            Types.DATE, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Upsert the given orders in a single round trip, then insert the lines of the new ones in one batch.
+     * Duplicate package numbers inside the batch are collapsed to their newest version because one statement
+     * may not touch the same row twice. Rows are written in (store, package) order so concurrent batches
+     * lock shared rows in the same order and cannot deadlock.
+     */
+    @Transactional
+    public BulkWriteResult upsert(Collection<TrendyolOrder> orders) {
+        if (orders.isEmpty()) {
+            return BulkWriteResult.EMPTY;
+        }
+
+        Map<String, TrendyolOrder> unique = new LinkedHashMap<>();
+        for (TrendyolOrder order : orders) {
+            unique.merge(rowKey(order.getStore().getId(), order.getPackageNo()), order,
+                    (current, candidate) -> isOlder(candidate, current) ? current : candidate);
+        }
+        List<TrendyolOrder> rows = new ArrayList<>(unique.values());
+        rows.sort(Comparator.comparing((TrendyolOrder order) -> order.getStore().getId())
+                .thenComparing(TrendyolOrder::getPackageNo));
+
+        int inserted = 0;
+        int touched = 0;
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<TrendyolOrder> chunk = rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT));
+            List<TrendyolOrder> newOrders = new ArrayList<>();
+            List<Boolean> results = jdbcTemplate.query(buildSql(chunk.size()), ps -> bindRows(ps, chunk), (rs, rowNum) -> {
+                boolean isInsert = rs.getBoolean("inserted");
+                if (isInsert) {
+                    // Generated id is needed to attach the lines
+                    TrendyolOrder order = unique.get(rowKey(rs.getObject("store_id", UUID.class), rs.getLong("package_no")));
+                    order.setId(rs.getObject("id", UUID.class));
+                    newOrders.add(order);
+                }
+                return isInsert;
+            });
+            touched += results.size();
+            inserted += newOrders.size();
+            insertItems(newOrders);
+        }
+        return new BulkWriteResult(inserted, touched - inserted, rows.size() - touched);
+    }
+
+    /**
+     * True when the candidate is a strictly older version; rows without a modification time never count as older
+     */
+    private static boolean isOlder(TrendyolOrder candidate, TrendyolOrder current) {
+        return candidate.getLastModifiedAt() != null && current.getLastModifiedAt() != null
+                && candidate.getLastModifiedAt().isBefore(current.getLastModifiedAt());
+    }
+
+    private static String rowKey(UUID storeId, Long packageNo) {
+        return storeId + ":" + packageNo;
+    }
+
+    private String buildSql(int rowCount) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rowCount * (ROW_PLACEHOLDERS.length() + 2) + UPSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.append(UPSERT_SUFFIX).toString();
+    }
+
+    private void bindRows(PreparedStatement ps, List<TrendyolOrder> rows) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int index = 0;
+        for (TrendyolOrder order : rows) {
+            int base = index * COLUMNS;
+            ps.setObject(base + 1, order.getStore().getId());
+            ps.setString(base + 2, order.getTyOrderNumber());
+            ps.setLong(base + 3, order.getPackageNo());
+            ps.setTimestamp(base + 4, Timestamp.valueOf(order.getOrderDate()));
+            ps.setBigDecimal(base + 5, orZero(order.getGrossAmount()));
+            ps.setBigDecimal(base + 6, orZero(order.getTotalDiscount()));
+            ps.setBigDecimal(base + 7, orZero(order.getTotalTyDiscount()));
+            ps.setString(base + 8, order.getShipmentPackageStatus());
+            ps.setString(base + 9, order.getStatus());
+            setNullableDecimal(ps, base + 10, order.getTotalPrice());
+            ps.setBigDecimal(base + 11, orZero(order.getStoppage()));
+            ps.setBigDecimal(base + 12, orZero(order.getEstimatedCommission()));
+            ps.setInt(base + 13, order.getCargoDeci() != null ? order.getCargoDeci() : 0);
+            ps.setTimestamp(base + 14, order.getLastModifiedAt() != null ? Timestamp.valueOf(order.getLastModifiedAt()) : null);
+            ps.setTimestamp(base + 15, now);
+            ps.setTimestamp(base + 16, now);
+            index++;
+        }
+    }
+
+    private void insertItems(List<TrendyolOrder> newOrders) {
+        List<Object[]> rows = new ArrayList<>();
+        for (TrendyolOrder order : newOrders) {
+            List<OrderItem> items = order.getOrderItems();
+            if (items == null) {
+                continue;
+            }
+            Timestamp orderDate = Timestamp.valueOf(order.getOrderDate());
+            for (int lineNo = 0; lineNo < items.size(); lineNo++) {
+                OrderItem item = items.get(lineNo);
+                rows.add(new Object[]{
+                        order.getId(), lineNo, order.getStore().getId(), orderDate,
+                        item.getBarcode(), item.getProductName(), item.getQuantity(),
+                        item.getUnitPriceOrder(), item.getUnitPriceDiscount(), item.getUnitPriceTyDiscount(),
+                        item.getVatBaseAmount(), item.getPrice(), item.getCost(), item.getCostVat(),
+                        item.getStockDate() != null ? Date.valueOf(item.getStockDate()) : null,
+                        item.getCommissionRate(), item.getShippingVolumeWeight(), item.getUnitEstimatedCommission()
+                });
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, rows, ITEM_ARG_TYPES);
+        }
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static void setNullableDecimal(PreparedStatement ps, int index, BigDecimal value) throws SQLException {
+        if (value != null) {
+            ps.setBigDecimal(index, value);
+        } else {
+            ps.setNull(index, Types.NUMERIC);
+        }
+    }
+
+    /**
+     * inserted: new packages, updated: existing packages whose status/amounts changed,
+     * unchanged: existing packages left as they were
+     */
+    public record BulkWriteResult(int inserted, int updated, int unchanged) {
+        static final BulkWriteResult EMPTY = new BulkWriteResult(0, 0, 0);
+    }
+}
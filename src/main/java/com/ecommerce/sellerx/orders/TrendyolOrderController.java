@@ -1,15 +1,21 @@
 package com.ecommerce.sellerx.orders;
 
+import com.ecommerce.sellerx.common.ExportFormat;
+import com.ecommerce.sellerx.common.ExportWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -20,15 +26,20 @@ public class TrendyolOrderController {
 
     private final TrendyolOrderService orderService;
     private final TrendyolOrderScheduledService scheduledService;
+    private final OrderSyncStateService syncStateService;
+    private final TrendyolOrderExporter orderExporter;
 
     /**
-     * Fetch and save orders from Trendyol API for a specific store
+     * Fetch and save orders from Trendyol API for a specific store.
+     * mode=full (default) re-reads the look-back window, mode=incremental only fetches changes since the last sync
      */
     @PostMapping("/stores/{storeId}/sync")
-    public ResponseEntity<String> syncOrdersForStore(@PathVariable UUID storeId) {
+    public ResponseEntity<String> syncOrdersForStore(@PathVariable UUID storeId,
+                                                     @RequestParam(defaultValue = "full") String mode) {
         try {
-            log.info("Starting order sync for store: {}", storeId);
-            orderService.fetchAndSaveOrdersForStore(storeId);
+            OrderSyncMode syncMode = OrderSyncMode.from(mode);
+            log.info("Starting {} order sync for store: {}", syncMode, storeId);
+            orderService.fetchAndSaveOrdersForStore(storeId, syncMode);
             return ResponseEntity.ok("Orders synced successfully for store: " + storeId);
         } catch (Exception e) {
             log.error("Error syncing orders for store {}: {}", storeId, e.getMessage(), e);
@@ -37,17 +48,33 @@ public class TrendyolOrderController {
     }
 
     /**
-     * Manually sync orders for all Trendyol stores
+     * Get sync watermark and resumable checkpoint for a store
+     */
+    @GetMapping("/stores/{storeId}/sync-state")
+    public ResponseEntity<OrderSyncStateDto> getSyncState(@PathVariable UUID storeId) {
+        try {
+            return ResponseEntity.ok(syncStateService.getState(storeId));
+        } catch (Exception e) {
+            log.error("Error fetching order sync state for store {}: {}", storeId, e.getMessage(), e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Manually sync orders for all Trendyol stores in parallel and return the per-store report.
+     * mode defaults to full, as for a single store. The request blocks until every store is done, which can take
+     * minutes for a full sync; a client that times out does not stop the run, and progress stays visible per store
+     * through /stores/{storeId}/sync-state
      */
     @PostMapping("/sync-all")
-    public ResponseEntity<String> syncOrdersForAllStores() {
+    public ResponseEntity<?> syncOrdersForAllStores(@RequestParam(defaultValue = "full") String mode) {
         try {
-            log.info("Starting manual order sync for all Trendyol stores");
-            scheduledService.manualSyncAllStores();
-            return ResponseEntity.ok("Orders sync initiated for all Trendyol stores");
+            OrderSyncMode syncMode = OrderSyncMode.from(mode);
+            log.info("Starting manual {} order sync for all Trendyol stores", syncMode);
+            return ResponseEntity.ok(scheduledService.manualSyncAllStores(syncMode));
         } catch (Exception e) {
             log.error("Error syncing orders for all stores: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest().body("Error syncing orders: " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", "Error syncing orders: " + e.getMessage()));
         }
     }
 
@@ -70,6 +97,23 @@ public class TrendyolOrderController {
         }
     }
 
+    /**
+     * Get order summaries for a store newest first with a continuation cursor instead of page numbers.
+     * includeTotal=true adds the planner's estimate of the total count
+     */
+    @GetMapping("/stores/{storeId}/cursor")
+    public ResponseEntity<?> getOrdersForStoreByCursor(
+            @PathVariable UUID storeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(orderService.getOrdersForStore(storeId, cursor, size, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get orders for store by date range
      */
@@ -92,6 +136,25 @@ public class TrendyolOrderController {
         }
     }
 
+    /**
+     * Get orders for store by date range with a continuation cursor
+     */
+    @GetMapping("/stores/{storeId}/by-date-range/cursor")
+    public ResponseEntity<?> getOrdersByDateRangeByCursor(
+            @PathVariable UUID storeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(orderService.getOrdersForStoreByDateRange(
+                    storeId, startDate, endDate, cursor, size, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get orders by status
      */
@@ -112,6 +175,67 @@ public class TrendyolOrderController {
         }
     }
 
+    /**
+     * Get orders by status with a continuation cursor
+     */
+    @GetMapping("/stores/{storeId}/by-status/cursor")
+    public ResponseEntity<?> getOrdersByStatusByCursor(
+            @PathVariable UUID storeId,
+            @RequestParam String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(orderService.getOrdersByStatus(storeId, status, cursor, size, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get one order with its items
+     */
+    @GetMapping("/stores/{storeId}/by-id/{orderId}")
+    public ResponseEntity<TrendyolOrderDto> getOrder(@PathVariable UUID storeId, @PathVariable UUID orderId) {
+        try {
+            return ResponseEntity.ok(orderService.getOrder(storeId, orderId));
+        } catch (Exception e) {
+            log.error("Error fetching order {} for store {}: {}", orderId, storeId, e.getMessage(), e);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Stream the orders of a date range with their items as NDJSON (default) or CSV, oldest first,
+     * gzip-encoded when the client accepts it
+     */
+    @GetMapping("/stores/{storeId}/export")
+    public ResponseEntity<?> exportOrders(
+            @PathVariable UUID storeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        boolean gzip = ExportWriter.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> orderExporter.export(storeId, startDate, endDate, exportFormat, gzip, out);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders-" + storeId + "." + exportFormat.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     /**
      * Get order statistics for a store
      */
@@ -0,0 +1,52 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Approximate order counts for cursor listings, read from the planner's row estimate (EXPLAIN) instead of running
+ * COUNT(*) over every matching row. The estimate comes from table statistics, so it can be off after large syncs
+ * until the table is analysed again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendyolOrderCountEstimator {
+
+    private static final Pattern ROWS = Pattern.compile("rows=(\\d+)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long estimateForStore(UUID storeId) {
+        return estimate("SELECT 1 FROM trendyol_orders WHERE store_id = ?", storeId);
+    }
+
+    public long estimateForDateRange(UUID storeId, LocalDateTime startDate, LocalDateTime endDate) {
+        return estimate("SELECT 1 FROM trendyol_orders WHERE store_id = ? AND order_date BETWEEN ? AND ?",
+                storeId, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+    }
+
+    public long estimateForStatus(UUID storeId, String status) {
+        return estimate("SELECT 1 FROM trendyol_orders WHERE store_id = ? AND status = ?", storeId, status);
+    }
+
+    // The first plan line is the top node, whose rows= is the estimate for the whole statement
+    private long estimate(String sql, Object... args) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args);
+        Matcher matcher = plan.isEmpty() ? null : ROWS.matcher(plan.get(0));
+        if (matcher == null || !matcher.find()) {
+            log.warn("No row estimate in plan for: {}", sql);
+            return 0;
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+}
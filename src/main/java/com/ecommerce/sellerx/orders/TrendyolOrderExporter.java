@@ -0,0 +1,93 @@
+package com.ecommerce.sellerx.orders;
+
+import com.ecommerce.sellerx.common.ExportFormat;
+import com.ecommerce.sellerx.common.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams a store's orders of a date range to an export stream, oldest first. Orders are read through a
+ * server-side cursor (fetch size, inside a read-only transaction) and written one by one; each order's items are
+ * aggregated to JSON by PostgreSQL and copied without being parsed, so memory does not grow with the history.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendyolOrderExporter {
+
+    private static final int FETCH_SIZE = 1000;
+
+    static final List<String> COLUMNS = List.of(
+            "id", "tyOrderNumber", "packageNo", "orderDate", "grossAmount", "totalDiscount", "totalTyDiscount",
+            "totalPrice", "stoppage", "estimatedCommission", "shipmentPackageStatus", "status", "cargoDeci",
+            "lastModifiedAt", "orderItems");
+
+    private static final String EXPORT_SQL =
+            "SELECT o.id, o.ty_order_number, o.package_no, o.order_date, o.gross_amount, o.total_discount, " +
+            "o.total_ty_discount, o.total_price, o.stoppage, o.estimated_commission, o.shipment_package_status, " +
+            "o.status, o.cargo_deci, o.last_modified_at, " +
+            "(SELECT COALESCE(json_agg(json_build_object(" +
+            "'barcode', i.barcode, 'productName', i.product_name, 'quantity', i.quantity, " +
+            "'unitPriceOrder', i.unit_price_order, 'unitPriceDiscount', i.unit_price_discount, " +
+            "'unitPriceTyDiscount', i.unit_price_ty_discount, 'vatBaseAmount', i.vat_base_amount, " +
+            "'price', i.price, 'cost', i.cost, 'costVat', i.cost_vat, 'stockDate', i.stock_date, " +
+            "'commissionRate', i.commission_rate, 'shippingVolumeWeight', i.shipping_volume_weight, " +
+            "'unitEstimatedCommission', i.unit_estimated_commission) ORDER BY i.line_no), '[]')::text " +
+            "FROM trendyol_order_items i WHERE i.order_id = o.id) AS order_items " +
+            "FROM trendyol_orders o " +
+            "WHERE o.store_id = ? AND o.order_date BETWEEN ? AND ? " +
+            "ORDER BY o.order_date, o.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every order of the store in the range to out and closes it; returns the number of orders written
+     */
+    @Transactional(readOnly = true)
+    public int export(UUID storeId, LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip,
+                      OutputStream out) throws IOException {
+        try (ExportWriter writer = ExportWriter.open(out, format, gzip, COLUMNS, objectMapper)) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(EXPORT_SQL);
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setObject(1, storeId);
+                ps.setTimestamp(2, Timestamp.valueOf(startDate));
+                ps.setTimestamp(3, Timestamp.valueOf(endDate));
+                return ps;
+            }, (RowCallbackHandler) rs -> writer.writeRow(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("ty_order_number"),
+                    rs.getLong("package_no"),
+                    rs.getTimestamp("order_date").toLocalDateTime(),
+                    rs.getBigDecimal("gross_amount"),
+                    rs.getBigDecimal("total_discount"),
+                    rs.getBigDecimal("total_ty_discount"),
+                    rs.getBigDecimal("total_price"),
+                    rs.getBigDecimal("stoppage"),
+                    rs.getBigDecimal("estimated_commission"),
+                    rs.getString("shipment_package_status"),
+                    rs.getString("status"),
+                    rs.getObject("cargo_deci"),
+                    rs.getTimestamp("last_modified_at") != null
+                            ? rs.getTimestamp("last_modified_at").toLocalDateTime() : null,
+                    ExportWriter.RawJson.of(rs.getString("order_items"))));
+            log.info("Exported {} orders of store {} between {} and {} as {}",
+                    writer.rows(), storeId, startDate, endDate, format);
+            return writer.rows();
+        }
+    }
+}
@@ -12,5 +12,6 @@ public interface TrendyolOrderMapper {
     @Mapping(target = "store", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "lastModifiedAt", ignore = true)
     TrendyolOrder toEntity(TrendyolOrderDto dto);
 }
@@ -14,41 +14,20 @@ import java.util.List;
 @Slf4j
 public class TrendyolOrderScheduledService {
 
-    private final TrendyolOrderService orderService;
+    private final OrderSyncEngine syncEngine;
     private final StoreRepository storeRepository;
 
     /**
      * Scheduled task to sync orders for all Trendyol stores
-     * Runs every day at 6:15 AM Turkey time (GMT+3)
+     * Runs every day at 6:15 AM Turkey time (GMT+3). Incremental: only packages changed since the
+     * store's last watermark are fetched (stores without a watermark get a full sync)
      */
     @Scheduled(cron = "0 15 6 * * ?", zone = "Europe/Istanbul")
     public void syncOrdersForAllTrendyolStores() {
         log.info("Starting scheduled order sync for all Trendyol stores at 6:15 AM Turkey time");
         
         try {
-            // Get all Trendyol stores (case-insensitive)
-            List<Store> trendyolStores = storeRepository.findByMarketplaceIgnoreCase("trendyol");
-            
-            log.info("Found {} Trendyol stores for order sync", trendyolStores.size());
-            
-            int successCount = 0;
-            int errorCount = 0;
-            
-            for (Store store : trendyolStores) {
-                try {
-                    log.info("Syncing orders for store: {} ({})", store.getStoreName(), store.getId());
-                    orderService.fetchAndSaveOrdersForStore(store.getId());
-                    successCount++;
-                    log.info("Successfully synced orders for store: {}", store.getStoreName());
-                } catch (Exception e) {
-                    errorCount++;
-                    log.error("Failed to sync orders for store {} ({}): {}", 
-                             store.getStoreName(), store.getId(), e.getMessage(), e);
-                }
-            }
-            
-            log.info("Completed scheduled order sync: {} successful, {} errors", successCount, errorCount);
-            
+            syncAllStores(OrderSyncMode.INCREMENTAL);
         } catch (Exception e) {
             log.error("Error during scheduled order sync: {}", e.getMessage(), e);
         }
@@ -57,8 +36,17 @@ public class TrendyolOrderScheduledService {
     /**
      * Manual sync for all Trendyol stores (can be called via endpoint)
      */
-    public void manualSyncAllStores() {
-        log.info("Starting manual order sync for all Trendyol stores");
-        syncOrdersForAllTrendyolStores();
+    public OrderSyncReport manualSyncAllStores(OrderSyncMode mode) {
+        log.info("Starting manual {} order sync for all Trendyol stores", mode);
+        return syncAllStores(mode);
+    }
+    
+    private OrderSyncReport syncAllStores(OrderSyncMode mode) {
+        // Get all Trendyol stores (case-insensitive)
+        List<Store> trendyolStores = storeRepository.findByMarketplaceIgnoreCase("trendyol");
+        
+        log.info("Found {} Trendyol stores for order sync", trendyolStores.size());
+        
+        return syncEngine.syncStores(trendyolStores, mode);
     }
 }
@@ -1,24 +1,27 @@
 package com.ecommerce.sellerx.orders;
 
 import com.ecommerce.sellerx.config.FinancialConstants;
-import com.ecommerce.sellerx.products.TrendyolProduct;
-import com.ecommerce.sellerx.products.TrendyolProductRepository;
+import com.ecommerce.sellerx.dashboard.StoreDailyMetricsService;
+import com.ecommerce.sellerx.products.ProductSnapshot;
+import com.ecommerce.sellerx.products.ProductSnapshotCache;
 import com.ecommerce.sellerx.stores.Store;
 import com.ecommerce.sellerx.stores.StoreRepository;
 import com.ecommerce.sellerx.stores.TrendyolCredentials;
+import com.ecommerce.sellerx.trendyol.TrendyolPageReader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,20 +30,36 @@ import java.util.stream.Collectors;
 public class TrendyolOrderService {
 
     private static final String TRENDYOL_BASE_URL = "https://apigw.trendyol.com";
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
     
     private final TrendyolOrderRepository orderRepository;
     private final StoreRepository storeRepository;
-    private final TrendyolProductRepository productRepository;
     private final TrendyolOrderMapper orderMapper;
-    private final RestTemplate restTemplate;
+    private final TrendyolPageReader pageReader;
     private final OrderCostCalculator costCalculator;
     private final StockOrderSynchronizationService stockOrderSyncService;
+    private final TrendyolOrderBulkWriter bulkWriter;
+    private final OrderSyncStateService syncStateService;
+    private final OrderSyncConfig syncConfig;
+    private final StoreDailyMetricsService dailyMetricsService;
+    private final ProductSnapshotCache snapshotCache;
+    private final TrendyolOrderCountEstimator countEstimator;
+    private final TrendyolOrderSummaryQueries summaryQueries;
 
     /**
-     * Fetch and save orders for a specific store from Trendyol API
+     * Fetch and save orders for a specific store from Trendyol API (full look-back window)
      */
-    public void fetchAndSaveOrdersForStore(UUID storeId) {
-        log.info("Starting to fetch orders for store: {}", storeId);
+    public OrderSyncResult fetchAndSaveOrdersForStore(UUID storeId) {
+        return fetchAndSaveOrdersForStore(storeId, OrderSyncMode.FULL);
+    }
+
+    /**
+     * Fetch and save orders for a specific store from Trendyol API.
+     * FULL re-reads the configured look-back window, INCREMENTAL only asks for packages modified
+     * since the last successful watermark. An interrupted run continues from its saved chunk/page.
+     */
+    public OrderSyncResult fetchAndSaveOrdersForStore(UUID storeId, OrderSyncMode mode) {
+        log.info("Starting to fetch orders for store: {} (mode: {})", storeId, mode);
         
         Store store = storeRepository.findById(storeId)
             .orElseThrow(() -> new RuntimeException("Store not found: " + storeId));
@@ -54,159 +73,206 @@ public class TrendyolOrderService {
             throw new RuntimeException("Trendyol credentials not found");
         }
         
+        OrderSyncState state = syncStateService.begin(storeId, mode);
+        SyncCounters counters = new SyncCounters();
+        
         try {
-            // Calculate date ranges - fetch last 3 months in 15-day chunks (GMT+3)
+            // Window end is fixed at start; it becomes the new watermark once every chunk is done (GMT+3)
             LocalDateTime now = LocalDateTime.now(ZoneId.of("Europe/Istanbul"));
-            LocalDateTime startDate = now.minusMonths(3);
-            
-            int totalSaved = 0;
-            int totalSkipped = 0;
+            LocalDateTime currentStart;
+            LocalDateTime resumeChunkEnd = null;
+            int startPage = 0;
             
-            // Process in 15-day chunks from 3 months ago to now
-            LocalDateTime currentStart = startDate;
+            if (state.hasCheckpoint()) {
+                // Resume the interrupted chunk with its original end so page numbers line up
+                currentStart = state.getCheckpointChunkStart();
+                resumeChunkEnd = state.getCheckpointChunkEnd();
+                startPage = state.getCheckpointPage() != null ? state.getCheckpointPage() : 0;
+                log.info("Resuming order sync for store {} from chunk {} - {} page {}",
+                        storeId, currentStart, resumeChunkEnd, startPage);
+            } else {
+                currentStart = resolveWindowStart(state, now);
+            }
+            boolean incremental = state.getSyncMode() == OrderSyncMode.INCREMENTAL;
             
+            // Process in chunks from window start to now
             while (currentStart.isBefore(now)) {
-                LocalDateTime currentEnd = currentStart.plusDays(15);
+                LocalDateTime currentEnd = resumeChunkEnd != null
+                        ? resumeChunkEnd
+                        : currentStart.plusDays(syncConfig.getChunkDays());
                 if (currentEnd.isAfter(now)) {
                     currentEnd = now;
                 }
                 
                 log.info("Fetching orders for store {} from {} to {}", storeId, currentStart, currentEnd);
                 
-                // Convert to GMT+3 milliseconds
-                long startMillis = currentStart.atZone(ZoneId.of("Europe/Istanbul")).toInstant().toEpochMilli();
-                long endMillis = currentEnd.atZone(ZoneId.of("Europe/Istanbul")).toInstant().toEpochMilli();
-                
                 // Fetch all pages for this date range
-                int[] results = fetchOrdersForDateRange(credentials, storeId, store, startMillis, endMillis);
-                totalSaved += results[0];
-                totalSkipped += results[1];
+                fetchOrdersForDateRange(credentials, store, currentStart, currentEnd, startPage, incremental, counters);
                 
                 currentStart = currentEnd;
-                
-                // Small delay to avoid rate limiting
-                Thread.sleep(1000);
+                resumeChunkEnd = null;
+                startPage = 0;
+            }
+            
+            syncStateService.complete(storeId, now);
+            refreshDailyMetrics(storeId, counters);
+            
+            // New lines change FIFO order for the whole store; one queued resync per sync run, not per page
+            if (counters.saved > 0) {
+                try {
+                    stockOrderSyncService.requestResync(storeId, null);
+                } catch (Exception e) {
+                    log.warn("Failed to synchronize stock-order after saving orders: {}", e.getMessage());
+                }
             }
             
-            log.info("Completed order fetch for store {}: {} total saved, {} total skipped", 
-                    storeId, totalSaved, totalSkipped);
+            log.info("Completed order fetch for store {}: {} pages, {} packages, {} saved, {} updated, {} unchanged, {} skipped, watermark {}", 
+                    storeId, counters.pages, counters.packages, counters.saved, counters.updated, counters.unchanged,
+                    counters.skipped, now);
+            
+            return OrderSyncResult.builder()
+                    .storeId(storeId)
+                    .mode(state.getSyncMode())
+                    .pages(counters.pages)
+                    .packages(counters.packages)
+                    .saved(counters.saved)
+                    .updated(counters.updated)
+                    .unchanged(counters.unchanged)
+                    .skipped(counters.skipped)
+                    .syncedUntil(now)
+                    .build();
             
         } catch (Exception e) {
+            syncStateService.fail(storeId, e);
+            refreshDailyMetrics(storeId, counters);
             log.error("Error fetching orders for store {}: {}", storeId, e.getMessage(), e);
             throw new RuntimeException("Failed to fetch orders from Trendyol: " + e.getMessage(), e);
         }
     }
     
     /**
-     * Fetch all orders for a specific date range with pagination
+     * Rolls the order days written by this run (also a failed one) into store_daily_metrics
+     */
+    private void refreshDailyMetrics(UUID storeId, SyncCounters counters) {
+        try {
+            dailyMetricsService.refreshDays(storeId, counters.touchedDays);
+        } catch (Exception e) {
+            log.warn("Failed to refresh daily metrics for store {}: {}", storeId, e.getMessage());
+        }
+    }
+    
+    /**
+     * INCREMENTAL starts just before the watermark; FULL (or a store without a watermark yet)
+     * starts at the beginning of the look-back window
+     */
+    private LocalDateTime resolveWindowStart(OrderSyncState state, LocalDateTime now) {
+        LocalDateTime fullStart = now.minusMonths(syncConfig.getFullSyncMonths());
+        if (state.getSyncMode() != OrderSyncMode.INCREMENTAL || state.getLastSyncedUntil() == null) {
+            if (state.getSyncMode() == OrderSyncMode.INCREMENTAL) {
+                log.info("No watermark for store {}, falling back to full window", state.getStoreId());
+            }
+            return fullStart;
+        }
+        LocalDateTime incrementalStart = state.getLastSyncedUntil().minusMinutes(syncConfig.getIncrementalOverlapMinutes());
+        return incrementalStart.isBefore(fullStart) ? fullStart : incrementalStart;
+    }
+    
+    /**
+     * Fetch all orders for a specific date range with pagination, checkpointing after every page.
+     * Page failures are propagated so the watermark never moves past data we did not receive.
      */
-    private int[] fetchOrdersForDateRange(TrendyolCredentials credentials, UUID storeId, Store store, 
-                                         long startDate, long endDate) {
-        int savedCount = 0;
-        int skippedCount = 0;
-        int page = 0;
+    private void fetchOrdersForDateRange(TrendyolCredentials credentials, Store store,
+                                        LocalDateTime chunkStart, LocalDateTime chunkEnd,
+                                        int startPage, boolean incremental, SyncCounters counters) {
+        UUID storeId = store.getId();
+        int page = startPage;
         boolean hasMorePages = true;
         
-        // Pre-load all products for this store to avoid N+1 queries
-        Map<String, TrendyolProduct> productCache = productRepository.findByStoreId(storeId)
-                .stream()
-                .filter(p -> p.getBarcode() != null && !p.getBarcode().isEmpty())
-                .collect(Collectors.toMap(TrendyolProduct::getBarcode, p -> p));
+        // Convert to GMT+3 milliseconds
+        long startDate = chunkStart.atZone(ZoneId.of("Europe/Istanbul")).toInstant().toEpochMilli();
+        long endDate = chunkEnd.atZone(ZoneId.of("Europe/Istanbul")).toInstant().toEpochMilli();
+        
+        syncStateService.checkpoint(storeId, chunkStart, chunkEnd, page);
         
-        log.info("Loaded {} products into cache for store {}", productCache.size(), storeId);
+        // Shared catalogue snapshot, loaded once per store rather than once per chunk
+        Map<String, ProductSnapshot> productCache = snapshotCache.get(storeId);
         
         while (hasMorePages) {
+            // The page is read to the end and the HTTP exchange closed before any write, so database
+            // time counts neither against the read timeout nor in the Trendyol request timer
+            List<TrendyolOrderApiResponse.TrendyolOrderContent> pageContent = new ArrayList<>(syncConfig.getPageSize());
+            
+            TrendyolPageReader.PageInfo pageInfo = fetchOrdersFromTrendyol(
+                    credentials, page, syncConfig.getPageSize(), startDate, endDate, incremental, pageContent::add);
+            
+            int writeBatchSize = syncConfig.getWriteBatchSize();
+            for (int from = 0; from < pageContent.size(); from += writeBatchSize) {
+                writeOrderBatch(pageContent.subList(from, Math.min(from + writeBatchSize, pageContent.size())),
+                        store, productCache, counters);
+            }
+            
+            if (pageInfo.elementCount() == 0) {
+                break;
+            }
+            
+            counters.pages++;
+            counters.packages += pageInfo.elementCount();
+            
+            if (page % 10 == 0) { // Log progress every 10 pages
+                log.info("Processed page {} with {} orders", page, pageInfo.elementCount());
+            }
+            
+            // Check if we have more pages
+            hasMorePages = (page + 1) < pageInfo.totalPages();
+            page++;
+            syncStateService.checkpoint(storeId, chunkStart, chunkEnd, page);
+        }
+    }
+    
+    /**
+     * Insert new packages and refresh status/amounts of existing ones for one write batch,
+     * in a single upsert statement
+     */
+    private void writeOrderBatch(List<TrendyolOrderApiResponse.TrendyolOrderContent> batch, Store store,
+                                 Map<String, ProductSnapshot> productCache, SyncCounters counters) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        List<TrendyolOrder> orders = new ArrayList<>(batch.size());
+        for (TrendyolOrderApiResponse.TrendyolOrderContent orderContent : batch) {
             try {
-                TrendyolOrderApiResponse apiResponse = fetchOrdersFromTrendyol(credentials, page, 200, startDate, endDate);
-                
-                if (apiResponse == null || apiResponse.getContent() == null || apiResponse.getContent().isEmpty()) {
-                    break;
-                }
-                
-                if (page % 10 == 0) { // Log progress every 10 pages
-                    log.info("Processing page {} with {} orders", page, apiResponse.getContent().size());
+                // Skip orders without cargoTrackingNumber (package number)
+                if (orderContent.getCargoTrackingNumber() == null || orderContent.getId() == null) {
+                    counters.skipped++;
+                    continue;
                 }
                 
-                // Batch process orders
-                List<TrendyolOrder> ordersToSave = new ArrayList<>();
-                Set<String> existingPackages = new HashSet<>();
-                
-                // Check existing orders in batch
-                List<Long> packageNumbers = apiResponse.getContent().stream()
-                        .filter(order -> order.getId() != null)
-                        .map(TrendyolOrderApiResponse.TrendyolOrderContent::getId)
-                        .collect(Collectors.toList());
-                
-                if (!packageNumbers.isEmpty()) {
-                    Set<Long> existingPackageSet = new HashSet<>(orderRepository.findExistingPackageNumbers(storeId, packageNumbers));
-                    existingPackages = existingPackageSet.stream().map(String::valueOf).collect(Collectors.toSet());
+                // Skip UnPacked orders (these are original packages that will be split)
+                if ("UnPacked".equals(orderContent.getStatus())) {
+                    log.debug("Skipping UnPacked order {}", orderContent.getId());
+                    counters.skipped++;
+                    continue;
                 }
                 
-                // Process orders in this page
-                for (TrendyolOrderApiResponse.TrendyolOrderContent orderContent : apiResponse.getContent()) {
-                    try {
-                        // Skip orders without cargoTrackingNumber (package number)
-                        if (orderContent.getCargoTrackingNumber() == null || orderContent.getId() == null) {
-                            skippedCount++;
-                            continue;
-                        }
-                        
-                        // Check if order already exists (from batch check)
-                        if (existingPackages.contains(orderContent.getId().toString())) {
-                            skippedCount++;
-                            continue;
-                        }
-                        
-                        // Skip UnPacked orders (these are original packages that will be split)
-                        if ("UnPacked".equals(orderContent.getStatus())) {
-                            log.debug("Skipping UnPacked order {}", orderContent.getId());
-                            skippedCount++;
-                            continue;
-                        }
-                        
-                        // Convert order using product cache
-                        TrendyolOrder order = convertApiResponseToEntity(orderContent, store, productCache);
-                        ordersToSave.add(order);
-                        savedCount++;
-                        
-                    } catch (Exception e) {
-                        log.error("Error processing order {}: {}", orderContent.getOrderNumber(), e.getMessage());
-                        skippedCount++;
-                    }
-                }
-                
-                // Batch save orders
-                if (!ordersToSave.isEmpty()) {
-                    orderRepository.saveAll(ordersToSave);
-                    if (page % 10 == 0) {
-                        log.info("Saved batch of {} orders", ordersToSave.size());
-                    }
-                    
-                    // Trigger stock-order synchronization for newly saved orders
-                    try {
-                        stockOrderSyncService.synchronizeOrdersAfterStockChange(storeId, null);
-                        log.debug("Triggered stock-order synchronization after saving {} orders", ordersToSave.size());
-                    } catch (Exception e) {
-                        log.warn("Failed to synchronize stock-order after saving orders: {}", e.getMessage());
-                    }
-                }
-                
-                // Check if we have more pages
-                hasMorePages = (page + 1) < apiResponse.getTotalPages();
-                page++;
-                
-                // Small delay between pages
-                if (hasMorePages) {
-                    Thread.sleep(500);
-                }
+                // Convert order using product cache; items are only written for packages that are new
+                orders.add(convertApiResponseToEntity(orderContent, store, productCache));
                 
             } catch (Exception e) {
-                log.error("Error fetching page {} for date range: {}", page, e.getMessage(), e);
-                break;
+                log.error("Error processing order {}: {}", orderContent.getOrderNumber(), e.getMessage());
+                counters.skipped++;
             }
         }
         
-        return new int[]{savedCount, skippedCount};
+        TrendyolOrderBulkWriter.BulkWriteResult result = bulkWriter.upsert(orders);
+        counters.saved += result.inserted();
+        counters.updated += result.updated();
+        counters.unchanged += orders.size() - result.inserted() - result.updated();
+        if (result.inserted() + result.updated() > 0) {
+            orders.forEach(order -> counters.touchedDays.add(order.getOrderDate().toLocalDate()));
+        }
+        log.debug("Upserted batch of {} orders: {} new, {} updated, {} unchanged",
+                orders.size(), result.inserted(), result.updated(), result.unchanged());
     }
     
     /**
@@ -236,6 +302,67 @@ public class TrendyolOrderService {
         return orders.map(orderMapper::toDto);
     }
     
+    /**
+     * Full order including its items, for detail views
+     */
+    public TrendyolOrderDto getOrder(UUID storeId, UUID orderId) {
+        TrendyolOrder order = orderRepository.findById(orderId)
+                .filter(found -> found.getStore().getId().equals(storeId))
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        return orderMapper.toDto(order);
+    }
+    
+    /**
+     * Order summaries of a store newest first, continuing after the cursor
+     */
+    public OrderCursorPage getOrdersForStore(UUID storeId, String cursor, int size, boolean includeTotal) {
+        String filter = OrderCursor.filter("store", storeId);
+        OrderCursor after = OrderCursor.decode(cursor, filter);
+        List<TrendyolOrderSummary> rows = summaryQueries.findForStore(storeId, after, cursorLimit(size));
+        return toCursorPage(rows, size, filter, includeTotal ? countEstimator.estimateForStore(storeId) : null);
+    }
+    
+    /**
+     * Order summaries of a store within the date range newest first, continuing after the cursor
+     */
+    public OrderCursorPage getOrdersForStoreByDateRange(UUID storeId, LocalDateTime startDate, LocalDateTime endDate,
+                                                        String cursor, int size, boolean includeTotal) {
+        String filter = OrderCursor.filter("dateRange", storeId, startDate, endDate);
+        OrderCursor after = OrderCursor.decode(cursor, filter);
+        List<TrendyolOrderSummary> rows = summaryQueries.findForDateRange(
+                storeId, startDate, endDate, after, cursorLimit(size));
+        return toCursorPage(rows, size, filter,
+                includeTotal ? countEstimator.estimateForDateRange(storeId, startDate, endDate) : null);
+    }
+    
+    /**
+     * Order summaries of a store with the status newest first, continuing after the cursor
+     */
+    public OrderCursorPage getOrdersByStatus(UUID storeId, String status, String cursor, int size, boolean includeTotal) {
+        String filter = OrderCursor.filter("status", storeId, status);
+        OrderCursor after = OrderCursor.decode(cursor, filter);
+        List<TrendyolOrderSummary> rows = summaryQueries.findForStatus(storeId, status, after, cursorLimit(size));
+        return toCursorPage(rows, size, filter, includeTotal ? countEstimator.estimateForStatus(storeId, status) : null);
+    }
+    
+    // One row more than the page size tells whether another page follows
+    private int cursorLimit(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        return size + 1;
+    }
+    
+    private OrderCursorPage toCursorPage(List<TrendyolOrderSummary> rows, int size, String filter, Long approximateTotal) {
+        if (rows.size() <= size) {
+            return new OrderCursorPage(rows, null, false, approximateTotal);
+        }
+        List<TrendyolOrderSummary> content = rows.subList(0, size);
+        TrendyolOrderSummary last = content.get(size - 1);
+        String nextCursor = new OrderCursor(filter, last.orderDate(), last.id()).encode();
+        return new OrderCursorPage(content, nextCursor, true, approximateTotal);
+    }
+    
     /**
      * Get order statistics for a store
      */
@@ -251,8 +378,9 @@ public class TrendyolOrderService {
                 .build();
     }
     
-    private TrendyolOrderApiResponse fetchOrdersFromTrendyol(TrendyolCredentials credentials, int page, int size, 
-                                                           Long startDate, Long endDate) {
+    private TrendyolPageReader.PageInfo fetchOrdersFromTrendyol(TrendyolCredentials credentials, int page, int size, 
+                                                              Long startDate, Long endDate, boolean incremental,
+                                                              Consumer<TrendyolOrderApiResponse.TrendyolOrderContent> consumer) {
         String auth = credentials.getApiKey() + ":" + credentials.getApiSecret();
         String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
         
@@ -261,8 +389,6 @@ public class TrendyolOrderService {
         headers.set("Authorization", "Basic " + encodedAuth);
         headers.set("User-Agent", credentials.getSellerId() + " - SelfIntegration");
         
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        
         // Build URL with date parameters
         StringBuilder urlBuilder = new StringBuilder();
         urlBuilder.append(String.format("%s/integration/order/sellers/%s/orders?page=%d&size=%d", 
@@ -274,17 +400,18 @@ public class TrendyolOrderService {
         if (endDate != null) {
             urlBuilder.append("&endDate=").append(endDate);
         }
+        if (incremental) {
+            // Filter and order by last modification so status changes of older packages are picked up too
+            urlBuilder.append("&orderByField=PackageLastModifiedDate&orderByDirection=ASC");
+        }
         
         String url = urlBuilder.toString();
         log.debug("Fetching orders from URL: {}", url);
         
-        ResponseEntity<TrendyolOrderApiResponse> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, TrendyolOrderApiResponse.class);
-        
-        return response.getBody();
+        return pageReader.readPage(url, headers, TrendyolOrderApiResponse.TrendyolOrderContent.class, consumer);
     }
     
-    private TrendyolOrder convertApiResponseToEntity(TrendyolOrderApiResponse.TrendyolOrderContent orderContent, Store store, Map<String, TrendyolProduct> productCache) {
+    private TrendyolOrder convertApiResponseToEntity(TrendyolOrderApiResponse.TrendyolOrderContent orderContent, Store store, Map<String, ProductSnapshot> productCache) {
         // Convert milliseconds to LocalDateTime (Trendyol sends in GMT+3, keep it as is)
         LocalDateTime orderDate = Instant.ofEpochMilli(orderContent.getOriginShipmentDate())
                 .atZone(ZoneId.of("Europe/Istanbul")) // GMT+3 timezone
@@ -327,10 +454,13 @@ public class TrendyolOrderService {
                 .shipmentPackageStatus(orderContent.getShipmentPackageStatus())
                 .status(orderContent.getStatus())
                 .cargoDeci(orderContent.getCargoDeci())
+                .lastModifiedAt(orderContent.getLastModifiedDate() != null
+                        ? Instant.ofEpochMilli(orderContent.getLastModifiedDate()).atZone(ZoneId.of("Europe/Istanbul")).toLocalDateTime()
+                        : null)
                 .build();
     }
     
-    private OrderItem convertLineToOrderItem(TrendyolOrderApiResponse.TrendyolOrderLine line, UUID storeId, LocalDateTime orderDate, Map<String, TrendyolProduct> productCache) {
+    private OrderItem convertLineToOrderItem(TrendyolOrderApiResponse.TrendyolOrderLine line, UUID storeId, LocalDateTime orderDate, Map<String, ProductSnapshot> productCache) {
         OrderItem.OrderItemBuilder itemBuilder = OrderItem.builder()
                 .barcode(line.getBarcode())
                 .productName(line.getProductName())
@@ -347,9 +477,9 @@ public class TrendyolOrderService {
         // Calculate unit estimated commission
         BigDecimal commissionRate = null;
         if (productCache != null && line.getBarcode() != null) {
-            TrendyolProduct product = productCache.get(line.getBarcode());
-            if (product != null && product.getCommissionRate() != null) {
-                commissionRate = product.getCommissionRate();
+            ProductSnapshot product = productCache.get(line.getBarcode());
+            if (product != null && product.commissionRate() != null) {
+                commissionRate = product.commissionRate();
             }
         }
         
@@ -362,6 +492,19 @@ public class TrendyolOrderService {
         return itemBuilder.build();
     }
     
+    /**
+     * Running totals of one store sync
+     */
+    private static final class SyncCounters {
+        int pages;
+        int packages;
+        int saved;
+        int updated;
+        int unchanged;
+        int skipped;
+        final Set<LocalDate> touchedDays = new HashSet<>();
+    }
+    
     private TrendyolCredentials extractTrendyolCredentials(Store store) {
         if (store.getCredentials() instanceof TrendyolCredentials) {
             return (TrendyolCredentials) store.getCredentials();
@@ -0,0 +1,31 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An order as shown in list views: the trendyol_orders columns plus aggregates of its items, so a listing page
+ * does not load the item rows. The items themselves are only returned by the order detail endpoint.
+ */
+@Builder
+public record TrendyolOrderSummary(
+        UUID id,
+        String tyOrderNumber,
+        Long packageNo,
+        LocalDateTime orderDate,
+        BigDecimal grossAmount,
+        BigDecimal totalDiscount,
+        BigDecimal totalTyDiscount,
+        BigDecimal totalPrice,
+        BigDecimal stoppage,
+        BigDecimal estimatedCommission,
+        String shipmentPackageStatus,
+        String status,
+        Integer cargoDeci,
+        int itemCount,
+        int totalQuantity,
+        BigDecimal totalCost) {
+}
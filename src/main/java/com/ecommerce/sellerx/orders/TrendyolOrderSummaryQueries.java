@@ -0,0 +1,79 @@
+package com.ecommerce.sellerx.orders;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Order summary listings read with JdbcTemplate: only scalar order columns and per-order item aggregates are
+ * selected, so neither the order entity nor its item collection is loaded. Pages are keyset paginated on
+ * (order_date, id) newest first; one extra row is read to know whether another page follows.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrendyolOrderSummaryQueries {
+
+    // The lateral aggregate only runs for the rows that survive the LIMIT, read in index order
+    private static final String SUMMARY_SQL =
+            "SELECT o.id, o.ty_order_number, o.package_no, o.order_date, o.gross_amount, o.total_discount, " +
+            "o.total_ty_discount, o.total_price, o.stoppage, o.estimated_commission, o.shipment_package_status, " +
+            "o.status, o.cargo_deci, i.item_count, i.total_quantity, i.total_cost " +
+            "FROM trendyol_orders o CROSS JOIN LATERAL (" +
+            "SELECT COUNT(*) AS item_count, COALESCE(SUM(quantity), 0) AS total_quantity, " +
+            "COALESCE(SUM(CASE WHEN cost > 0 THEN cost * quantity ELSE 0 END), 0) AS total_cost " +
+            "FROM trendyol_order_items WHERE order_id = o.id) i " +
+            "WHERE o.store_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<TrendyolOrderSummary> findForStore(UUID storeId, OrderCursor after, int limit) {
+        return find("", List.of(storeId), after, limit);
+    }
+
+    public List<TrendyolOrderSummary> findForDateRange(UUID storeId, LocalDateTime startDate, LocalDateTime endDate,
+                                                       OrderCursor after, int limit) {
+        return find(" AND o.order_date BETWEEN ? AND ?",
+                List.of(storeId, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate)), after, limit);
+    }
+
+    public List<TrendyolOrderSummary> findForStatus(UUID storeId, String status, OrderCursor after, int limit) {
+        return find(" AND o.status = ?", List.of(storeId, status), after, limit);
+    }
+
+    private List<TrendyolOrderSummary> find(String filter, List<Object> filterArgs, OrderCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(SUMMARY_SQL).append(filter);
+        List<Object> args = new ArrayList<>(filterArgs);
+        if (after != null) {
+            sql.append(" AND (o.order_date, o.id) < (?, ?)");
+            args.add(Timestamp.valueOf(after.orderDate()));
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY o.order_date DESC, o.id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> TrendyolOrderSummary.builder()
+                .id(rs.getObject("id", UUID.class))
+                .tyOrderNumber(rs.getString("ty_order_number"))
+                .packageNo(rs.getLong("package_no"))
+                .orderDate(rs.getTimestamp("order_date").toLocalDateTime())
+                .grossAmount(rs.getBigDecimal("gross_amount"))
+                .totalDiscount(rs.getBigDecimal("total_discount"))
+                .totalTyDiscount(rs.getBigDecimal("total_ty_discount"))
+                .totalPrice(rs.getBigDecimal("total_price"))
+                .stoppage(rs.getBigDecimal("stoppage"))
+                .estimatedCommission(rs.getBigDecimal("estimated_commission"))
+                .shipmentPackageStatus(rs.getString("shipment_package_status"))
+                .status(rs.getString("status"))
+                .cargoDeci(rs.getObject("cargo_deci", Integer.class))
+                .itemCount(rs.getInt("item_count"))
+                .totalQuantity(rs.getInt("total_quantity"))
+                .totalCost(rs.getBigDecimal("total_cost"))
+                .build(), args.toArray());
+    }
+}
@@ -12,5 +12,5 @@ import java.util.List;
 public class AllProductsResponse {
     private Integer totalCount;
     private String message;
-    private List<TrendyolProductDto> products;
+    private List<TrendyolProductListRow> products;
 }
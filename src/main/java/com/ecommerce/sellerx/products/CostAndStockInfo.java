@@ -20,6 +20,9 @@ public class CostAndStockInfo {
     private Integer costVatRate;
     private LocalDate stockDate;
     
+    // Row version of the lot; send it back with an update to have concurrent edits rejected instead of lost
+    private Long version;
+    
     // Stock usage tracking - default to 0 if null
     @JsonProperty(value = "usedQuantity", defaultValue = "0")
     private Integer usedQuantity; // How much has been used from this stock
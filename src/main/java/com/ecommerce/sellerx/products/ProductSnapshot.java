@@ -0,0 +1,46 @@
+package com.ecommerce.sellerx.products;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Immutable cost and commission view of one product, as used when order lines are costed.
+ * The stock lots are held in a StockLedger built when the snapshot is loaded, with their remaining quantity at
+ * snapshot time.
+ */
+public record ProductSnapshot(String barcode, BigDecimal commissionRate, BigDecimal shippingVolumeWeight, StockLedger ledger) {
+
+    public record Lot(LocalDate stockDate, Double unitCost, Integer costVatRate, int remainingQuantity) {
+    }
+
+    public static ProductSnapshot of(TrendyolProduct product, List<CostAndStockInfo> lots) {
+        return new ProductSnapshot(product.getBarcode(), product.getCommissionRate(), product.getShippingVolumeWeight(),
+                StockLedger.of(lots));
+    }
+
+    /**
+     * Oldest lot dated on or before the order date that still has stock, or null
+     */
+    public Lot firstAvailableLot(LocalDate orderDate) {
+        return lot(ledger.firstAvailableOnOrBefore(orderDate));
+    }
+
+    /**
+     * Newest lot dated on or before the order date, falling back to the earliest lot; null without lots
+     */
+    public Lot latestLotOnOrBefore(LocalDate orderDate) {
+        if (ledger.isEmpty()) {
+            return null;
+        }
+        return lot(Math.max(0, ledger.latestOnOrBefore(orderDate)));
+    }
+
+    private Lot lot(int index) {
+        if (index < 0) {
+            return null;
+        }
+        return new Lot(ledger.stockDate(index), ledger.unitCost(index), ledger.costVatRate(index),
+                ledger.remainingQuantity(index));
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.sellerx.products;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared per-store barcode → ProductSnapshot maps used to cost incoming order lines (order sync and webhooks).
+ * At most max-stores catalogues are held, evicted least recently used first. Writers that change products or their
+ * stock call invalidate; a snapshot loaded concurrently with an invalidation is not cached.
+ */
+@Component
+@Slf4j
+public class ProductSnapshotCache {
+
+    private final TrendyolProductRepository productRepository;
+    private final ProductStockLotRepository lotRepository;
+    private final Map<UUID, Map<String, ProductSnapshot>> snapshots;
+    private final ConcurrentHashMap<UUID, Long> versions = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProductSnapshotCache(TrendyolProductRepository productRepository, ProductStockLotRepository lotRepository,
+                                ProductSnapshotConfig config, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.lotRepository = lotRepository;
+        int maxStores = Math.max(1, config.getMaxStores());
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Map<String, ProductSnapshot>> eldest) {
+                return size() > maxStores;
+            }
+        };
+        this.hits = Counter.builder("product.snapshot.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("product.snapshot.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * The store's catalogue keyed by barcode; loaded with one query for products and one for their lots on a miss
+     */
+    public Map<String, ProductSnapshot> get(UUID storeId) {
+        synchronized (snapshots) {
+            Map<String, ProductSnapshot> cached = snapshots.get(storeId);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        long version = versions.getOrDefault(storeId, 0L);
+        Map<UUID, List<CostAndStockInfo>> lots = lotRepository.findInfoByStoreId(storeId);
+        Map<String, ProductSnapshot> loaded = productRepository.findByStoreId(storeId).stream()
+                .filter(p -> p.getBarcode() != null && !p.getBarcode().isEmpty())
+                .map(p -> ProductSnapshot.of(p, lots.getOrDefault(p.getId(), List.of())))
+                .collect(Collectors.toUnmodifiableMap(ProductSnapshot::barcode, Function.identity(), (first, second) -> first));
+        synchronized (snapshots) {
+            if (versions.getOrDefault(storeId, 0L) == version) {
+                snapshots.put(storeId, loaded);
+            }
+        }
+        log.debug("Loaded {} product snapshots for store {}", loaded.size(), storeId);
+        return loaded;
+    }
+
+    /**
+     * Drops the store's snapshot; inside a transaction it is dropped again after commit
+     * so a reload cannot pick up the pre-commit state
+     */
+    public void invalidate(UUID storeId) {
+        invalidateNow(storeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(storeId);
+                }
+            });
+        }
+    }
+
+    private void invalidateNow(UUID storeId) {
+        synchronized (snapshots) {
+            versions.merge(storeId, 1L, Long::sum);
+            snapshots.remove(storeId);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.sellerx.products;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.product-snapshot")
+public class ProductSnapshotConfig {
+    /** Stores whose catalogue snapshot is kept; the least recently used store is dropped beyond this. */
+    private int maxStores = 50;
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.sellerx.products;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One stock lot of a product, keyed by (product, stock date). The version is bumped by every write, including the
+ * FIFO usage updates, so a stale edit fails with an optimistic locking error instead of overwriting newer values.
+ */
+@Entity
+@Table(name = "product_stock_lots")
+@IdClass(ProductStockLot.Key.class)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockLot {
+    
+    @Id
+    @Column(name = "product_id")
+    private UUID productId;
+    
+    @Id
+    @Column(name = "stock_date")
+    private LocalDate stockDate;
+    
+    @Column(name = "quantity", nullable = false)
+    @Builder.Default
+    private Integer quantity = 0;
+    
+    @Column(name = "unit_cost")
+    private Double unitCost;
+    
+    @Column(name = "cost_vat_rate")
+    private Integer costVatRate;
+    
+    @Column(name = "used_quantity", nullable = false)
+    @Builder.Default
+    private Integer usedQuantity = 0;
+    
+    // Null until the lot is first saved, which also tells Spring Data a new lot from an existing one
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    @Column(name = "created_at")
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column(name = "updated_at")
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+    
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public CostAndStockInfo toInfo() {
+        return CostAndStockInfo.builder()
+                .quantity(quantity)
+                .unitCost(unitCost)
+                .costVatRate(costVatRate)
+                .stockDate(stockDate)
+                .usedQuantity(usedQuantity)
+                .version(version)
+                .build();
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID productId;
+        private LocalDate stockDate;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.sellerx.products;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Repository
+public interface ProductStockLotRepository extends JpaRepository<ProductStockLot, ProductStockLot.Key> {
+    
+    List<ProductStockLot> findByProductIdOrderByStockDate(UUID productId);
+    
+    Optional<ProductStockLot> findByProductIdAndStockDate(UUID productId, LocalDate stockDate);
+    
+    @Query("SELECT l FROM ProductStockLot l JOIN TrendyolProduct p ON p.id = l.productId " +
+           "WHERE p.store.id = :storeId ORDER BY l.productId, l.stockDate")
+    List<ProductStockLot> findByStoreId(@Param("storeId") UUID storeId);
+    
+    /**
+     * Lots of every product of the store, as lot values keyed by product id
+     */
+    default Map<UUID, List<CostAndStockInfo>> findInfoByStoreId(UUID storeId) {
+        return findByStoreId(storeId).stream().collect(Collectors.groupingBy(ProductStockLot::getProductId,
+                Collectors.mapping(ProductStockLot::toInfo, Collectors.toList())));
+    }
+    
+    default List<CostAndStockInfo> findInfoByProductId(UUID productId) {
+        return findByProductIdOrderByStockDate(productId).stream().map(ProductStockLot::toInfo).toList();
+    }
+    
+    // Lot count, remaining stock and its cost shown on product list rows
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE trendyol_products p SET " +
+                   "stock_lot_count = (SELECT COUNT(*) FROM product_stock_lots l WHERE l.product_id = p.id), " +
+                   "remaining_stock = (SELECT COALESCE(SUM(l.quantity - l.used_quantity), 0) " +
+                   "FROM product_stock_lots l WHERE l.product_id = p.id), " +
+                   "remaining_stock_cost = (SELECT COALESCE(SUM((l.quantity - l.used_quantity) * l.unit_cost), 0) " +
+                   "FROM product_stock_lots l WHERE l.product_id = p.id) " +
+                   "WHERE p.id IN (:productIds)", nativeQuery = true)
+    int refreshTotals(@Param("productIds") Collection<UUID> productIds);
+}
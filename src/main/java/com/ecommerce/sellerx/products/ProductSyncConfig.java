@@ -0,0 +1,16 @@
+package com.ecommerce.sellerx.products;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.product-sync")
+public class ProductSyncConfig {
+    private int pageSize = 200;
+    /** Pages requested ahead of the one being written; requests still go through the seller's rate limiter. */
+    private int prefetchPages = 4;
+    /** Changed products written per JDBC batch. */
+    private int writeBatchSize = 500;
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.sellerx.products;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, date-sorted view of a product's stock lots on primitive arrays, built once per product version.
+ * Lot i is described by epochDays[i], unitCosts[i], costVatRates[i] and remaining[i]; cumulativeRemaining[i] is the
+ * stock left in lots 0..i, so it never decreases and the first lot with stock can be found by binary search.
+ */
+public final class StockLedger {
+
+    public static final StockLedger EMPTY = new StockLedger(new long[0], new double[0], new int[0], new int[0]);
+
+    private static final int NO_VAT_RATE = Integer.MIN_VALUE;
+
+    private final long[] epochDays;
+    private final double[] unitCosts; // NaN when the lot has no cost
+    private final int[] costVatRates; // NO_VAT_RATE when the lot has no rate
+    private final int[] remaining;
+    private final long[] cumulativeRemaining;
+
+    private StockLedger(long[] epochDays, double[] unitCosts, int[] costVatRates, int[] remaining) {
+        this.epochDays = epochDays;
+        this.unitCosts = unitCosts;
+        this.costVatRates = costVatRates;
+        this.remaining = remaining;
+        this.cumulativeRemaining = new long[remaining.length];
+        long total = 0;
+        for (int i = 0; i < remaining.length; i++) {
+            total += Math.max(0, remaining[i]);
+            cumulativeRemaining[i] = total;
+        }
+    }
+
+    /**
+     * Builds the ledger from the product's JSONB lots; lots without a stock date are ignored
+     */
+    public static StockLedger of(List<CostAndStockInfo> lots) {
+        if (lots == null || lots.isEmpty()) {
+            return EMPTY;
+        }
+        CostAndStockInfo[] sorted = lots.stream()
+                .filter(lot -> lot.getStockDate() != null)
+                .sorted(Comparator.comparing(CostAndStockInfo::getStockDate))
+                .toArray(CostAndStockInfo[]::new);
+        if (sorted.length == 0) {
+            return EMPTY;
+        }
+        long[] epochDays = new long[sorted.length];
+        double[] unitCosts = new double[sorted.length];
+        int[] costVatRates = new int[sorted.length];
+        int[] remaining = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            CostAndStockInfo lot = sorted[i];
+            epochDays[i] = lot.getStockDate().toEpochDay();
+            unitCosts[i] = lot.getUnitCost() != null ? lot.getUnitCost() : Double.NaN;
+            costVatRates[i] = lot.getCostVatRate() != null ? lot.getCostVatRate() : NO_VAT_RATE;
+            remaining[i] = lot.getRemainingQuantity();
+        }
+        return new StockLedger(epochDays, unitCosts, costVatRates, remaining);
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    /**
+     * Index of the oldest lot dated on or before the date that still has stock, or -1
+     */
+    public int firstAvailableOnOrBefore(LocalDate date) {
+        int first = firstWithStock();
+        return first >= 0 && epochDays[first] <= date.toEpochDay() ? first : -1;
+    }
+
+    /**
+     * Index of the newest lot dated on or before the date regardless of stock, or -1
+     */
+    public int latestOnOrBefore(LocalDate date) {
+        int insertion = Arrays.binarySearch(epochDays, date.toEpochDay());
+        if (insertion < 0) {
+            return -insertion - 2;
+        }
+        // Lots can share a date; take the last of them
+        while (insertion + 1 < epochDays.length && epochDays[insertion + 1] == epochDays[insertion]) {
+            insertion++;
+        }
+        return insertion;
+    }
+
+    /**
+     * Stock left in the lots dated on or before the date
+     */
+    public long availableOnOrBefore(LocalDate date) {
+        int last = latestOnOrBefore(date);
+        return last >= 0 ? cumulativeRemaining[last] : 0;
+    }
+
+    public LocalDate stockDate(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public Double unitCost(int index) {
+        return Double.isNaN(unitCosts[index]) ? null : unitCosts[index];
+    }
+
+    public Integer costVatRate(int index) {
+        return costVatRates[index] == NO_VAT_RATE ? null : costVatRates[index];
+    }
+
+    public int remainingQuantity(int index) {
+        return remaining[index];
+    }
+
+    // First index whose cumulative remaining stock is positive
+    private int firstWithStock() {
+        int low = 0;
+        int high = cumulativeRemaining.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeRemaining[mid] > 0) {
+                found = mid;
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.sellerx.products;
+
+/**
+ * A stock lot was changed, or added for the same date, by a concurrent request
+ */
+public class StockLotConflictException extends RuntimeException {
+    public StockLotConflictException(String message) {
+        super(message);
+    }
+}
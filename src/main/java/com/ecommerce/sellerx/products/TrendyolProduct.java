@@ -1,15 +1,11 @@
 package com.ecommerce.sellerx.products;
 
 import com.ecommerce.sellerx.stores.Store;
-import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.Type;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -105,12 +101,24 @@ public class TrendyolProduct {
     @Builder.Default
     private Boolean onSale = false;
     
-    @Type(JsonBinaryType.class)
-    @Column(name = "cost_and_stock_info", columnDefinition = "jsonb")
-    @Builder.Default
-    @com.fasterxml.jackson.annotation.JsonProperty("costAndStockInfo")
-    @com.fasterxml.jackson.annotation.JsonIgnoreProperties(ignoreUnknown = true)
-    private List<CostAndStockInfo> costAndStockInfo = new ArrayList<>();
+    /** Hash of the Trendyol fields as last written by product sync, see TrendyolProductRow. */
+    @Column(name = "content_hash", length = 32)
+    private String contentHash;
+    
+    // Aggregates of the product's ProductStockLot rows, refreshed by ProductStockLotRepository.refreshTotals;
+    // read-only here and only current as of the last load
+    @Column(name = "stock_lot_count", insertable = false, updatable = false)
+    private Integer stockLotCount;
+    
+    @Column(name = "remaining_stock", insertable = false, updatable = false)
+    private Integer remainingStock;
+    
+    @Column(name = "remaining_stock_cost", insertable = false, updatable = false, precision = 14, scale = 2)
+    private BigDecimal remainingStockCost;
+    
+    // tr_normalize(title, brand, category, barcode) generated by PostgreSQL (V28), trigram indexed for search
+    @Column(name = "search_text", insertable = false, updatable = false, columnDefinition = "TEXT")
+    private String searchText;
     
     @Column(name = "created_at")
     @Builder.Default
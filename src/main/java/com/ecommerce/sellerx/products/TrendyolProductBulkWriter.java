@@ -0,0 +1,128 @@
+package com.ecommerce.sellerx.products;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC access for product sync: one query for the store's known content hashes and batched
+ * {@code INSERT ... ON CONFLICT (store_id, product_id) DO UPDATE} for new and changed products.
+ * Cost and stock data is never touched; image, commission rate and shipping volume weight keep their stored
+ * value when the API (or the category table) has none, as the per-entity update did.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendyolProductBulkWriter {
+
+    private static final String SELECT_HASHES =
+            "SELECT product_id, content_hash FROM trendyol_products WHERE store_id = ?";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO trendyol_products (store_id, product_id, barcode, title, category_name, create_date_time, " +
+            "has_active_campaign, brand, brand_id, pim_category_id, product_main_id, image, product_url, " +
+            "dimensional_weight, sale_price, vat_rate, trendyol_quantity, commission_rate, shipping_volume_weight, " +
+            "approved, archived, blacklisted, rejected, on_sale, content_hash, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (store_id, product_id) DO UPDATE SET " +
+            "barcode = EXCLUDED.barcode, " +
+            "title = EXCLUDED.title, " +
+            "category_name = EXCLUDED.category_name, " +
+            "create_date_time = EXCLUDED.create_date_time, " +
+            "has_active_campaign = EXCLUDED.has_active_campaign, " +
+            "brand = EXCLUDED.brand, " +
+            "brand_id = EXCLUDED.brand_id, " +
+            "pim_category_id = EXCLUDED.pim_category_id, " +
+            "product_main_id = EXCLUDED.product_main_id, " +
+            "image = COALESCE(EXCLUDED.image, trendyol_products.image), " +
+            "product_url = EXCLUDED.product_url, " +
+            "dimensional_weight = EXCLUDED.dimensional_weight, " +
+            "sale_price = EXCLUDED.sale_price, " +
+            "vat_rate = EXCLUDED.vat_rate, " +
+            "trendyol_quantity = EXCLUDED.trendyol_quantity, " +
+            "commission_rate = COALESCE(EXCLUDED.commission_rate, trendyol_products.commission_rate), " +
+            "shipping_volume_weight = COALESCE(EXCLUDED.shipping_volume_weight, trendyol_products.shipping_volume_weight), " +
+            "approved = EXCLUDED.approved, " +
+            "archived = EXCLUDED.archived, " +
+            "blacklisted = EXCLUDED.blacklisted, " +
+            "rejected = EXCLUDED.rejected, " +
+            "on_sale = EXCLUDED.on_sale, " +
+            "content_hash = EXCLUDED.content_hash, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * product_id → content_hash of every product of the store; the hash is null for rows never written by this sync
+     */
+    public Map<String, String> loadContentHashes(UUID storeId) {
+        Map<String, String> hashes = new HashMap<>();
+        jdbcTemplate.query(SELECT_HASHES, rs -> {
+            hashes.put(rs.getString("product_id"), rs.getString("content_hash"));
+        }, storeId);
+        return hashes;
+    }
+
+    /**
+     * Writes the rows in one JDBC batch (rewritten into multi-row inserts by the driver).
+     * Rows are sorted by product id so concurrent syncs of the same store lock rows in the same order.
+     */
+    @Transactional
+    public int upsert(UUID storeId, Collection<TrendyolProductRow> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<TrendyolProductRow> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(TrendyolProductRow::productId));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, sorted, sorted.size(), (ps, row) -> bind(ps, storeId, row, now));
+        log.debug("Upserted {} products for store {}", sorted.size(), storeId);
+        return sorted.size();
+    }
+
+    private void bind(PreparedStatement ps, UUID storeId, TrendyolProductRow row, Timestamp now) throws SQLException {
+        int i = 1;
+        ps.setObject(i++, storeId);
+        ps.setString(i++, row.productId());
+        ps.setString(i++, row.barcode());
+        ps.setString(i++, row.title());
+        ps.setString(i++, row.categoryName());
+        ps.setObject(i++, row.createDateTime(), Types.BIGINT);
+        ps.setBoolean(i++, row.hasActiveCampaign());
+        ps.setString(i++, row.brand());
+        ps.setObject(i++, row.brandId(), Types.BIGINT);
+        ps.setObject(i++, row.pimCategoryId(), Types.BIGINT);
+        ps.setString(i++, row.productMainId());
+        ps.setString(i++, row.image());
+        ps.setString(i++, row.productUrl());
+        ps.setBigDecimal(i++, row.dimensionalWeight());
+        ps.setBigDecimal(i++, row.salePrice());
+        ps.setObject(i++, row.vatRate(), Types.INTEGER);
+        ps.setInt(i++, row.trendyolQuantity());
+        ps.setBigDecimal(i++, row.commissionRate());
+        ps.setBigDecimal(i++, row.shippingVolumeWeight());
+        ps.setBoolean(i++, row.approved());
+        ps.setBoolean(i++, row.archived());
+        ps.setBoolean(i++, row.blacklisted());
+        ps.setBoolean(i++, row.rejected());
+        ps.setBoolean(i++, row.onSale());
+        ps.setString(i++, row.contentHash());
+        ps.setTimestamp(i++, now);
+        ps.setTimestamp(i, now);
+    }
+}
@@ -1,11 +1,17 @@
 package com.ecommerce.sellerx.products;
 
+import com.ecommerce.sellerx.common.ExportFormat;
+import com.ecommerce.sellerx.common.ExportWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -14,6 +20,7 @@ import java.util.UUID;
 public class TrendyolProductController {
     
     private final TrendyolProductService trendyolProductService;
+    private final TrendyolProductExporter productExporter;
     
     @PostMapping("/sync/{storeId}")
     @PreAuthorize("@userSecurityRules.canAccessStore(authentication, #storeId)")
@@ -22,17 +29,21 @@ public class TrendyolProductController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * sortBy defaults to onSale, or to relevance when searching; search matches title, brand, category and
+     * barcode ignoring case and Turkish letters, and an exact barcode returns just that product
+     */
     @GetMapping("/store/{storeId}")
     @PreAuthorize("@userSecurityRules.canAccessStore(authentication, #storeId)")
-    public ResponseEntity<ProductListResponse<TrendyolProductDto>> getProductsByStoreWithPagination(
+    public ResponseEntity<ProductListResponse<TrendyolProductListRow>> getProductsByStoreWithPagination(
             @PathVariable UUID storeId,
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "50") Integer size,
             @RequestParam(required = false) String search,
-            @RequestParam(defaultValue = "onSale") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "desc") String sortDirection) {
         
-        ProductListResponse<TrendyolProductDto> products = trendyolProductService.getProductsByStoreWithPagination(
+        ProductListResponse<TrendyolProductListRow> products = trendyolProductService.getProductsByStoreWithPagination(
                 storeId, page, size, search, sortBy, sortDirection);
         return ResponseEntity.ok(products);
     }
@@ -44,6 +55,41 @@ public class TrendyolProductController {
         return ResponseEntity.ok(products);
     }
     
+    /**
+     * Streams the whole catalogue as NDJSON (default) or CSV, gzip-encoded when the client accepts it
+     */
+    @GetMapping("/store/{storeId}/export")
+    @PreAuthorize("@userSecurityRules.canAccessStore(authentication, #storeId)")
+    public ResponseEntity<?> exportProducts(
+            @PathVariable UUID storeId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        boolean gzip = ExportWriter.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> productExporter.export(storeId, exportFormat, gzip, out);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products-" + storeId + "." + exportFormat.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    @GetMapping("/{productId}")
+    @PreAuthorize("@userSecurityRules.canAccessProduct(authentication, #productId)")
+    public ResponseEntity<TrendyolProductDto> getProduct(@PathVariable UUID productId) {
+        return ResponseEntity.ok(trendyolProductService.getProduct(productId));
+    }
+    
     @PutMapping("/{productId}/cost-and-stock")
     @PreAuthorize("@userSecurityRules.canAccessProduct(authentication, #productId)")
     public ResponseEntity<TrendyolProductDto> updateCostAndStock(
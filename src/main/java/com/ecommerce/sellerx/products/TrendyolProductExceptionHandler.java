@@ -17,4 +17,12 @@ public class TrendyolProductExceptionHandler {
         error.put("error", ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
+    
+    // The client reloads the product's stock info and retries
+    @ExceptionHandler(StockLotConflictException.class)
+    public ResponseEntity<Map<String, String>> handleStockLotConflict(StockLotConflictException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
 }
@@ -0,0 +1,101 @@
+package com.ecommerce.sellerx.products;
+
+import com.ecommerce.sellerx.common.ExportFormat;
+import com.ecommerce.sellerx.common.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams a store's whole catalogue to an export stream. Rows are read through a server-side cursor (fetch size,
+ * inside a read-only transaction) and written one by one, and the cost and stock lots are copied as the stored
+ * JSON text without being parsed, so memory does not grow with the catalogue.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendyolProductExporter {
+
+    private static final int FETCH_SIZE = 1000;
+
+    static final List<String> COLUMNS = List.of(
+            "id", "productId", "barcode", "title", "categoryName", "brand", "brandId", "pimCategoryId",
+            "productMainId", "image", "productUrl", "dimensionalWeight", "salePrice", "vatRate", "trendyolQuantity",
+            "commissionRate", "shippingVolumeWeight", "approved", "archived", "blacklisted", "rejected", "onSale",
+            "stockLotCount", "remainingStock", "remainingStockCost", "costAndStockInfo", "createdAt", "updatedAt");
+
+    private static final String EXPORT_SQL =
+            "SELECT id, product_id, barcode, title, category_name, brand, brand_id, pim_category_id, product_main_id, " +
+            "image, product_url, dimensional_weight, sale_price, vat_rate, trendyol_quantity, commission_rate, " +
+            "shipping_volume_weight, approved, archived, blacklisted, rejected, on_sale, stock_lot_count, " +
+            "remaining_stock, remaining_stock_cost, " +
+            "(SELECT COALESCE(json_agg(json_build_object('quantity', l.quantity, 'unitCost', l.unit_cost, " +
+            "'costVatRate', l.cost_vat_rate, 'stockDate', l.stock_date, 'usedQuantity', l.used_quantity, " +
+            "'version', l.version) ORDER BY l.stock_date), '[]')::text " +
+            "FROM product_stock_lots l WHERE l.product_id = p.id) AS cost_and_stock_info, " +
+            "created_at, updated_at " +
+            "FROM trendyol_products p WHERE store_id = ? ORDER BY barcode, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every product of the store to out and closes it; returns the number of products written
+     */
+    @Transactional(readOnly = true)
+    public int export(UUID storeId, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        try (ExportWriter writer = ExportWriter.open(out, format, gzip, COLUMNS, objectMapper)) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(EXPORT_SQL);
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setObject(1, storeId);
+                return ps;
+            }, (RowCallbackHandler) rs -> writer.writeRow(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("product_id"),
+                    rs.getString("barcode"),
+                    rs.getString("title"),
+                    rs.getString("category_name"),
+                    rs.getString("brand"),
+                    rs.getObject("brand_id"),
+                    rs.getObject("pim_category_id"),
+                    rs.getString("product_main_id"),
+                    rs.getString("image"),
+                    rs.getString("product_url"),
+                    rs.getBigDecimal("dimensional_weight"),
+                    rs.getBigDecimal("sale_price"),
+                    rs.getObject("vat_rate"),
+                    rs.getObject("trendyol_quantity"),
+                    rs.getBigDecimal("commission_rate"),
+                    rs.getBigDecimal("shipping_volume_weight"),
+                    rs.getObject("approved"),
+                    rs.getObject("archived"),
+                    rs.getObject("blacklisted"),
+                    rs.getObject("rejected"),
+                    rs.getObject("on_sale"),
+                    rs.getObject("stock_lot_count"),
+                    rs.getObject("remaining_stock"),
+                    rs.getBigDecimal("remaining_stock_cost"),
+                    ExportWriter.RawJson.of(rs.getString("cost_and_stock_info")),
+                    localDateTime(rs.getTimestamp("created_at")),
+                    localDateTime(rs.getTimestamp("updated_at"))));
+            log.info("Exported {} products of store {} as {}", writer.rows(), storeId, format);
+            return writer.rows();
+        }
+    }
+
+    private static Object localDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
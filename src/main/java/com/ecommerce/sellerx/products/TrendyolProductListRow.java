@@ -0,0 +1,43 @@
+package com.ecommerce.sellerx.products;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A product as shown in list views: the scalar trendyol_products columns plus the stock aggregates kept for the
+ * product's product_stock_lots rows, so listing never reads the lots. The lots themselves are only returned by the
+ * product detail endpoint.
+ */
+public record TrendyolProductListRow(
+        UUID id,
+        UUID storeId,
+        String productId,
+        String barcode,
+        String title,
+        String categoryName,
+        Long createDateTime,
+        Boolean hasActiveCampaign,
+        String brand,
+        Long brandId,
+        Long pimCategoryId,
+        String productMainId,
+        String image,
+        String productUrl,
+        BigDecimal dimensionalWeight,
+        BigDecimal salePrice,
+        Integer vatRate,
+        Integer trendyolQuantity,
+        BigDecimal commissionRate,
+        BigDecimal shippingVolumeWeight,
+        Boolean approved,
+        Boolean archived,
+        Boolean blacklisted,
+        Boolean rejected,
+        Boolean onSale,
+        Integer stockLotCount,
+        Integer remainingStock,
+        BigDecimal remainingStockCost,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -3,12 +3,11 @@ package com.ecommerce.sellerx.products;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class TrendyolProductMapper {
     
-    public TrendyolProductDto toDto(TrendyolProduct product) {
+    public TrendyolProductDto toDto(TrendyolProduct product, List<CostAndStockInfo> costAndStockInfo) {
         if (product == null) {
             return null;
         }
@@ -39,15 +38,9 @@ public class TrendyolProductMapper {
                 .blacklisted(product.getBlacklisted())
                 .rejected(product.getRejected())
                 .onSale(product.getOnSale())
-                .costAndStockInfo(product.getCostAndStockInfo())
+                .costAndStockInfo(costAndStockInfo)
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .build();
     }
-    
-    public List<TrendyolProductDto> toDtoList(List<TrendyolProduct> products) {
-        return products.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-    }
 }
@@ -14,20 +14,45 @@ import java.util.UUID;
 @Repository
 public interface TrendyolProductRepository extends JpaRepository<TrendyolProduct, UUID> {
     
+    // List rows select scalar columns only, stock lots are not read
+    String LIST_ROW = "SELECT new com.ecommerce.sellerx.products.TrendyolProductListRow(" +
+            "tp.id, tp.store.id, tp.productId, tp.barcode, tp.title, tp.categoryName, tp.createDateTime, " +
+            "tp.hasActiveCampaign, tp.brand, tp.brandId, tp.pimCategoryId, tp.productMainId, tp.image, tp.productUrl, " +
+            "tp.dimensionalWeight, tp.salePrice, tp.vatRate, tp.trendyolQuantity, tp.commissionRate, " +
+            "tp.shippingVolumeWeight, tp.approved, tp.archived, tp.blacklisted, tp.rejected, tp.onSale, " +
+            "tp.stockLotCount, tp.remainingStock, tp.remainingStockCost, tp.createdAt, tp.updatedAt) " +
+            "FROM TrendyolProduct tp ";
+    
+    // :search arrives LIKE-escaped (TrendyolProductService.escapeLike) and is normalised like search_text
+    String SEARCH = "WHERE tp.store.id = :storeId " +
+            "AND tp.searchText LIKE CONCAT('%', function('tr_normalize', :search), '%') ESCAPE '\\' ";
+    
     List<TrendyolProduct> findByStoreId(UUID storeId);
     
-    // Pagination support for store products
-    Page<TrendyolProduct> findByStoreId(UUID storeId, Pageable pageable);
-    
-    // Search with pagination
-    @Query("SELECT tp FROM TrendyolProduct tp WHERE tp.store.id = :storeId " +
-           "AND (LOWER(tp.title) LIKE LOWER(CONCAT('%', :search, '%')) " +
-           "OR LOWER(tp.barcode) LIKE LOWER(CONCAT('%', :search, '%')) " +
-           "OR LOWER(tp.brand) LIKE LOWER(CONCAT('%', :search, '%')) " +
-           "OR LOWER(tp.categoryName) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<TrendyolProduct> findByStoreIdAndSearch(@Param("storeId") UUID storeId, 
-                                                @Param("search") String search, 
-                                                Pageable pageable);
+    @Query(LIST_ROW + "WHERE tp.store.id = :storeId")
+    List<TrendyolProductListRow> findListRowsByStoreId(@Param("storeId") UUID storeId);
+    
+    @Query(value = LIST_ROW + "WHERE tp.store.id = :storeId",
+           countQuery = "SELECT COUNT(tp) FROM TrendyolProduct tp WHERE tp.store.id = :storeId")
+    Page<TrendyolProductListRow> findListRowsByStoreId(@Param("storeId") UUID storeId, Pageable pageable);
+    
+    @Query(value = LIST_ROW + SEARCH, countQuery = "SELECT COUNT(tp) FROM TrendyolProduct tp " + SEARCH)
+    Page<TrendyolProductListRow> findListRowsByStoreIdAndSearch(@Param("storeId") UUID storeId,
+                                                               @Param("search") String search,
+                                                               Pageable pageable);
+    
+    // Best matches first: how well the term matches a word of the searchable text, ties by title
+    @Query(value = LIST_ROW + SEARCH +
+                   "ORDER BY function('word_similarity', function('tr_normalize', :search), tp.searchText) DESC, " +
+                   "tp.title, tp.id",
+           countQuery = "SELECT COUNT(tp) FROM TrendyolProduct tp " + SEARCH)
+    Page<TrendyolProductListRow> findListRowsByStoreIdAndSearchByRelevance(@Param("storeId") UUID storeId,
+                                                                          @Param("search") String search,
+                                                                          Pageable pageable);
+    
+    @Query(LIST_ROW + "WHERE tp.store.id = :storeId AND tp.barcode = :barcode")
+    List<TrendyolProductListRow> findListRowsByStoreIdAndBarcode(@Param("storeId") UUID storeId,
+                                                                @Param("barcode") String barcode);
     
     Optional<TrendyolProduct> findByStoreIdAndProductId(UUID storeId, String productId);
     
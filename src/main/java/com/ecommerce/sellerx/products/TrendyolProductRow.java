@@ -0,0 +1,94 @@
+package com.ecommerce.sellerx.products;
+
+import com.ecommerce.sellerx.categories.TrendyolCategoryIndex;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * The trendyol_products columns product sync writes for one API product, with the category-derived commission
+ * rate and shipping volume weight already resolved. contentHash fingerprints exactly these values, so an
+ * unchanged product is recognised by comparing one stored string instead of every field.
+ */
+record TrendyolProductRow(
+        String productId,
+        String barcode,
+        String title,
+        String categoryName,
+        Long createDateTime,
+        boolean hasActiveCampaign,
+        String brand,
+        Long brandId,
+        Long pimCategoryId,
+        String productMainId,
+        String image,
+        String productUrl,
+        BigDecimal dimensionalWeight,
+        BigDecimal salePrice,
+        Integer vatRate,
+        int trendyolQuantity,
+        BigDecimal commissionRate,
+        BigDecimal shippingVolumeWeight,
+        boolean approved,
+        boolean archived,
+        boolean blacklisted,
+        boolean rejected,
+        boolean onSale,
+        String contentHash) {
+
+    private static final char SEPARATOR = '\u001f';
+    private static final String NULL = "\u0000";
+
+    /**
+     * Maps an API product the same way the per-field update did; category may be null when it is unknown
+     */
+    static TrendyolProductRow from(TrendyolApiProductResponse.TrendyolApiProduct api, TrendyolCategoryIndex.CategoryInfo category) {
+        String image = api.getImages() != null && !api.getImages().isEmpty() ? api.getImages().get(0).getUrl() : null;
+        BigDecimal commissionRate = category != null ? category.commissionRate() : null;
+        BigDecimal shippingVolumeWeight = category != null ? category.averageShipmentSize() : null;
+        boolean hasActiveCampaign = Boolean.TRUE.equals(api.getHasActiveCampaign());
+        int quantity = api.getQuantity() != null ? api.getQuantity() : 0;
+        boolean approved = Boolean.TRUE.equals(api.getApproved());
+        boolean archived = Boolean.TRUE.equals(api.getArchived());
+        boolean blacklisted = Boolean.TRUE.equals(api.getBlacklisted());
+        boolean rejected = Boolean.TRUE.equals(api.getRejected());
+        boolean onSale = Boolean.TRUE.equals(api.getOnsale());
+
+        String hash = hash(api.getBarcode(), api.getTitle(), api.getCategoryName(), api.getCreateDateTime(),
+                hasActiveCampaign, api.getBrand(), api.getBrandId(), api.getPimCategoryId(), api.getProductMainId(),
+                image, api.getProductUrl(), api.getDimensionalWeight(), api.getSalePrice(), api.getVatRate(), quantity,
+                commissionRate, shippingVolumeWeight, approved, archived, blacklisted, rejected, onSale);
+
+        return new TrendyolProductRow(api.getId(), api.getBarcode(), api.getTitle(), api.getCategoryName(),
+                api.getCreateDateTime(), hasActiveCampaign, api.getBrand(), api.getBrandId(), api.getPimCategoryId(),
+                api.getProductMainId(), image, api.getProductUrl(), api.getDimensionalWeight(), api.getSalePrice(),
+                api.getVatRate(), quantity, commissionRate, shippingVolumeWeight, approved, archived, blacklisted,
+                rejected, onSale, hash);
+    }
+
+    /**
+     * MD5 of the values in a fixed order. Decimals are compared by value, so 10.5 and 10.50 hash the same.
+     */
+    static String hash(Object... values) {
+        StringBuilder content = new StringBuilder(256);
+        for (Object value : values) {
+            if (value == null) {
+                content.append(NULL);
+            } else if (value instanceof BigDecimal decimal) {
+                content.append(decimal.stripTrailingZeros().toPlainString());
+            } else {
+                content.append(value);
+            }
+            content.append(SEPARATOR);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
@@ -6,25 +6,35 @@ import com.ecommerce.sellerx.stores.StoreRepository;
 import com.ecommerce.sellerx.stores.StoreNotFoundException;
 import com.ecommerce.sellerx.stores.TrendyolCredentials;
 import com.ecommerce.sellerx.stores.MarketplaceCredentials;
-import com.ecommerce.sellerx.categories.TrendyolCategoryRepository;
-import com.ecommerce.sellerx.categories.TrendyolCategory;
+import com.ecommerce.sellerx.categories.TrendyolCategoryIndex;
+import com.ecommerce.sellerx.trendyol.TrendyolPageReader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -32,28 +42,24 @@ import java.util.UUID;
 public class TrendyolProductService {
     
     private static final String TRENDYOL_BASE_URL = "https://apigw.trendyol.com";
+    private static final String RELEVANCE = "relevance";
     
     private final TrendyolProductRepository trendyolProductRepository;
     private final StoreRepository storeRepository;
     private final TrendyolProductMapper productMapper;
-    private final RestTemplate restTemplate;
+    private final TrendyolPageReader pageReader;
     private final StockOrderSynchronizationService stockOrderSyncService;
-    private final TrendyolCategoryRepository trendyolCategoryRepository;
+    private final TrendyolCategoryIndex categoryIndex;
+    private final ProductSnapshotCache snapshotCache;
+    private final ProductStockLotRepository lotRepository;
+    private final TrendyolProductBulkWriter productBulkWriter;
+    private final ProductSyncConfig productSyncConfig;
     
     /**
-     * Helper method to compare BigDecimal values properly
-     * Handles null values and numeric equality regardless of scale
+     * Sync the store's catalogue from Trendyol. Pages are fetched ahead concurrently (still paced by the seller's
+     * rate limiter) while the current page is diffed against the stored content hashes; only new and changed
+     * products are written, in JDBC batches. Categories are resolved from TrendyolCategoryIndex.
      */
-    private boolean isBigDecimalChanged(BigDecimal existing, BigDecimal incoming) {
-        if (existing == null && incoming == null) {
-            return false;
-        }
-        if (existing == null || incoming == null) {
-            return true;
-        }
-        return existing.compareTo(incoming) != 0;
-    }
-    
     public SyncProductsResponse syncProductsFromTrendyol(UUID storeId) {
         Store store = storeRepository.findById(storeId)
                 .orElseThrow(() -> new StoreNotFoundException("Store not found"));
@@ -63,280 +69,164 @@ public class TrendyolProductService {
             return new SyncProductsResponse(false, "Trendyol credentials not found", 0, 0, 0, 0);
         }
         
+        long started = System.nanoTime();
         try {
-            int totalFetched = 0;
-            int totalSaved = 0;
-            int totalUpdated = 0;
-            int totalSkipped = 0;
-            int page = 0;
-            int size = 200;
-            boolean hasMorePages = true;
+            Map<String, String> knownHashes = productBulkWriter.loadContentHashes(storeId);
             
-            while (hasMorePages) {
-                String url = String.format("%s/integration/product/sellers/%d/products?size=%d&page=%d",
-                        TRENDYOL_BASE_URL, credentials.getSellerId(), size, page);
-                
-                HttpHeaders headers = createAuthHeaders(credentials);
-                HttpEntity<String> entity = new HttpEntity<>(headers);
-                
-                ResponseEntity<TrendyolApiProductResponse> response = restTemplate.exchange(
-                        url, HttpMethod.GET, entity, TrendyolApiProductResponse.class);
-                
-                if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                    TrendyolApiProductResponse apiResponse = response.getBody();
-                    
-                    if (apiResponse.getContent() != null) {
-                        for (TrendyolApiProductResponse.TrendyolApiProduct apiProduct : apiResponse.getContent()) {
-                            try {
-                                ProductSyncResult result = saveOrUpdateProduct(store, apiProduct);
-                                totalFetched++;
-                                
-                                switch (result) {
-                                    case NEW:
-                                        totalSaved++;
-                                        break;
-                                    case UPDATED:
-                                        totalUpdated++;
-                                        break;
-                                    case SKIPPED:
-                                        totalSkipped++;
-                                        break;
-                                }
-                            } catch (Exception e) {
-                                log.error("Error processing product {}: {}", apiProduct.getId(), e.getMessage());
-                            }
+            SyncCounters counters = new SyncCounters();
+            // Keyed by product id: a product repeated across pages must not appear twice in one upsert batch
+            Map<String, PendingProduct> pending = new LinkedHashMap<>();
+            
+            fetchProductPages(credentials, pageProducts -> {
+                counters.pages++;
+                for (TrendyolApiProductResponse.TrendyolApiProduct apiProduct : pageProducts) {
+                    try {
+                        TrendyolProductRow row = TrendyolProductRow.from(apiProduct,
+                                categoryIndex.find(apiProduct.getPimCategoryId()));
+                        counters.fetched++;
+                        
+                        ProductSyncResult result = classify(knownHashes, row);
+                        if (result == ProductSyncResult.SKIPPED) {
+                            counters.skipped++;
+                            continue;
                         }
+                        pending.put(row.productId(), new PendingProduct(row, result));
+                    } catch (Exception e) {
+                        log.error("Error processing product {}: {}", apiProduct.getId(), e.getMessage());
+                    }
+                    if (pending.size() >= productSyncConfig.getWriteBatchSize()) {
+                        flush(storeId, pending, knownHashes, counters);
                     }
-                    
-                    // Check if there are more pages
-                    hasMorePages = page < (apiResponse.getTotalPages() - 1);
-                    page++;
-                } else {
-                    hasMorePages = false;
-                    log.error("Failed to fetch products from Trendyol. Status: {}", response.getStatusCode());
-                    return new SyncProductsResponse(false, "Failed to fetch products from Trendyol", 0, 0, 0, 0);
                 }
-            }
+            });
+            flush(storeId, pending, knownHashes, counters);
+            
+            log.info("Product sync for store {}: {} fetched, {} new, {} updated, {} unchanged, {} failed from {} pages in {} ms ({} write batches)",
+                    storeId, counters.fetched, counters.saved, counters.updated, counters.skipped, counters.failed,
+                    counters.pages, (System.nanoTime() - started) / 1_000_000, counters.batches);
             
             return new SyncProductsResponse(true, 
-                    String.format("Products synced successfully. Fetched: %d, New: %d, Updated: %d, Skipped: %d", 
-                            totalFetched, totalSaved, totalUpdated, totalSkipped), 
-                    totalFetched, totalSaved, totalUpdated, totalSkipped);
+                    String.format("Products synced successfully. Fetched: %d, New: %d, Updated: %d, Skipped: %d, Failed: %d", 
+                            counters.fetched, counters.saved, counters.updated, counters.skipped, counters.failed), 
+                    counters.fetched, counters.saved, counters.updated, counters.skipped);
             
         } catch (Exception e) {
             log.error("Error syncing products from Trendyol: ", e);
             return new SyncProductsResponse(false, "Error syncing products: " + e.getMessage(), 0, 0, 0, 0);
+        } finally {
+            // Commission rates and volume weights may have changed, even on a partially failed run
+            snapshotCache.invalidate(storeId);
         }
     }
     
-    private ProductSyncResult saveOrUpdateProduct(Store store, TrendyolApiProductResponse.TrendyolApiProduct apiProduct) {
-        // Check if product already exists
-        boolean isNew = !trendyolProductRepository.existsByStoreIdAndProductId(store.getId(), apiProduct.getId());
-        
-        TrendyolProduct product = trendyolProductRepository
-                .findByStoreIdAndProductId(store.getId(), apiProduct.getId())
-                .orElse(TrendyolProduct.builder()
-                        .store(store)
-                        .productId(apiProduct.getId())
-                        .costAndStockInfo(new ArrayList<>())
-                        .build());
-        
-        // Check if any field has changed (only if product exists)
-        boolean hasChanges = isNew;
-        
-        if (!isNew) {
-            hasChanges = hasProductChanged(product, apiProduct);
-        }
-        
-        // Only update if there are changes
-        if (hasChanges) {
-            updateProductFields(product, apiProduct);
-            trendyolProductRepository.save(product);
-        }
-        
-        if (isNew) {
+    private ProductSyncResult classify(Map<String, String> knownHashes, TrendyolProductRow row) {
+        if (!knownHashes.containsKey(row.productId())) {
             return ProductSyncResult.NEW;
-        } else if (hasChanges) {
-            return ProductSyncResult.UPDATED;
-        } else {
-            return ProductSyncResult.SKIPPED;
         }
+        return row.contentHash().equals(knownHashes.get(row.productId())) ? ProductSyncResult.SKIPPED : ProductSyncResult.UPDATED;
     }
     
-    private boolean hasProductChanged(TrendyolProduct existingProduct, TrendyolApiProductResponse.TrendyolApiProduct apiProduct) {
-        String productId = existingProduct.getProductId();
-        
-        // Check basic fields
-        if (!Objects.equals(existingProduct.getBarcode(), apiProduct.getBarcode())) {
-            log.debug("Product {} changed: barcode '{}' -> '{}'", productId, existingProduct.getBarcode(), apiProduct.getBarcode());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getTitle(), apiProduct.getTitle())) {
-            log.debug("Product {} changed: title", productId);
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getCategoryName(), apiProduct.getCategoryName())) {
-            log.debug("Product {} changed: categoryName '{}' -> '{}'", productId, existingProduct.getCategoryName(), apiProduct.getCategoryName());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getCreateDateTime(), apiProduct.getCreateDateTime())) {
-            log.debug("Product {} changed: createDateTime '{}' -> '{}'", productId, existingProduct.getCreateDateTime(), apiProduct.getCreateDateTime());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getHasActiveCampaign(), 
-                apiProduct.getHasActiveCampaign() != null ? apiProduct.getHasActiveCampaign() : false)) {
-            log.debug("Product {} changed: hasActiveCampaign '{}' -> '{}'", productId, existingProduct.getHasActiveCampaign(), apiProduct.getHasActiveCampaign());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getBrand(), apiProduct.getBrand())) {
-            log.debug("Product {} changed: brand '{}' -> '{}'", productId, existingProduct.getBrand(), apiProduct.getBrand());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getBrandId(), apiProduct.getBrandId())) {
-            log.debug("Product {} changed: brandId '{}' -> '{}'", productId, existingProduct.getBrandId(), apiProduct.getBrandId());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getPimCategoryId(), apiProduct.getPimCategoryId())) {
-            log.debug("Product {} changed: pimCategoryId '{}' -> '{}'", productId, existingProduct.getPimCategoryId(), apiProduct.getPimCategoryId());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getProductMainId(), apiProduct.getProductMainId())) {
-            log.debug("Product {} changed: productMainId '{}' -> '{}'", productId, existingProduct.getProductMainId(), apiProduct.getProductMainId());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getProductUrl(), apiProduct.getProductUrl())) {
-            log.debug("Product {} changed: productUrl", productId);
-            return true;
-        }
-        if (isBigDecimalChanged(existingProduct.getDimensionalWeight(), apiProduct.getDimensionalWeight())) {
-            log.debug("Product {} changed: dimensionalWeight '{}' -> '{}'", productId, existingProduct.getDimensionalWeight(), apiProduct.getDimensionalWeight());
-            return true;
-        }
-        if (isBigDecimalChanged(existingProduct.getSalePrice(), apiProduct.getSalePrice())) {
-            log.debug("Product {} changed: salePrice '{}' -> '{}'", productId, existingProduct.getSalePrice(), apiProduct.getSalePrice());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getVatRate(), apiProduct.getVatRate())) {
-            log.debug("Product {} changed: vatRate '{}' -> '{}'", productId, existingProduct.getVatRate(), apiProduct.getVatRate());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getTrendyolQuantity(), 
-                apiProduct.getQuantity() != null ? apiProduct.getQuantity() : 0)) {
-            log.debug("Product {} changed: trendyolQuantity '{}' -> '{}'", productId, existingProduct.getTrendyolQuantity(), apiProduct.getQuantity());
-            return true;
+    /**
+     * Writes the pending products in one batch; when the batch fails they are retried one by one so a single bad row
+     * only loses itself. Hashes and counters are recorded for written rows only, so a failed product is retried by
+     * the next sync instead of being skipped as unchanged.
+     */
+    private void flush(UUID storeId, Map<String, PendingProduct> pending, Map<String, String> knownHashes,
+                       SyncCounters counters) {
+        if (pending.isEmpty()) {
+            return;
         }
-        
-        // Check category-related information
-        if (apiProduct.getPimCategoryId() != null) {
-            TrendyolCategory category = trendyolCategoryRepository.findByCategoryId(apiProduct.getPimCategoryId()).orElse(null);
-            if (category != null) {
-                if (isBigDecimalChanged(existingProduct.getCommissionRate(), category.getCommissionRate())) {
-                    log.debug("Product {} changed: commissionRate '{}' -> '{}'", productId, existingProduct.getCommissionRate(), category.getCommissionRate());
-                    return true;
-                }
-                if (isBigDecimalChanged(existingProduct.getShippingVolumeWeight(), category.getAverageShipmentSize())) {
-                    log.debug("Product {} changed: shippingVolumeWeight '{}' -> '{}'", productId, existingProduct.getShippingVolumeWeight(), category.getAverageShipmentSize());
-                    return true;
+        List<PendingProduct> batch = new ArrayList<>(pending.values());
+        pending.clear();
+        try {
+            productBulkWriter.upsert(storeId, batch.stream().map(PendingProduct::row).toList());
+            counters.batches++;
+            batch.forEach(product -> written(product, knownHashes, counters));
+        } catch (Exception e) {
+            log.warn("Writing {} products of store {} in one batch failed, writing them one by one: {}",
+                    batch.size(), storeId, e.getMessage());
+            for (PendingProduct product : batch) {
+                try {
+                    productBulkWriter.upsert(storeId, List.of(product.row()));
+                    written(product, knownHashes, counters);
+                } catch (Exception rowError) {
+                    counters.failed++;
+                    log.error("Error saving product {}: {}", product.row().productId(), rowError.getMessage());
                 }
             }
         }
-        
-        // Check status fields
-        if (!Objects.equals(existingProduct.getApproved(), 
-                apiProduct.getApproved() != null ? apiProduct.getApproved() : false)) {
-            log.debug("Product {} changed: approved '{}' -> '{}'", productId, existingProduct.getApproved(), apiProduct.getApproved());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getArchived(), 
-                apiProduct.getArchived() != null ? apiProduct.getArchived() : false)) {
-            log.debug("Product {} changed: archived '{}' -> '{}'", productId, existingProduct.getArchived(), apiProduct.getArchived());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getBlacklisted(), 
-                apiProduct.getBlacklisted() != null ? apiProduct.getBlacklisted() : false)) {
-            log.debug("Product {} changed: blacklisted '{}' -> '{}'", productId, existingProduct.getBlacklisted(), apiProduct.getBlacklisted());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getRejected(), 
-                apiProduct.getRejected() != null ? apiProduct.getRejected() : false)) {
-            log.debug("Product {} changed: rejected '{}' -> '{}'", productId, existingProduct.getRejected(), apiProduct.getRejected());
-            return true;
-        }
-        if (!Objects.equals(existingProduct.getOnSale(), 
-                apiProduct.getOnsale() != null ? apiProduct.getOnsale() : false)) {
-            log.debug("Product {} changed: onSale '{}' -> '{}'", productId, existingProduct.getOnSale(), apiProduct.getOnsale());
-            return true;
-        }
-        
-        // Check image
-        String newImage = null;
-        if (apiProduct.getImages() != null && !apiProduct.getImages().isEmpty()) {
-            newImage = apiProduct.getImages().get(0).getUrl();
-        }
-        if (!Objects.equals(existingProduct.getImage(), newImage)) {
-            log.debug("Product {} changed: image '{}' -> '{}'", productId, existingProduct.getImage(), newImage);
-            return true;
-        }
-        
-        log.debug("Product {} - No changes detected", productId);
-        return false; // No changes detected
     }
     
-    private void updateProductFields(TrendyolProduct product, TrendyolApiProductResponse.TrendyolApiProduct apiProduct) {
-        // Update product fields
-        product.setBarcode(apiProduct.getBarcode());
-        product.setTitle(apiProduct.getTitle());
-        product.setCategoryName(apiProduct.getCategoryName());
-        product.setCreateDateTime(apiProduct.getCreateDateTime());
-        product.setHasActiveCampaign(apiProduct.getHasActiveCampaign() != null ? apiProduct.getHasActiveCampaign() : false);
-        product.setBrand(apiProduct.getBrand());
-        product.setBrandId(apiProduct.getBrandId());
-        product.setPimCategoryId(apiProduct.getPimCategoryId());
-        product.setProductMainId(apiProduct.getProductMainId());
-        product.setProductUrl(apiProduct.getProductUrl());
-        product.setDimensionalWeight(apiProduct.getDimensionalWeight());
-        product.setSalePrice(apiProduct.getSalePrice());
-        product.setVatRate(apiProduct.getVatRate());
-        product.setTrendyolQuantity(apiProduct.getQuantity() != null ? apiProduct.getQuantity() : 0);
-        
-        // Set category-related information
-        if (apiProduct.getPimCategoryId() != null) {
-            trendyolCategoryRepository.findByCategoryId(apiProduct.getPimCategoryId())
-                .ifPresent(category -> {
-                    product.setCommissionRate(category.getCommissionRate());
-                    product.setShippingVolumeWeight(category.getAverageShipmentSize());
-                });
+    private void written(PendingProduct product, Map<String, String> knownHashes, SyncCounters counters) {
+        knownHashes.put(product.row().productId(), product.row().contentHash());
+        if (product.result() == ProductSyncResult.NEW) {
+            counters.saved++;
+        } else {
+            counters.updated++;
         }
-        
-        // Set status fields
-        product.setApproved(apiProduct.getApproved() != null ? apiProduct.getApproved() : false);
-        product.setArchived(apiProduct.getArchived() != null ? apiProduct.getArchived() : false);
-        product.setBlacklisted(apiProduct.getBlacklisted() != null ? apiProduct.getBlacklisted() : false);
-        product.setRejected(apiProduct.getRejected() != null ? apiProduct.getRejected() : false);
-        product.setOnSale(apiProduct.getOnsale() != null ? apiProduct.getOnsale() : false);
-        
-        // Set first image if available
-        if (apiProduct.getImages() != null && !apiProduct.getImages().isEmpty()) {
-            product.setImage(apiProduct.getImages().get(0).getUrl());
+    }
+    
+    private record PendingProduct(TrendyolProductRow row, ProductSyncResult result) {
+    }
+    
+    /**
+     * Hands every page of the seller's catalogue to the consumer in page order, on the calling thread.
+     * The first page gives the page count; up to prefetch-pages further pages are requested in parallel on
+     * virtual threads while earlier ones are consumed.
+     */
+    private void fetchProductPages(TrendyolCredentials credentials,
+                                   Consumer<List<TrendyolApiProductResponse.TrendyolApiProduct>> pageConsumer) throws Exception {
+        HttpHeaders headers = createAuthHeaders(credentials);
+        List<TrendyolApiProductResponse.TrendyolApiProduct> firstPage = new ArrayList<>();
+        TrendyolPageReader.PageInfo firstInfo = readProductPage(credentials, headers, 0, firstPage);
+        pageConsumer.accept(firstPage);
+        
+        int totalPages = firstInfo.totalPages();
+        int prefetch = Math.max(1, productSyncConfig.getPrefetchPages());
+        Deque<Future<List<TrendyolApiProductResponse.TrendyolApiProduct>>> inFlight = new ArrayDeque<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int nextPage = 1;
+            try {
+                while (nextPage < totalPages || !inFlight.isEmpty()) {
+                    while (nextPage < totalPages && inFlight.size() < prefetch) {
+                        int page = nextPage++;
+                        inFlight.add(executor.submit(() -> {
+                            List<TrendyolApiProductResponse.TrendyolApiProduct> products = new ArrayList<>();
+                            readProductPage(credentials, headers, page, products);
+                            return products;
+                        }));
+                    }
+                    pageConsumer.accept(inFlight.poll().get());
+                }
+            } catch (ExecutionException e) {
+                inFlight.forEach(future -> future.cancel(true));
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
         }
     }
     
+    private TrendyolPageReader.PageInfo readProductPage(TrendyolCredentials credentials, HttpHeaders headers, int page,
+                                                        List<TrendyolApiProductResponse.TrendyolApiProduct> sink) {
+        String url = String.format("%s/integration/product/sellers/%d/products?size=%d&page=%d",
+                TRENDYOL_BASE_URL, credentials.getSellerId(), productSyncConfig.getPageSize(), page);
+        return pageReader.readPage(url, headers, TrendyolApiProductResponse.TrendyolApiProduct.class, sink::add);
+    }
+    
     public AllProductsResponse getAllProductsByStore(UUID storeId) {
         if (!storeRepository.existsById(storeId)) {
             throw new StoreNotFoundException("Store not found");
         }
         
-        List<TrendyolProduct> products = trendyolProductRepository.findByStoreId(storeId);
-        List<TrendyolProductDto> productDtos = productMapper.toDtoList(products);
+        List<TrendyolProductListRow> products = trendyolProductRepository.findListRowsByStoreId(storeId);
         
         return new AllProductsResponse(
-            productDtos.size(),
+            products.size(),
             "Store products retrieved successfully",
-            productDtos
+            products
         );
     }
     
-    public ProductListResponse<TrendyolProductDto> getProductsByStoreWithPagination(UUID storeId, 
+    public ProductListResponse<TrendyolProductListRow> getProductsByStoreWithPagination(UUID storeId, 
                                                                     Integer page, 
                                                                     Integer size, 
                                                                     String search, 
@@ -346,30 +236,38 @@ public class TrendyolProductService {
             throw new StoreNotFoundException("Store not found");
         }
         
-        // Default values
+        // Default values; searches are ranked by relevance unless a sort field is given
         int pageNumber = page != null ? page : 0;
         int pageSize = size != null ? size : 50;
-        String sortField = sortBy != null ? sortBy : "onSale";
+        String term = search != null ? search.trim() : "";
+        boolean byRelevance = !term.isEmpty() && (sortBy == null || RELEVANCE.equalsIgnoreCase(sortBy));
+        String sortField = sortBy != null && !RELEVANCE.equalsIgnoreCase(sortBy) ? sortBy : "onSale";
         Sort.Direction direction = "asc".equalsIgnoreCase(sortDirection) ? 
             Sort.Direction.ASC : Sort.Direction.DESC;
         
         // Create pageable with sorting
         Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(direction, sortField));
         
-        Page<TrendyolProduct> productsPage;
+        Page<TrendyolProductListRow> productsPage;
         
-        // Search or get all
-        if (search != null && !search.trim().isEmpty()) {
-            productsPage = trendyolProductRepository.findByStoreIdAndSearch(storeId, search.trim(), pageable);
+        // Search or get all; list rows carry stock aggregates instead of the cost and stock lots
+        if (term.isEmpty()) {
+            productsPage = trendyolProductRepository.findListRowsByStoreId(storeId, pageable);
         } else {
-            productsPage = trendyolProductRepository.findByStoreId(storeId, pageable);
+            // A scanned or pasted barcode is answered from the (store_id, barcode) index without a text search
+            List<TrendyolProductListRow> exact = pageNumber == 0 && term.indexOf(' ') < 0
+                    ? trendyolProductRepository.findListRowsByStoreIdAndBarcode(storeId, term)
+                    : List.of();
+            if (!exact.isEmpty()) {
+                productsPage = new PageImpl<>(exact, pageable, exact.size());
+            } else if (byRelevance) {
+                productsPage = trendyolProductRepository.findListRowsByStoreIdAndSearchByRelevance(
+                        storeId, escapeLike(term), PageRequest.of(pageNumber, pageSize));
+            } else {
+                productsPage = trendyolProductRepository.findListRowsByStoreIdAndSearch(storeId, escapeLike(term), pageable);
+            }
         }
         
-        // Convert to DTOs while preserving pagination info
-        List<TrendyolProductDto> productDtos = productsPage.getContent().stream()
-                .map(productMapper::toDto)
-                .toList();
-        
         return new ProductListResponse<>(
             productsPage.getTotalElements(),
             productsPage.getTotalPages(),
@@ -379,169 +277,166 @@ public class TrendyolProductService {
             productsPage.isLast(),
             productsPage.hasNext(),
             productsPage.hasPrevious(),
-            productDtos
+            productsPage.getContent()
         );
     }
     
+    // The search term is matched literally, so LIKE wildcards typed by the user are escaped
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    /**
+     * Full product including its cost and stock lots, for detail views
+     */
+    public TrendyolProductDto getProduct(UUID productId) {
+        TrendyolProduct product = trendyolProductRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        return productMapper.toDto(product, lotRepository.findInfoByProductId(productId));
+    }
+    
+    @Transactional
     public TrendyolProductDto updateCostAndStock(UUID productId, UpdateCostAndStockRequest request) {
         TrendyolProduct product = trendyolProductRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         
-        // Create new cost and stock info
-        CostAndStockInfo newInfo = CostAndStockInfo.builder()
-                .quantity(request.getQuantity())
-                .unitCost(request.getUnitCost())
-                .costVatRate(request.getCostVatRate())
-                .stockDate(request.getStockDate() != null ? request.getStockDate() : LocalDate.now())
-                .build();
-        
-        // Add to existing list or merge with same date
-        List<CostAndStockInfo> costAndStockList = product.getCostAndStockInfo();
-        if (costAndStockList == null) {
-            costAndStockList = new ArrayList<>();
-        }
+        LocalDate stockDate = request.getStockDate() != null ? request.getStockDate() : LocalDate.now();
+        addOrMergeStockLot(productId, stockDate, request.getQuantity(), request.getUnitCost(), request.getCostVatRate());
         
-        addOrMergeCostAndStockInfo(costAndStockList, newInfo);
-        product.setCostAndStockInfo(costAndStockList);
-        
-        TrendyolProduct savedProduct = trendyolProductRepository.save(product);
-        return productMapper.toDto(savedProduct);
+        return afterStockLotChange(product);
     }
     
+    @Transactional
     public TrendyolProductDto addStockInfo(UUID productId, AddStockInfoRequest request) {
         TrendyolProduct product = trendyolProductRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         
-        CostAndStockInfo newInfo = CostAndStockInfo.builder()
-                .quantity(request.getQuantity())
-                .unitCost(request.getUnitCost())
-                .costVatRate(request.getCostVatRate())
-                .stockDate(request.getStockDate() != null ? request.getStockDate() : LocalDate.now())
-                .build();
-        
-        List<CostAndStockInfo> costAndStockList = product.getCostAndStockInfo();
-        if (costAndStockList == null) {
-            costAndStockList = new ArrayList<>();
-        }
-        
-        addOrMergeCostAndStockInfo(costAndStockList, newInfo);
-        product.setCostAndStockInfo(costAndStockList);
-        
-        TrendyolProduct savedProduct = trendyolProductRepository.save(product);
+        LocalDate stockDate = request.getStockDate() != null ? request.getStockDate() : LocalDate.now();
+        addOrMergeStockLot(productId, stockDate, request.getQuantity(), request.getUnitCost(), request.getCostVatRate());
+        TrendyolProductDto dto = afterStockLotChange(product);
         
         // Trigger stock-order synchronization after adding stock
         try {
-            UUID storeId = savedProduct.getStore().getId();
-            log.info("Triggering stock-order synchronization after adding stock for product {} in store {}", productId, storeId);
-            stockOrderSyncService.synchronizeOrdersAfterStockChange(storeId, newInfo.getStockDate());
+            UUID storeId = product.getStore().getId();
+            log.info("Queueing stock-order synchronization after adding stock for product {} in store {}", productId, storeId);
+            stockOrderSyncService.requestResync(storeId, product.getBarcode());
         } catch (Exception e) {
-            log.warn("Failed to trigger stock-order synchronization after adding stock: {}", e.getMessage());
+            log.warn("Failed to queue stock-order synchronization after adding stock: {}", e.getMessage());
         }
         
-        return productMapper.toDto(savedProduct);
+        return dto;
     }
     
+    /**
+     * Rewrites one lot. When the request carries the lot's version, a lot changed since it was read is rejected
+     * with a StockLotConflictException rather than overwritten.
+     */
+    @Transactional
     public TrendyolProductDto updateStockInfoByDate(UUID productId, LocalDate stockDate, UpdateStockInfoRequest request) {
         TrendyolProduct product = trendyolProductRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         
-        List<CostAndStockInfo> costAndStockList = product.getCostAndStockInfo();
-        if (costAndStockList == null) {
-            throw new RuntimeException("No stock info found for this product");
-        }
-        
-        // Find and update the specific date entry
-        boolean found = false;
-        for (CostAndStockInfo info : costAndStockList) {
-            if (info.getStockDate().equals(stockDate)) {
-                info.setQuantity(request.getQuantity());
-                info.setUnitCost(request.getUnitCost());
-                info.setCostVatRate(request.getCostVatRate());
-                found = true;
-                break;
-            }
+        ProductStockLot lot = lotRepository.findByProductIdAndStockDate(productId, stockDate)
+                .orElseThrow(() -> new RuntimeException("No stock info found for date: " + stockDate));
+        if (request.getVersion() != null && !request.getVersion().equals(lot.getVersion())) {
+            throw stockLotConflict(stockDate);
         }
         
-        if (!found) {
-            throw new RuntimeException("No stock info found for date: " + stockDate);
-        }
-        
-        product.setCostAndStockInfo(costAndStockList);
-        
-        TrendyolProduct savedProduct = trendyolProductRepository.save(product);
+        lot.setQuantity(request.getQuantity());
+        lot.setUnitCost(request.getUnitCost());
+        lot.setCostVatRate(request.getCostVatRate());
+        saveLot(lot);
+        TrendyolProductDto dto = afterStockLotChange(product);
         
         // Trigger stock-order synchronization after updating stock
         try {
-            UUID storeId = savedProduct.getStore().getId();
-            log.info("Triggering stock-order synchronization after updating stock for product {} in store {} on date {}", productId, storeId, stockDate);
-            stockOrderSyncService.synchronizeOrdersAfterStockChange(storeId, stockDate);
+            UUID storeId = product.getStore().getId();
+            log.info("Queueing stock-order synchronization after updating stock for product {} in store {} on date {}", productId, storeId, stockDate);
+            stockOrderSyncService.requestResync(storeId, product.getBarcode());
         } catch (Exception e) {
-            log.warn("Failed to trigger stock-order synchronization after updating stock: {}", e.getMessage());
+            log.warn("Failed to queue stock-order synchronization after updating stock: {}", e.getMessage());
         }
         
-        return productMapper.toDto(savedProduct);
+        return dto;
     }
     
+    @Transactional
     public TrendyolProductDto deleteStockInfoByDate(UUID productId, LocalDate stockDate) {
         TrendyolProduct product = trendyolProductRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         
-        List<CostAndStockInfo> costAndStockList = product.getCostAndStockInfo();
-        if (costAndStockList == null) {
-            throw new RuntimeException("No stock info found for this product");
-        }
-        
-        // Remove the specific date entry
-        boolean removed = costAndStockList.removeIf(info -> info.getStockDate().equals(stockDate));
-        
-        if (!removed) {
-            throw new RuntimeException("No stock info found for date: " + stockDate);
+        ProductStockLot lot = lotRepository.findByProductIdAndStockDate(productId, stockDate)
+                .orElseThrow(() -> new RuntimeException("No stock info found for date: " + stockDate));
+        try {
+            lotRepository.delete(lot);
+            lotRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            throw stockLotConflict(stockDate);
         }
-        
-        product.setCostAndStockInfo(costAndStockList);
-        
-        TrendyolProduct savedProduct = trendyolProductRepository.save(product);
+        TrendyolProductDto dto = afterStockLotChange(product);
         
         // Trigger stock-order synchronization after deleting stock
         try {
-            UUID storeId = savedProduct.getStore().getId();
-            log.info("Triggering stock-order synchronization after deleting stock for product {} in store {} on date {}", productId, storeId, stockDate);
-            stockOrderSyncService.synchronizeOrdersAfterStockChange(storeId, stockDate);
+            UUID storeId = product.getStore().getId();
+            log.info("Queueing stock-order synchronization after deleting stock for product {} in store {} on date {}", productId, storeId, stockDate);
+            stockOrderSyncService.requestResync(storeId, product.getBarcode());
         } catch (Exception e) {
-            log.warn("Failed to trigger stock-order synchronization after deleting stock: {}", e.getMessage());
+            log.warn("Failed to queue stock-order synchronization after deleting stock: {}", e.getMessage());
         }
         
-        return productMapper.toDto(savedProduct);
+        return dto;
     }
     
-    private void addOrMergeCostAndStockInfo(List<CostAndStockInfo> costAndStockList, CostAndStockInfo newInfo) {
-        // Check if there's already an entry for this date
-        for (CostAndStockInfo existingInfo : costAndStockList) {
-            if (existingInfo.getStockDate().equals(newInfo.getStockDate())) {
-                // Merge with existing entry (weighted average for both cost and VAT rate)
-                int existingQuantity = existingInfo.getQuantity();
-                int newQuantity = newInfo.getQuantity();
-                int totalQuantity = existingQuantity + newQuantity;
-                
-                // Weighted average cost calculation
-                double totalCost = (existingQuantity * existingInfo.getUnitCost()) + 
-                                  (newQuantity * newInfo.getUnitCost());
-                double weightedAverageCost = totalCost / totalQuantity;
-                
-                // Weighted average VAT rate calculation
-                double totalVatWeighted = (existingQuantity * existingInfo.getCostVatRate()) + 
-                                         (newQuantity * newInfo.getCostVatRate());
-                double weightedAverageVatRate = totalVatWeighted / totalQuantity;
-                
-                existingInfo.setQuantity(totalQuantity);
-                existingInfo.setUnitCost(weightedAverageCost);
-                existingInfo.setCostVatRate((int) Math.round(weightedAverageVatRate));
-                return;
-            }
+    // Merges into the lot of the same date (weighted average for both cost and VAT rate) or inserts a new lot
+    private void addOrMergeStockLot(UUID productId, LocalDate stockDate, Integer quantity, Double unitCost, Integer costVatRate) {
+        ProductStockLot lot = lotRepository.findByProductIdAndStockDate(productId, stockDate).orElse(null);
+        if (lot == null) {
+            saveLot(ProductStockLot.builder()
+                    .productId(productId)
+                    .stockDate(stockDate)
+                    .quantity(quantity)
+                    .unitCost(unitCost)
+                    .costVatRate(costVatRate)
+                    .build());
+            return;
+        }
+        
+        int existingQuantity = lot.getQuantity();
+        int totalQuantity = existingQuantity + quantity;
+        
+        // Weighted average cost calculation
+        double totalCost = (existingQuantity * lot.getUnitCost()) + (quantity * unitCost);
+        double weightedAverageCost = totalCost / totalQuantity;
+        
+        // Weighted average VAT rate calculation
+        double totalVatWeighted = (existingQuantity * lot.getCostVatRate()) + (quantity * costVatRate);
+        double weightedAverageVatRate = totalVatWeighted / totalQuantity;
+        
+        lot.setQuantity(totalQuantity);
+        lot.setUnitCost(weightedAverageCost);
+        lot.setCostVatRate((int) Math.round(weightedAverageVatRate));
+        saveLot(lot);
+    }
+    
+    // Flushed right away so a concurrent change (stale version, or a lot inserted for the same date) surfaces here
+    private void saveLot(ProductStockLot lot) {
+        try {
+            lotRepository.saveAndFlush(lot);
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            throw stockLotConflict(lot.getStockDate());
         }
-        
-        // No existing entry for this date, add new one
-        costAndStockList.add(newInfo);
+    }
+    
+    private static StockLotConflictException stockLotConflict(LocalDate stockDate) {
+        return new StockLotConflictException("Stock info for " + stockDate
+                + " was changed by another request, reload and try again");
+    }
+    
+    // Refreshes the product's lot totals, drops the cached snapshot and returns the product with its current lots
+    private TrendyolProductDto afterStockLotChange(TrendyolProduct product) {
+        lotRepository.refreshTotals(List.of(product.getId()));
+        snapshotCache.invalidate(product.getStore().getId());
+        return productMapper.toDto(product, lotRepository.findInfoByProductId(product.getId()));
     }
     
     private TrendyolCredentials extractTrendyolCredentials(Store store) {
@@ -552,6 +447,19 @@ public class TrendyolProductService {
         return null;
     }
     
+    /**
+     * Running totals of one product sync
+     */
+    private static final class SyncCounters {
+        int fetched;
+        int saved;
+        int updated;
+        int skipped;
+        int failed;
+        int pages;
+        int batches;
+    }
+    
     private HttpHeaders createAuthHeaders(TrendyolCredentials credentials) {
         String auth = credentials.getApiKey() + ":" + credentials.getApiSecret();
         String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
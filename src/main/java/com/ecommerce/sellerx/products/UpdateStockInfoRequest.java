@@ -13,4 +13,5 @@ public class UpdateStockInfoRequest {
     private Integer quantity;
     private Double unitCost;
     private Integer costVatRate;
+    private Long version; // optional: the lot version the client edited, checked against the stored one
 }
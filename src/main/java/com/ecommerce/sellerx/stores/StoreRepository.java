@@ -20,7 +20,7 @@ public interface StoreRepository extends JpaRepository<Store, UUID> {
     @Query("SELECT s FROM Store s WHERE LOWER(s.marketplace) = LOWER(:marketplace)")
     List<Store> findByMarketplaceIgnoreCase(@Param("marketplace") String marketplace);
     
-    // Find store by seller ID (from JSONB credentials)
+    // Find store by seller ID (from JSONB credentials, idx_stores_credentials_seller_id); callers go through StoreRoutingCache
     @Query(value = "SELECT * FROM stores s WHERE s.credentials->>'sellerId' = :sellerId", nativeQuery = true)
     Optional<Store> findBySellerId(@Param("sellerId") String sellerId);
     
@@ -0,0 +1,149 @@
+package com.ecommerce.sellerx.stores;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * sellerId → Store routing for webhook traffic. Filled from all stores at startup, kept current by StoreService,
+ * and a miss costs one query on the stores (credentials->>'sellerId') expression index.
+ * Unknown sellerIds are remembered briefly so repeated deliveries for them do not hit the database either; at most
+ * MAX_UNKNOWN_SELLERS of them, so arbitrary sellerIds cannot grow the cache without bound.
+ * Cached stores are detached snapshots; only read them.
+ */
+@Component
+@Slf4j
+public class StoreRoutingCache {
+
+    private static final long NEGATIVE_TTL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_UNKNOWN_SELLERS = 10_000;
+
+    private final StoreRepository storeRepository;
+    private final ConcurrentHashMap<String, Store> routes = new ConcurrentHashMap<>();
+    // sellerId → System.nanoTime() of the lookup that found no store
+    private final ConcurrentHashMap<String, Long> unknownSellers = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public StoreRoutingCache(StoreRepository storeRepository, MeterRegistry meterRegistry) {
+        this.storeRepository = storeRepository;
+        this.hits = Counter.builder("store.routing.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("store.routing.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("store.routing.cache.size", routes, ConcurrentHashMap::size).register(meterRegistry);
+        Gauge.builder("store.routing.cache.unknown.size", unknownSellers, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        int loaded = 0;
+        for (Store store : storeRepository.findAll()) {
+            String sellerId = sellerIdOf(store);
+            if (sellerId != null) {
+                routes.put(sellerId, store);
+                loaded++;
+            }
+        }
+        log.info("Loaded {} seller routes into the store routing cache", loaded);
+    }
+
+    public Optional<Store> findBySellerId(String sellerId) {
+        Store cached = routes.get(sellerId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        Long unknownSince = unknownSellers.get(sellerId);
+        if (unknownSince != null) {
+            if (System.nanoTime() - unknownSince < NEGATIVE_TTL_NANOS) {
+                hits.increment();
+                return Optional.empty();
+            }
+            unknownSellers.remove(sellerId, unknownSince);
+        }
+        misses.increment();
+        Optional<Store> store = storeRepository.findBySellerId(sellerId);
+        if (store.isPresent()) {
+            routes.put(sellerId, store.get());
+        } else {
+            rememberUnknown(sellerId);
+        }
+        return store;
+    }
+
+    /**
+     * Re-routes a saved store: drops its old sellerId (it may have changed) and maps the current one.
+     * Inside a transaction the new route is only added after commit, so a rollback leaves no route behind.
+     */
+    public void put(Store store) {
+        evictNow(store.getId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putNow(store);
+                }
+            });
+        } else {
+            putNow(store);
+        }
+    }
+
+    /**
+     * Removes a store's routes; inside a transaction this happens after commit so a concurrent miss
+     * cannot re-load the store before its deletion is visible
+     */
+    public void evict(UUID storeId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(storeId);
+                }
+            });
+        }
+        evictNow(storeId);
+    }
+
+    private void putNow(Store store) {
+        evictNow(store.getId());
+        String sellerId = sellerIdOf(store);
+        if (sellerId != null) {
+            routes.put(sellerId, store);
+            unknownSellers.remove(sellerId);
+        }
+    }
+
+    private void evictNow(UUID storeId) {
+        routes.values().removeIf(store -> store.getId().equals(storeId));
+    }
+
+    // Expired entries are dropped once the limit is reached; if all are still fresh the sellerId is not remembered
+    private void rememberUnknown(String sellerId) {
+        if (unknownSellers.size() >= MAX_UNKNOWN_SELLERS) {
+            long now = System.nanoTime();
+            unknownSellers.values().removeIf(since -> now - since >= NEGATIVE_TTL_NANOS);
+            if (unknownSellers.size() >= MAX_UNKNOWN_SELLERS) {
+                return;
+            }
+        }
+        unknownSellers.put(sellerId, System.nanoTime());
+    }
+
+    private static String sellerIdOf(Store store) {
+        if (store.getCredentials() instanceof TrendyolCredentials credentials && credentials.getSellerId() != null) {
+            return credentials.getSellerId().toString();
+        }
+        return null;
+    }
+}
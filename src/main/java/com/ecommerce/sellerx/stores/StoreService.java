@@ -15,6 +15,7 @@ public class StoreService {
     private final StoreMapper storeMapper;
     private final com.ecommerce.sellerx.users.UserService userService;
     private final TrendyolWebhookManagementService webhookManagementService;
+    private final StoreRoutingCache routingCache;
 
     public List<StoreDto> getStoresByUser(com.ecommerce.sellerx.users.User user) {
         return storeRepository.findAllByUser(user)
@@ -55,6 +56,7 @@ public class StoreService {
                 storeRepository.save(store); // Save again with webhook ID
             }
         }
+        routingCache.put(store);
         
         return storeMapper.toDto(store);
     }
@@ -64,6 +66,7 @@ public class StoreService {
         storeMapper.update(request, store);
         store.setUpdatedAt(java.time.LocalDateTime.now());
         storeRepository.save(store);
+        routingCache.put(store);
         return storeMapper.toDto(store);
     }
 
@@ -75,6 +78,7 @@ public class StoreService {
         storeMapper.update(request, store);
         store.setUpdatedAt(java.time.LocalDateTime.now());
         storeRepository.save(store);
+        routingCache.put(store);
         return storeMapper.toDto(store);
     }
 
@@ -114,6 +118,7 @@ public class StoreService {
         }
         
         storeRepository.deleteByIdAndUser(storeId, user);
+        routingCache.evict(storeId);
     }
 
     public boolean isStoreOwnedByUser(UUID storeId, Long userId) {
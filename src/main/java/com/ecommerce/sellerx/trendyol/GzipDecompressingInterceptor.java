@@ -0,0 +1,116 @@
+package com.ecommerce.sellerx.trendyol;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The JDK HttpClient does not negotiate compression by itself: ask for gzip and inflate it transparently.
+ */
+class GzipDecompressingInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        return encoding != null && encoding.toLowerCase().contains("gzip") ? new GzipResponse(response) : response;
+    }
+
+    private static final class GzipResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        GzipResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(delegate.getHeaders());
+            copy.remove(HttpHeaders.CONTENT_ENCODING);
+            copy.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new LazyGzipStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+
+    /**
+     * Defers reading the gzip header until the first read, so an empty body (errors, 204) is not a failure.
+     */
+    private static final class LazyGzipStream extends InputStream {
+
+        private final InputStream raw;
+        private InputStream inflater;
+
+        LazyGzipStream(InputStream raw) {
+            this.raw = raw;
+        }
+
+        private InputStream inflater() throws IOException {
+            if (inflater == null) {
+                PushbackInputStream pushback = new PushbackInputStream(raw, 1);
+                int first = pushback.read();
+                if (first == -1) {
+                    inflater = InputStream.nullInputStream();
+                } else {
+                    pushback.unread(first);
+                    inflater = new GZIPInputStream(pushback);
+                }
+            }
+            return inflater;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return inflater().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return inflater().read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            raw.close();
+        }
+    }
+}
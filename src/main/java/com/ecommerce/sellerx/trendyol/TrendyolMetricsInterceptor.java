@@ -0,0 +1,130 @@
+package com.ecommerce.sellerx.trendyol;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a latency histogram per Trendyol route (orders, products, webhooks, addresses).
+ * Routes are coarse on purpose: seller ids and query strings never become tag values.
+ * The timer stops when the response is closed, so body download time is included.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrendyolMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String METRIC_NAME = "trendyol.api.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String route = resolveRoute(request.getURI().getPath());
+        String method = request.getMethod().name();
+        long started = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            record(route, method, "IO_ERROR", started);
+            throw e;
+        }
+        return new TimedResponse(response, route, method, started);
+    }
+
+    static String resolveRoute(String path) {
+        if (path == null) {
+            return "other";
+        }
+        if (path.contains("/orders")) {
+            return "orders";
+        }
+        if (path.contains("/products")) {
+            return "products";
+        }
+        if (path.contains("/webhooks")) {
+            return "webhooks";
+        }
+        if (path.contains("/addresses")) {
+            return "addresses";
+        }
+        return "other";
+    }
+
+    private void record(String route, String method, String status, long startedNanos) {
+        Timer.builder(METRIC_NAME)
+                .description("Latency of Trendyol API calls")
+                .tag("route", route)
+                .tag("method", method)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private final class TimedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final String route;
+        private final String method;
+        private final long startedNanos;
+        private boolean recorded;
+
+        TimedResponse(ClientHttpResponse delegate, String route, String method, long startedNanos) {
+            this.delegate = delegate;
+            this.route = route;
+            this.method = method;
+            this.startedNanos = startedNanos;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (!recorded) {
+                    recorded = true;
+                    String status;
+                    try {
+                        status = String.valueOf(delegate.getStatusCode().value());
+                    } catch (IOException e) {
+                        status = "UNKNOWN";
+                    }
+                    record(route, method, status, startedNanos);
+                }
+            }
+        }
+    }
+}
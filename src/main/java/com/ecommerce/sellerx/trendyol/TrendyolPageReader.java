@@ -0,0 +1,81 @@
+package com.ecommerce.sellerx.trendyol;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads a paged Trendyol response ({@code totalElements, totalPages, page, size, content[]}) with
+ * Jackson's streaming parser. Each element of {@code content} is bound on its own and handed to the
+ * consumer immediately, so a whole page is never held in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrendyolPageReader {
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    public <T> PageInfo readPage(String url, HttpHeaders headers, Class<T> elementType, Consumer<? super T> consumer) {
+        PageInfo pageInfo = restTemplate.execute(url, HttpMethod.GET,
+                request -> request.getHeaders().putAll(headers),
+                response -> parse(response.getBody(), elementType, consumer));
+        return pageInfo != null ? pageInfo : PageInfo.EMPTY;
+    }
+
+    <T> PageInfo parse(InputStream body, Class<T> elementType, Consumer<? super T> consumer) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return PageInfo.EMPTY;
+            }
+
+            long totalElements = 0;
+            int totalPages = 0;
+            int page = 0;
+            int size = 0;
+            int elementCount = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "totalElements" -> totalElements = value.isNumeric() ? parser.getLongValue() : 0;
+                    case "totalPages" -> totalPages = value.isNumeric() ? parser.getIntValue() : 0;
+                    case "page" -> page = value.isNumeric() ? parser.getIntValue() : 0;
+                    case "size" -> size = value.isNumeric() ? parser.getIntValue() : 0;
+                    case "content" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                T element = objectMapper.readValue(parser, elementType);
+                                if (element != null) {
+                                    consumer.accept(element);
+                                    elementCount++;
+                                }
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return new PageInfo(totalElements, totalPages, page, size, elementCount);
+        }
+    }
+
+    /**
+     * Paging envelope of a Trendyol response; elementCount is the number of content items read
+     */
+    public record PageInfo(long totalElements, int totalPages, int page, int size, int elementCount) {
+        static final PageInfo EMPTY = new PageInfo(0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.sellerx.trendyol;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.trendyol.rate-limit")
+public class TrendyolRateLimitConfig {
+    /** Sustained requests per second allowed for one seller. */
+    private double permitsPerSecond = 5.0;
+    /** Requests a seller may fire back-to-back after being idle. */
+    private int burst = 10;
+    /** Floor the adaptive rate never drops below after repeated 429s. */
+    private double minPermitsPerSecond = 0.5;
+    /** Fraction of permitsPerSecond regained after every successful call. */
+    private double recoveryFactor = 0.05;
+    /** Backoff used when a 429 carries no Retry-After header; doubled on consecutive 429s. */
+    private long initialBackoffMs = 1000;
+    private long maxBackoffMs = 60000;
+    /** Times a throttled request is retried before the 429 is handed back to the caller. */
+    private int maxRetries = 3;
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.sellerx.trendyol;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket per Trendyol seller, shared by every caller of the Trendyol API.
+ * The refill rate backs off multiplicatively on 429 responses and creeps back up on success,
+ * so syncs run as fast as the seller's quota allows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendyolRateLimiter {
+
+    private final TrendyolRateLimitConfig config;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Block until the seller has a token available
+     */
+    public void acquire(String sellerId) throws InterruptedException {
+        Bucket bucket = bucket(sellerId);
+        long waitNanos;
+        while ((waitNanos = bucket.reserve(System.nanoTime())) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public void onSuccess(String sellerId) {
+        bucket(sellerId).onSuccess();
+    }
+
+    /**
+     * Register a 429 for the seller; returns the pause applied before its next request
+     */
+    public Duration onThrottled(String sellerId, Duration retryAfter) {
+        Bucket bucket = bucket(sellerId);
+        long backoffNanos = bucket.onThrottled(System.nanoTime(), retryAfter != null ? retryAfter.toNanos() : -1);
+        log.warn("Trendyol throttled seller {}: pausing {} ms, rate lowered to {}/s",
+                sellerId, TimeUnit.NANOSECONDS.toMillis(backoffNanos), String.format("%.2f", bucket.currentRate()));
+        return Duration.ofNanos(backoffNanos);
+    }
+
+    private Bucket bucket(String sellerId) {
+        return buckets.computeIfAbsent(sellerId, key -> new Bucket(config));
+    }
+
+    /**
+     * Token state of a single seller. Time is passed in so the arithmetic can be tested without sleeping.
+     */
+    static final class Bucket {
+
+        private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+        private final double maxRate;
+        private final double minRate;
+        private final double recoveryStep;
+        private final double capacity;
+        private final long initialBackoffNanos;
+        private final long maxBackoffNanos;
+
+        private double rate;
+        private double tokens;
+        private long lastRefillNanos;
+        private long blockedUntilNanos;
+        private boolean blocked;
+        private int consecutiveThrottles;
+
+        Bucket(TrendyolRateLimitConfig config) {
+            this.maxRate = config.getPermitsPerSecond();
+            this.minRate = Math.min(config.getMinPermitsPerSecond(), maxRate);
+            this.recoveryStep = maxRate * config.getRecoveryFactor();
+            this.capacity = Math.max(1, config.getBurst());
+            this.initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(config.getInitialBackoffMs());
+            this.maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxBackoffMs());
+            this.rate = maxRate;
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        /**
+         * Take a token if one is available; otherwise return how long to wait before asking again
+         */
+        synchronized long reserve(long nowNanos) {
+            if (blocked && nowNanos - blockedUntilNanos < 0) {
+                return blockedUntilNanos - nowNanos;
+            }
+            blocked = false;
+            refill(nowNanos);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) ((1 - tokens) / rate * NANOS_PER_SECOND));
+        }
+
+        synchronized void onSuccess() {
+            consecutiveThrottles = 0;
+            rate = Math.min(maxRate, rate + recoveryStep);
+        }
+
+        synchronized long onThrottled(long nowNanos, long retryAfterNanos) {
+            consecutiveThrottles++;
+            rate = Math.max(minRate, rate / 2);
+            refill(nowNanos);
+            tokens = 0;
+            long backoff = retryAfterNanos >= 0
+                    ? retryAfterNanos
+                    : Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(consecutiveThrottles - 1, 16));
+            long until = nowNanos + backoff;
+            if (!blocked || until - blockedUntilNanos > 0) {
+                blockedUntilNanos = until;
+            }
+            blocked = true;
+            return backoff;
+        }
+
+        synchronized double currentRate() {
+            return rate;
+        }
+
+        private void refill(long nowNanos) {
+            long elapsed = nowNanos - lastRefillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed / NANOS_PER_SECOND * rate);
+                lastRefillNanos = nowNanos;
+            }
+        }
+    }
+}
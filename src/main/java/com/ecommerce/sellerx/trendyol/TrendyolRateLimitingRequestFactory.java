@@ -0,0 +1,149 @@
+package com.ecommerce.sellerx.trendyol;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Outermost layer of the Trendyol RestTemplate: paces every call through {@link TrendyolRateLimiter} and retries
+ * requests answered with 429 after the server-provided (or adaptive) backoff. Every attempt is a new request from
+ * the delegate factory, so the layers below it (metrics, gzip) run again for a retry. A retry cannot be done by
+ * an interceptor: Spring's interceptor chain is consumed once per request.
+ */
+@Slf4j
+class TrendyolRateLimitingRequestFactory implements ClientHttpRequestFactory {
+
+    private static final Pattern SELLER_ID_PATTERN = Pattern.compile("/sellers/(\\d+)");
+    private static final String SHARED_KEY = "trendyol";
+
+    private final ClientHttpRequestFactory delegate;
+    private final TrendyolRateLimiter rateLimiter;
+    private final TrendyolRateLimitConfig config;
+
+    TrendyolRateLimitingRequestFactory(ClientHttpRequestFactory delegate, TrendyolRateLimiter rateLimiter,
+                                       TrendyolRateLimitConfig config) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+        this.config = config;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        String sellerKey = resolveSellerKey(uri);
+        return sellerKey != null ? new PacedRequest(uri, httpMethod, sellerKey) : delegate.createRequest(uri, httpMethod);
+    }
+
+    /**
+     * Rate-limit key for Trendyol hosts: the seller id from the path, or a shared key; null for other hosts
+     */
+    static String resolveSellerKey(URI uri) {
+        if (uri.getHost() == null || !uri.getHost().endsWith("trendyol.com")) {
+            return null;
+        }
+        Matcher matcher = SELLER_ID_PATTERN.matcher(uri.getPath());
+        return matcher.find() ? matcher.group(1) : SHARED_KEY;
+    }
+
+    /**
+     * Retry-After is either delta-seconds or an HTTP date
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException ignored) {
+            // fall through to HTTP date
+        }
+        try {
+            Duration delay = Duration.between(ZonedDateTime.now(),
+                    ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Buffers the body so it can be replayed, then sends one delegate request per attempt
+     */
+    private final class PacedRequest extends AbstractClientHttpRequest {
+
+        private final URI uri;
+        private final HttpMethod method;
+        private final String sellerKey;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        PacedRequest(URI uri, HttpMethod method, String sellerKey) {
+            this.uri = uri;
+            this.method = method;
+            this.sellerKey = sellerKey;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            byte[] bytes = body.toByteArray();
+            int attempt = 0;
+            while (true) {
+                try {
+                    rateLimiter.acquire(sellerKey);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for Trendyol rate limit");
+                }
+
+                ClientHttpRequest request = delegate.createRequest(uri, method);
+                request.getHeaders().putAll(headers);
+                request.getAttributes().putAll(getAttributes());
+                if (bytes.length > 0) {
+                    request.getBody().write(bytes);
+                }
+                ClientHttpResponse response = request.execute();
+                if (response.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    rateLimiter.onSuccess(sellerKey);
+                    return response;
+                }
+
+                rateLimiter.onThrottled(sellerKey, parseRetryAfter(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)));
+                if (attempt >= config.getMaxRetries()) {
+                    log.warn("Giving up on {} {} after {} throttled retries", method, uri.getPath(), attempt);
+                    return response;
+                }
+                response.close();
+                attempt++;
+            }
+        }
+    }
+}
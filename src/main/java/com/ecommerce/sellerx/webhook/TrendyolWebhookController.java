@@ -12,34 +12,32 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class TrendyolWebhookController {
     
-    private final TrendyolWebhookService webhookService;
+    private final WebhookInbox inbox;
     
     /**
      * Receive webhook notifications from Trendyol
      * URL format: /api/webhook/trendyol/{sellerId}
+     * The raw body is appended to the webhook inbox and acknowledged at once; WebhookInboxWorker applies it.
      */
     @PostMapping("/trendyol/{sellerId}")
     public ResponseEntity<String> receiveTrendyolWebhook(
             @PathVariable String sellerId,
-            @RequestBody TrendyolWebhookPayload payload,
+            @RequestBody String payload,
             @RequestHeader(value = "X-API-Key", required = false) String apiKey) {
         
         try {
-            log.info("Received webhook for seller: {} with order: {} and status: {}", 
-                    sellerId, payload.getOrderNumber(), payload.getStatus());
+            log.debug("Received webhook for seller: {}", sellerId);
             
-            // Process the webhook
-            webhookService.processWebhookOrder(payload, sellerId);
+            inbox.append(sellerId, payload);
             
             // Return 200 OK to acknowledge receipt
-            return ResponseEntity.ok("Webhook processed successfully");
+            return ResponseEntity.ok("Webhook received");
             
         } catch (Exception e) {
-            log.error("Error processing webhook for seller {}: {}", sellerId, e.getMessage(), e);
+            log.error("Failed to store webhook for seller {}: {}", sellerId, e.getMessage(), e);
             
-            // Return 200 OK even on error to prevent Trendyol retries for processing errors
-            // Only return 4xx/5xx if it's a validation or system issue
-            return ResponseEntity.ok("Webhook received");
+            // Nothing was stored, so let Trendyol deliver it again
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Webhook not stored");
         }
     }
     
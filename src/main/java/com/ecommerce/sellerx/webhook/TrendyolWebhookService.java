@@ -1,17 +1,21 @@
 package com.ecommerce.sellerx.webhook;
 
 import com.ecommerce.sellerx.config.FinancialConstants;
+import com.ecommerce.sellerx.dashboard.StoreDailyMetricsService;
 import com.ecommerce.sellerx.orders.OrderCostCalculator;
 import com.ecommerce.sellerx.orders.OrderItem;
 import com.ecommerce.sellerx.orders.TrendyolOrder;
-import com.ecommerce.sellerx.orders.TrendyolOrderRepository;
+import com.ecommerce.sellerx.orders.TrendyolOrderBulkWriter;
+import com.ecommerce.sellerx.products.ProductSnapshot;
+import com.ecommerce.sellerx.products.ProductSnapshotCache;
 import com.ecommerce.sellerx.stores.Store;
-import com.ecommerce.sellerx.stores.StoreRepository;
+import com.ecommerce.sellerx.stores.StoreRoutingCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
@@ -22,77 +26,66 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TrendyolWebhookService {
     
-    private final TrendyolOrderRepository orderRepository;
-    private final StoreRepository storeRepository;
+    private final StoreRoutingCache storeRoutingCache;
     private final OrderCostCalculator costCalculator;
+    private final StoreDailyMetricsService dailyMetricsService;
+    private final ProductSnapshotCache snapshotCache;
+    private final TrendyolOrderBulkWriter bulkWriter;
     
     /**
-     * Process incoming webhook order data
+     * Counts of one applied batch: new packages, updated packages, events that could not be applied
      */
-    public void processWebhookOrder(TrendyolWebhookPayload payload, String sellerId) {
-        try {
-            log.info("Processing webhook order: {} for seller: {}", payload.getOrderNumber(), sellerId);
-            
-            // Find the store by seller ID
-            Optional<Store> storeOpt = storeRepository.findBySellerId(sellerId);
-            if (storeOpt.isEmpty()) {
-                log.warn("Store not found for sellerId: {}", sellerId);
-                return;
-            }
-            
-            Store store = storeOpt.get();
-            
-            // Check if order already exists
-            Optional<TrendyolOrder> existingOrder = orderRepository.findByStoreIdAndPackageNo(store.getId(), payload.getId());
-            
-            if (existingOrder.isPresent()) {
-                // Update existing order
-                TrendyolOrder order = existingOrder.get();
-                updateOrderFromWebhook(order, payload, store);
-                orderRepository.save(order);
-                log.info("Updated existing order: {} with new status: {}", payload.getOrderNumber(), payload.getStatus());
-            } else {
-                // Create new order
-                TrendyolOrder newOrder = createOrderFromWebhook(payload, store);
-                orderRepository.save(newOrder);
-                log.info("Created new order: {} with status: {}", payload.getOrderNumber(), payload.getStatus());
-            }
-            
-        } catch (Exception e) {
-            log.error("Error processing webhook order {}: {}", payload.getOrderNumber(), e.getMessage(), e);
-            // Don't rethrow - we don't want to return error to Trendyol for processing issues
-        }
+    public record WebhookBatchResult(int inserted, int updated, int skipped) {
     }
     
     /**
-     * Update existing order with webhook data
+     * Apply a batch of webhook events for one seller: one store lookup, the store's shared product snapshot for
+     * the line costs and one bulk upsert. Events for unknown sellers are dropped. The upsert keeps the newest version of a package
+     * by lastModifiedDate, so replays and out-of-order deliveries never roll a status back.
      */
-    private void updateOrderFromWebhook(TrendyolOrder existingOrder, TrendyolWebhookPayload payload, Store store) {
-        // Update status and shipment package status
-        existingOrder.setStatus(payload.getStatus());
-        existingOrder.setShipmentPackageStatus(payload.getShipmentPackageStatus());
+    public WebhookBatchResult applyBatch(String sellerId, List<TrendyolWebhookPayload> payloads) {
+        Optional<Store> storeOpt = storeRoutingCache.findBySellerId(sellerId);
+        if (storeOpt.isEmpty()) {
+            log.warn("Store not found for sellerId: {}, dropping {} webhook events", sellerId, payloads.size());
+            return new WebhookBatchResult(0, 0, payloads.size());
+        }
+        Store store = storeOpt.get();
         
-        // Update last modified date if provided
-        if (payload.getLastModifiedDate() != null) {
-            LocalDateTime lastModified = Instant.ofEpochMilli(payload.getLastModifiedDate())
-                    .atZone(ZoneId.of("Europe/Istanbul"))
-                    .toLocalDateTime();
-            existingOrder.setUpdatedAt(lastModified);
+        Map<String, ProductSnapshot> productCache = snapshotCache.get(store.getId());
+        
+        List<TrendyolOrder> orders = new ArrayList<>(payloads.size());
+        int skipped = 0;
+        for (TrendyolWebhookPayload payload : payloads) {
+            if (payload.getId() == null || payload.getOrderDate() == null) {
+                log.warn("Skipping webhook event without package id or order date: {}", payload.getOrderNumber());
+                skipped++;
+                continue;
+            }
+            // Lines and their costs are only written for packages that are new; existing ones get status and amounts
+            orders.add(createOrderFromWebhook(payload, store, productCache));
         }
         
-        // Update cargo deci if provided
-        if (payload.getCargoDeci() != null) {
-            existingOrder.setCargoDeci(payload.getCargoDeci().intValue());
+        TrendyolOrderBulkWriter.BulkWriteResult result = bulkWriter.upsert(orders);
+        
+        Set<LocalDate> days = orders.stream()
+                .map(order -> order.getOrderDate().toLocalDate())
+                .collect(Collectors.toSet());
+        try {
+            dailyMetricsService.refreshDays(store.getId(), days);
+        } catch (Exception e) {
+            log.warn("Failed to refresh daily metrics for store {}: {}", store.getId(), e.getMessage());
         }
         
-        log.debug("Updated order {} from {} to {}", payload.getOrderNumber(), 
-                 existingOrder.getStatus(), payload.getStatus());
+        log.info("Applied {} webhook events for store {}: {} new, {} updated, {} unchanged, {} skipped",
+                payloads.size(), store.getId(), result.inserted(), result.updated(), result.unchanged(), skipped);
+        return new WebhookBatchResult(result.inserted(), result.updated(), skipped);
     }
     
     /**
      * Create new order from webhook data
      */
-    private TrendyolOrder createOrderFromWebhook(TrendyolWebhookPayload payload, Store store) {
+    private TrendyolOrder createOrderFromWebhook(TrendyolWebhookPayload payload, Store store,
+                                                 Map<String, ProductSnapshot> productCache) {
         // Convert order date
         LocalDateTime orderDate = Instant.ofEpochMilli(payload.getOrderDate())
                 .atZone(ZoneId.of("Europe/Istanbul"))
@@ -100,7 +93,7 @@ public class TrendyolWebhookService {
         
         // Convert order lines to order items
         List<OrderItem> orderItems = payload.getLines().stream()
-                .map(line -> convertWebhookLineToOrderItem(line, store.getId(), orderDate))
+                .map(line -> convertWebhookLineToOrderItem(line, store.getId(), orderDate, productCache))
                 .collect(Collectors.toList());
         
         // Use total price from webhook payload (Trendyol provides this)
@@ -124,13 +117,17 @@ public class TrendyolWebhookService {
                 .shipmentPackageStatus(payload.getShipmentPackageStatus())
                 .status(payload.getStatus())
                 .cargoDeci(payload.getCargoDeci() != null ? payload.getCargoDeci().intValue() : 0)
+                .lastModifiedAt(payload.getLastModifiedDate() != null
+                        ? Instant.ofEpochMilli(payload.getLastModifiedDate()).atZone(ZoneId.of("Europe/Istanbul")).toLocalDateTime()
+                        : null)
                 .build();
     }
     
     /**
      * Convert webhook order line to OrderItem
      */
-    private OrderItem convertWebhookLineToOrderItem(TrendyolWebhookPayload.OrderLine line, UUID storeId, LocalDateTime orderDate) {
+    private OrderItem convertWebhookLineToOrderItem(TrendyolWebhookPayload.OrderLine line, UUID storeId,
+                                                    LocalDateTime orderDate, Map<String, ProductSnapshot> productCache) {
         OrderItem.OrderItemBuilder itemBuilder = OrderItem.builder()
                 .barcode(line.getBarcode())
                 .productName(line.getProductName())
@@ -142,7 +139,7 @@ public class TrendyolWebhookService {
                 .price(line.getPrice());
         
         // Use the cost calculator to set cost information
-        costCalculator.setCostInfo(itemBuilder, line.getBarcode(), storeId, orderDate);
+        costCalculator.setCostInfo(itemBuilder, line.getBarcode(), storeId, orderDate, productCache);
         
         return itemBuilder.build();
     }
@@ -0,0 +1,100 @@
+package com.ecommerce.sellerx.webhook;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable webhook inbox (webhook_inbox). The endpoint appends the raw delivery; workers claim batches with
+ * {@code FOR UPDATE SKIP LOCKED}, delete what they applied and send failures back for a retry.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookInbox {
+
+    private static final String CLAIM_SQL =
+            "UPDATE webhook_inbox SET status = 'PROCESSING', claimed_at = ?, attempts = attempts + 1 " +
+            "WHERE id IN (SELECT id FROM webhook_inbox " +
+            "WHERE status = 'PENDING' OR (status = 'PROCESSING' AND claimed_at < ?) " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, seller_id, payload, attempts";
+
+    private static final String FAIL_SQL =
+            "UPDATE webhook_inbox SET status = CASE WHEN id = ANY(?) THEN 'FAILED' ELSE 'PENDING' END, " +
+            "claimed_at = NULL, last_error = ? WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WebhookInboxConfig config;
+
+    public void append(String sellerId, String payload) {
+        // A redelivery of a body that is still waiting is dropped here; later replays are no-ops at apply time
+        jdbcTemplate.update("INSERT INTO webhook_inbox (seller_id, payload, received_at) VALUES (?, ?, ?) " +
+                "ON CONFLICT (dedupe_key) WHERE status <> 'FAILED' DO NOTHING",
+                sellerId, payload, Timestamp.valueOf(now()));
+    }
+
+    /**
+     * Claims up to batch-size rows in arrival order
+     */
+    public List<WebhookInboxEntry> claimBatch() {
+        LocalDateTime now = now();
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new WebhookInboxEntry(
+                        rs.getLong("id"), rs.getString("seller_id"), rs.getString("payload"), rs.getInt("attempts")),
+                Timestamp.valueOf(now), Timestamp.valueOf(now.minusMinutes(config.getStaleClaimMinutes())),
+                config.getBatchSize());
+    }
+
+    /**
+     * Removes applied rows
+     */
+    public void complete(Collection<WebhookInboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("DELETE FROM webhook_inbox WHERE id = ANY(?)");
+            Array ids = connection.createArrayOf("bigint", entries.stream().map(WebhookInboxEntry::id).toArray());
+            ps.setArray(1, ids);
+            return ps;
+        });
+    }
+
+    /**
+     * Returns rows to the queue, or parks them as FAILED once they used up their attempts, in one statement
+     */
+    public void fail(Collection<WebhookInboxEntry> entries, String error) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Long> parked = new ArrayList<>();
+        for (WebhookInboxEntry entry : entries) {
+            if (entry.attempts() >= config.getMaxAttempts()) {
+                parked.add(entry.id());
+                log.error("Webhook inbox row {} for seller {} failed after {} attempts: {}",
+                        entry.id(), entry.sellerId(), entry.attempts(), error);
+            }
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FAIL_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", parked.toArray()));
+            ps.setString(2, error);
+            ps.setArray(3, connection.createArrayOf("bigint", entries.stream().map(WebhookInboxEntry::id).toArray()));
+            return ps;
+        });
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("Europe/Istanbul"));
+    }
+}
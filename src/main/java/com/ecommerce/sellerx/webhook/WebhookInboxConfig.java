@@ -0,0 +1,20 @@
+package com.ecommerce.sellerx.webhook;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.webhook.inbox")
+public class WebhookInboxConfig {
+    /** Inbox rows claimed per batch; a batch is applied with one product load and one upsert per store. */
+    private int batchSize = 200;
+    /** Batches applied at the same time; each holds a database connection while it runs. */
+    private int workers = 4;
+    private long pollIntervalMs = 500;
+    /** Rows that keep failing are parked as FAILED after this many attempts. */
+    private int maxAttempts = 5;
+    /** A PROCESSING row older than this was claimed by a crashed worker and is claimed again. */
+    private int staleClaimMinutes = 5;
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.sellerx.webhook;
+
+/**
+ * One claimed webhook_inbox row: the raw body and the seller it was posted for
+ */
+public record WebhookInboxEntry(long id, String sellerId, String payload, int attempts) {
+}
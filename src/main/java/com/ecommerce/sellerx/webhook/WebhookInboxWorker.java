@@ -0,0 +1,137 @@
+package com.ecommerce.sellerx.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains webhook_inbox. Every poll claims batches while worker slots are free; a batch is grouped per seller
+ * and each group is applied with a single TrendyolWebhookService.applyBatch call.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookInboxWorker {
+
+    private final WebhookInbox inbox;
+    private final TrendyolWebhookService webhookService;
+    private final WebhookInboxConfig config;
+    private final ObjectMapper objectMapper;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger running = new AtomicInteger();
+
+    @Scheduled(fixedDelayString = "${app.webhook.inbox.poll-interval-ms:500}")
+    public void poll() {
+        while (running.get() < Math.max(1, config.getWorkers())) {
+            List<WebhookInboxEntry> batch;
+            try {
+                batch = inbox.claimBatch();
+            } catch (Exception e) {
+                log.warn("Failed to claim webhook inbox batch: {}", e.getMessage());
+                return;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            running.incrementAndGet();
+            executor.submit(() -> {
+                try {
+                    process(batch);
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void process(List<WebhookInboxEntry> batch) {
+        Map<String, List<WebhookInboxEntry>> bySeller = new LinkedHashMap<>();
+        for (WebhookInboxEntry entry : batch) {
+            bySeller.computeIfAbsent(entry.sellerId(), k -> new ArrayList<>()).add(entry);
+        }
+
+        for (Map.Entry<String, List<WebhookInboxEntry>> group : bySeller.entrySet()) {
+            List<WebhookInboxEntry> parsedEntries = new ArrayList<>(group.getValue().size());
+            List<TrendyolWebhookPayload> payloads = new ArrayList<>(group.getValue().size());
+            List<WebhookInboxEntry> unreadable = new ArrayList<>();
+            for (WebhookInboxEntry entry : group.getValue()) {
+                try {
+                    payloads.add(objectMapper.readValue(entry.payload(), TrendyolWebhookPayload.class));
+                    parsedEntries.add(entry);
+                } catch (Exception e) {
+                    // A body that does not parse will not parse on retry either
+                    log.warn("Unreadable webhook payload in inbox row {}: {}", entry.id(), e.getMessage());
+                    unreadable.add(new WebhookInboxEntry(entry.id(), entry.sellerId(), entry.payload(),
+                            config.getMaxAttempts()));
+                }
+            }
+            if (!unreadable.isEmpty()) {
+                inbox.fail(unreadable, "Unreadable payload");
+            }
+            if (payloads.isEmpty()) {
+                continue;
+            }
+            try {
+                webhookService.applyBatch(group.getKey(), payloads);
+                inbox.complete(parsedEntries);
+            } catch (Exception e) {
+                log.error("Failed to apply {} webhook events for seller {}: {}", payloads.size(), group.getKey(),
+                        e.getMessage(), e);
+                if (payloads.size() == 1) {
+                    failQuietly(group.getKey(), parsedEntries, e.getMessage());
+                } else {
+                    applyOneByOne(group.getKey(), parsedEntries, payloads);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fallback after a failed group: applies each event on its own so one bad event
+     * only sends its own row back to the inbox.
+     */
+    private void applyOneByOne(String sellerId, List<WebhookInboxEntry> entries, List<TrendyolWebhookPayload> payloads) {
+        List<WebhookInboxEntry> applied = new ArrayList<>(entries.size());
+        Map<String, List<WebhookInboxEntry>> failedByError = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            WebhookInboxEntry entry = entries.get(i);
+            try {
+                webhookService.applyBatch(sellerId, List.of(payloads.get(i)));
+                applied.add(entry);
+            } catch (Exception e) {
+                log.error("Failed to apply webhook inbox row {} for seller {}: {}", entry.id(), sellerId, e.getMessage());
+                failedByError.computeIfAbsent(String.valueOf(e.getMessage()), k -> new ArrayList<>()).add(entry);
+            }
+        }
+        if (!applied.isEmpty()) {
+            inbox.complete(applied);
+        }
+        failedByError.forEach((error, failed) -> failQuietly(sellerId, failed, error));
+    }
+
+    private void failQuietly(String sellerId, List<WebhookInboxEntry> entries, String error) {
+        try {
+            inbox.fail(entries, error);
+        } catch (Exception failError) {
+            // Rows stay PROCESSING and are claimed again once the claim is stale
+            log.error("Failed to return webhook inbox rows for seller {}: {}", sellerId, failError.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,19 @@
+-- Per-store order sync watermark and resumable checkpoint
+CREATE TABLE order_sync_state (
+    store_id UUID PRIMARY KEY,
+    last_synced_until TIMESTAMP,
+    sync_mode VARCHAR(20),
+    status VARCHAR(20) NOT NULL DEFAULT 'IDLE',
+    checkpoint_chunk_start TIMESTAMP,
+    checkpoint_chunk_end TIMESTAMP,
+    checkpoint_page INTEGER,
+    last_started_at TIMESTAMP,
+    last_completed_at TIMESTAMP,
+    last_error TEXT,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (store_id) REFERENCES stores(id) ON DELETE CASCADE
+);
+
+COMMENT ON COLUMN order_sync_state.last_synced_until IS 'Watermark: end of the last successfully completed sync window (Europe/Istanbul local time)';
+COMMENT ON COLUMN order_sync_state.checkpoint_chunk_start IS 'Start of the chunk an unfinished sync was processing; NULL when there is nothing to resume';
+COMMENT ON COLUMN order_sync_state.checkpoint_page IS 'Next page to fetch within the checkpoint chunk';
@@ -0,0 +1,97 @@
+-- Move order items from the trendyol_orders.order_items JSONB array into an indexed child table.
+-- store_id and order_date are copied from the parent order so per-barcode FIFO and dashboard
+-- queries can use an index instead of unnesting JSONB.
+CREATE TABLE trendyol_order_items (
+    order_id UUID NOT NULL,
+    line_no INTEGER NOT NULL,
+    store_id UUID NOT NULL,
+    order_date TIMESTAMP NOT NULL,
+    barcode VARCHAR(255),
+    product_name TEXT,
+    quantity INTEGER,
+    unit_price_order NUMERIC,
+    unit_price_discount NUMERIC,
+    unit_price_ty_discount NUMERIC,
+    vat_base_amount NUMERIC,
+    price NUMERIC,
+    cost NUMERIC,
+    cost_vat INTEGER,
+    stock_date DATE,
+    commission_rate NUMERIC,
+    shipping_volume_weight NUMERIC,
+    unit_estimated_commission NUMERIC,
+
+    PRIMARY KEY (order_id, line_no),
+    FOREIGN KEY (order_id) REFERENCES trendyol_orders(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_trendyol_order_items_store_barcode_date ON trendyol_order_items(store_id, barcode, order_date);
+CREATE INDEX idx_trendyol_order_items_store_date ON trendyol_order_items(store_id, order_date);
+
+-- Hibernate only writes the item columns; fill the copied parent columns on insert
+CREATE OR REPLACE FUNCTION trendyol_order_items_fill_parent() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.store_id IS NULL OR NEW.order_date IS NULL THEN
+        SELECT o.store_id, o.order_date INTO NEW.store_id, NEW.order_date
+        FROM trendyol_orders o WHERE o.id = NEW.order_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_trendyol_order_items_fill_parent
+    BEFORE INSERT ON trendyol_order_items
+    FOR EACH ROW EXECUTE FUNCTION trendyol_order_items_fill_parent();
+
+-- Keep the copies in step if an order is ever moved or re-dated
+CREATE OR REPLACE FUNCTION trendyol_orders_sync_item_parent() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE trendyol_order_items
+    SET store_id = NEW.store_id, order_date = NEW.order_date
+    WHERE order_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_trendyol_orders_sync_item_parent
+    AFTER UPDATE OF store_id, order_date ON trendyol_orders
+    FOR EACH ROW
+    WHEN (OLD.store_id IS DISTINCT FROM NEW.store_id OR OLD.order_date IS DISTINCT FROM NEW.order_date)
+    EXECUTE FUNCTION trendyol_orders_sync_item_parent();
+
+-- Backfill. stockDate was written by Jackson either as [yyyy, m, d] or as 'yyyy-mm-dd'.
+INSERT INTO trendyol_order_items (
+    order_id, line_no, store_id, order_date, barcode, product_name, quantity,
+    unit_price_order, unit_price_discount, unit_price_ty_discount, vat_base_amount, price,
+    cost, cost_vat, stock_date, commission_rate, shipping_volume_weight, unit_estimated_commission
+)
+SELECT
+    o.id,
+    item.ordinality - 1,
+    o.store_id,
+    o.order_date,
+    item.value->>'barcode',
+    item.value->>'productName',
+    (item.value->>'quantity')::INTEGER,
+    (item.value->>'unitPriceOrder')::NUMERIC,
+    (item.value->>'unitPriceDiscount')::NUMERIC,
+    (item.value->>'unitPriceTyDiscount')::NUMERIC,
+    (item.value->>'vatBaseAmount')::NUMERIC,
+    (item.value->>'price')::NUMERIC,
+    (item.value->>'cost')::NUMERIC,
+    (item.value->>'costVat')::NUMERIC::INTEGER,
+    CASE jsonb_typeof(item.value->'stockDate')
+        WHEN 'array' THEN make_date((item.value->'stockDate'->>0)::INTEGER,
+                                    (item.value->'stockDate'->>1)::INTEGER,
+                                    (item.value->'stockDate'->>2)::INTEGER)
+        WHEN 'string' THEN (item.value->>'stockDate')::DATE
+    END,
+    (item.value->>'commissionRate')::NUMERIC,
+    (item.value->>'shippingVolumeWeight')::NUMERIC,
+    (item.value->>'unitEstimatedCommission')::NUMERIC
+FROM trendyol_orders o
+CROSS JOIN LATERAL jsonb_array_elements(
+    CASE WHEN jsonb_typeof(o.order_items) = 'array' THEN o.order_items ELSE '[]'::jsonb END
+) WITH ORDINALITY AS item(value, ordinality);
+
+ALTER TABLE trendyol_orders DROP COLUMN order_items;
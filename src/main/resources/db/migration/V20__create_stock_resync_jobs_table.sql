@@ -0,0 +1,23 @@
+-- Durable queue of FIFO cost reallocation requests, drained by StockResyncWorker
+CREATE TABLE stock_resync_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    store_id UUID NOT NULL,
+    barcode VARCHAR(255) NOT NULL DEFAULT '',
+    from_date DATE,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    requested_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    run_after TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    last_error TEXT,
+    FOREIGN KEY (store_id) REFERENCES stores(id) ON DELETE CASCADE
+);
+
+-- At most one pending job per (store, barcode): repeated requests are merged into it
+CREATE UNIQUE INDEX uq_stock_resync_jobs_pending ON stock_resync_jobs(store_id, barcode) WHERE status = 'PENDING';
+CREATE INDEX idx_stock_resync_jobs_claim ON stock_resync_jobs(run_after) WHERE status = 'PENDING';
+CREATE INDEX idx_stock_resync_jobs_store ON stock_resync_jobs(store_id);
+
+COMMENT ON COLUMN stock_resync_jobs.barcode IS 'Barcode to reallocate; empty string means the whole store';
+COMMENT ON COLUMN stock_resync_jobs.from_date IS 'Earliest stock/order date affected by the merged requests; NULL means unknown (all dates)';
+COMMENT ON COLUMN stock_resync_jobs.run_after IS 'Debounce: the job is not claimed before this time, so bursts of requests collapse into one run';
@@ -0,0 +1,61 @@
+-- Per store and day rollup of the dashboard totals, maintained by StoreDailyMetricsService.refreshDays.
+-- Days are order_date days in Europe/Istanbul local time, as stored on trendyol_orders.
+CREATE TABLE store_daily_metrics (
+    store_id UUID NOT NULL,
+    metric_date DATE NOT NULL,
+    total_orders INTEGER NOT NULL DEFAULT 0,
+    total_products_sold INTEGER NOT NULL DEFAULT 0,
+    total_revenue NUMERIC NOT NULL DEFAULT 0,
+    total_product_costs NUMERIC NOT NULL DEFAULT 0,
+    items_without_cost INTEGER NOT NULL DEFAULT 0,
+    vat_difference NUMERIC NOT NULL DEFAULT 0,
+    total_stoppage NUMERIC NOT NULL DEFAULT 0,
+    total_estimated_commission NUMERIC NOT NULL DEFAULT 0,
+    return_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (store_id, metric_date),
+    FOREIGN KEY (store_id) REFERENCES stores(id) ON DELETE CASCADE
+);
+
+-- Lets the per-day refresh find a store's orders by date range
+CREATE INDEX idx_trendyol_orders_store_order_date ON trendyol_orders(store_id, order_date);
+
+-- Backfill from existing orders, same rules as the dashboard (revenue statuses, Returned counted separately)
+INSERT INTO store_daily_metrics (store_id, metric_date, total_orders, total_products_sold, total_revenue,
+                                 total_product_costs, items_without_cost, vat_difference, total_stoppage,
+                                 total_estimated_commission, return_count)
+WITH order_days AS (
+    SELECT o.store_id, CAST(o.order_date AS DATE) AS metric_date,
+           COUNT(*) FILTER (WHERE o.status IN ('Created', 'Picking', 'Invoiced', 'Shipped', 'Delivered', 'AtCollectionPoint', 'UnPacked')) AS total_orders,
+           COALESCE(SUM(COALESCE(o.gross_amount, 0) - COALESCE(o.total_discount, 0))
+                    FILTER (WHERE o.status IN ('Created', 'Picking', 'Invoiced', 'Shipped', 'Delivered', 'AtCollectionPoint', 'UnPacked')), 0) AS total_revenue,
+           COALESCE(SUM(COALESCE(o.stoppage, 0))
+                    FILTER (WHERE o.status IN ('Created', 'Picking', 'Invoiced', 'Shipped', 'Delivered', 'AtCollectionPoint', 'UnPacked')), 0) AS total_stoppage,
+           COALESCE(SUM(COALESCE(o.estimated_commission, 0))
+                    FILTER (WHERE o.status IN ('Created', 'Picking', 'Invoiced', 'Shipped', 'Delivered', 'AtCollectionPoint', 'UnPacked')), 0) AS total_estimated_commission,
+           COUNT(*) FILTER (WHERE o.status = 'Returned') AS return_count
+    FROM trendyol_orders o
+    GROUP BY o.store_id, CAST(o.order_date AS DATE)
+), item_days AS (
+    SELECT o.store_id, CAST(o.order_date AS DATE) AS metric_date,
+           COALESCE(SUM(i.quantity), 0) AS total_products_sold,
+           COALESCE(SUM(CASE WHEN i.cost > 0 THEN i.cost * i.quantity ELSE 0 END), 0) AS total_product_costs,
+           COALESCE(SUM(CASE WHEN i.cost > 0 THEN 0 ELSE i.quantity END), 0) AS items_without_cost,
+           COALESCE(SUM(CASE WHEN i.price > 0 AND i.cost > 0 THEN
+               ((CASE WHEN i.vat_base_amount > 0
+                      THEN ROUND(i.price / (1 + ROUND(i.vat_base_amount / 100, 4)), 4) * ROUND(i.vat_base_amount / 100, 4)
+                      ELSE ROUND(i.price * 0.20 / 1.20, 2) END)
+                - (CASE WHEN i.cost_vat > 0
+                      THEN ROUND(i.cost / (1 + ROUND(i.cost_vat / 100.0, 4)), 4) * ROUND(i.cost_vat / 100.0, 4)
+                      ELSE 0 END)) * i.quantity
+               ELSE 0 END), 0) AS vat_difference
+    FROM trendyol_order_items i
+    JOIN trendyol_orders o ON o.id = i.order_id
+    WHERE o.status IN ('Created', 'Picking', 'Invoiced', 'Shipped', 'Delivered', 'AtCollectionPoint', 'UnPacked')
+    GROUP BY o.store_id, CAST(o.order_date AS DATE)
+)
+SELECT od.store_id, od.metric_date, od.total_orders, COALESCE(id.total_products_sold, 0), od.total_revenue,
+       COALESCE(id.total_product_costs, 0), COALESCE(id.items_without_cost, 0), COALESCE(id.vat_difference, 0),
+       od.total_stoppage, od.total_estimated_commission, od.return_count
+FROM order_days od
+LEFT JOIN item_days id ON id.store_id = od.store_id AND id.metric_date = od.metric_date;
@@ -0,0 +1,17 @@
+-- Append-only inbox of raw Trendyol webhook deliveries; the HTTP endpoint only inserts here and
+-- WebhookInboxWorker applies the events in batches
+CREATE TABLE webhook_inbox (
+    id BIGSERIAL PRIMARY KEY,
+    seller_id VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claimed_at TIMESTAMP,
+    last_error TEXT
+);
+
+CREATE INDEX idx_webhook_inbox_pending ON webhook_inbox(id) WHERE status = 'PENDING';
+
+COMMENT ON COLUMN webhook_inbox.payload IS 'Request body exactly as received; parsed by the worker, not by the endpoint';
+COMMENT ON COLUMN webhook_inbox.status IS 'PENDING, PROCESSING (claimed by a worker) or FAILED; applied rows are deleted';
@@ -0,0 +1,9 @@
+-- Trendyol lastModifiedDate of the stored package version; older incoming versions are ignored
+ALTER TABLE trendyol_orders ADD COLUMN last_modified_at TIMESTAMP;
+
+COMMENT ON COLUMN trendyol_orders.last_modified_at IS 'Trendyol lastModifiedDate (Europe/Istanbul local time) of the version stored in this row';
+
+-- Identical redeliveries of a webhook that has not been applied yet collapse into one inbox row
+ALTER TABLE webhook_inbox ADD COLUMN dedupe_key VARCHAR(32) GENERATED ALWAYS AS (md5(seller_id || ':' || payload)) STORED;
+
+CREATE UNIQUE INDEX uq_webhook_inbox_dedupe ON webhook_inbox(dedupe_key) WHERE status <> 'FAILED';
@@ -0,0 +1,2 @@
+-- Expression index for StoreRoutingCache misses (StoreRepository.findBySellerId)
+CREATE INDEX idx_stores_credentials_seller_id ON stores ((credentials->>'sellerId'));
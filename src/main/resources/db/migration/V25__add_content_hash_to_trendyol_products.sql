@@ -0,0 +1,3 @@
+-- Fingerprint of the Trendyol fields last written by product sync; unchanged products are skipped without a read.
+-- Rows synced before this column existed have NULL and are rewritten once on their next sync.
+ALTER TABLE trendyol_products ADD COLUMN content_hash VARCHAR(32);
@@ -0,0 +1,6 @@
+-- Keyset pagination of order listings: rows are read in (order_date DESC, id DESC) order straight from the index
+CREATE INDEX idx_trendyol_orders_store_date_id ON trendyol_orders(store_id, order_date DESC, id DESC);
+CREATE INDEX idx_trendyol_orders_store_status_date_id ON trendyol_orders(store_id, status, order_date DESC, id DESC);
+
+-- Covered by idx_trendyol_orders_store_date_id, which also serves the daily metrics range scans
+DROP INDEX IF EXISTS idx_trendyol_orders_store_order_date;
@@ -0,0 +1,25 @@
+-- Stock aggregates of the cost_and_stock_info lots, kept by PostgreSQL on every write so product list
+-- pages can show them without reading or parsing the JSONB array.
+CREATE OR REPLACE FUNCTION jsonb_stock_lots(lots JSONB) RETURNS SETOF JSONB AS $$
+    SELECT jsonb_array_elements(CASE WHEN jsonb_typeof(lots) = 'array' THEN lots ELSE '[]'::jsonb END)
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION jsonb_stock_lot_count(lots JSONB) RETURNS INTEGER AS $$
+    SELECT CASE WHEN jsonb_typeof(lots) = 'array' THEN jsonb_array_length(lots) ELSE 0 END
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION jsonb_stock_remaining_quantity(lots JSONB) RETURNS INTEGER AS $$
+    SELECT COALESCE(SUM(COALESCE((lot ->> 'quantity')::INTEGER, 0) - COALESCE((lot ->> 'usedQuantity')::INTEGER, 0)), 0)::INTEGER
+    FROM jsonb_stock_lots(lots) AS lot
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION jsonb_stock_remaining_cost(lots JSONB) RETURNS NUMERIC AS $$
+    SELECT COALESCE(SUM((COALESCE((lot ->> 'quantity')::INTEGER, 0) - COALESCE((lot ->> 'usedQuantity')::INTEGER, 0))
+                        * COALESCE((lot ->> 'unitCost')::NUMERIC, 0)), 0)
+    FROM jsonb_stock_lots(lots) AS lot
+$$ LANGUAGE sql IMMUTABLE;
+
+ALTER TABLE trendyol_products
+    ADD COLUMN stock_lot_count INTEGER GENERATED ALWAYS AS (jsonb_stock_lot_count(cost_and_stock_info)) STORED,
+    ADD COLUMN remaining_stock INTEGER GENERATED ALWAYS AS (jsonb_stock_remaining_quantity(cost_and_stock_info)) STORED,
+    ADD COLUMN remaining_stock_cost NUMERIC(14, 2) GENERATED ALWAYS AS (jsonb_stock_remaining_cost(cost_and_stock_info)) STORED;
@@ -0,0 +1,21 @@
+-- Indexed product search. tr_normalize folds Turkish letters to their ASCII base (İ/I/ı -> i, ş -> s, ğ -> g,
+-- ü -> u, ö -> o, ç -> c, â/î/û -> a/i/u) before lowercasing, so "tisort", "TİŞÖRT" and "Tişört" all match the
+-- same text.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE OR REPLACE FUNCTION tr_normalize(value TEXT) RETURNS TEXT AS $$
+    SELECT lower(translate(value, 'İIıŞşĞğÜüÖöÇçÂâÎîÛû', 'iiissgguuooccaaiiuu'))
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+-- Title, brand, category and barcode in one normalised column; the newline keeps a term from matching across fields
+ALTER TABLE trendyol_products
+    ADD COLUMN search_text TEXT GENERATED ALWAYS AS (
+        tr_normalize(COALESCE(title, '') || E'\n' || COALESCE(brand, '') || E'\n' ||
+                     COALESCE(category_name, '') || E'\n' || COALESCE(barcode, ''))
+    ) STORED;
+
+-- Serves LIKE '%term%' for terms of three or more characters
+CREATE INDEX idx_trendyol_products_search_text_trgm ON trendyol_products USING gin (search_text gin_trgm_ops);
+
+-- Exact barcode lookups within a store
+CREATE INDEX idx_trendyol_products_store_barcode ON trendyol_products(store_id, barcode);
@@ -0,0 +1,67 @@
+-- Move stock lots from the trendyol_products.cost_and_stock_info JSONB array into one row per (product, stock date),
+-- so a stock edit or a FIFO usage change updates a single row under its own version instead of rewriting the array.
+CREATE TABLE product_stock_lots (
+    product_id UUID NOT NULL,
+    stock_date DATE NOT NULL,
+    quantity INTEGER NOT NULL DEFAULT 0,
+    unit_cost DOUBLE PRECISION,
+    cost_vat_rate INTEGER,
+    used_quantity INTEGER NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (product_id, stock_date),
+    FOREIGN KEY (product_id) REFERENCES trendyol_products(id) ON DELETE CASCADE
+);
+
+-- stockDate was written both as "2025-01-31" and as [2025, 1, 31]; lots without a date were never used by FIFO.
+-- Lots sharing a date are merged the way the stock endpoints merge them: quantities summed, costs weighted.
+INSERT INTO product_stock_lots (product_id, stock_date, quantity, unit_cost, cost_vat_rate, used_quantity)
+SELECT product_id, stock_date,
+       SUM(quantity),
+       CASE WHEN SUM(quantity) > 0 THEN SUM(quantity * unit_cost) / SUM(quantity) ELSE MAX(unit_cost) END,
+       CASE WHEN SUM(quantity) > 0 THEN ROUND(SUM(quantity * cost_vat_rate)::NUMERIC / SUM(quantity))::INTEGER
+            ELSE MAX(cost_vat_rate) END,
+       SUM(used_quantity)
+FROM (
+    SELECT p.id AS product_id,
+           CASE jsonb_typeof(lot -> 'stockDate')
+               WHEN 'string' THEN LEFT(lot ->> 'stockDate', 10)::DATE
+               WHEN 'array' THEN make_date((lot -> 'stockDate' ->> 0)::INTEGER, (lot -> 'stockDate' ->> 1)::INTEGER,
+                                           (lot -> 'stockDate' ->> 2)::INTEGER)
+           END AS stock_date,
+           COALESCE((lot ->> 'quantity')::INTEGER, 0) AS quantity,
+           (lot ->> 'unitCost')::DOUBLE PRECISION AS unit_cost,
+           (lot ->> 'costVatRate')::INTEGER AS cost_vat_rate,
+           COALESCE((lot ->> 'usedQuantity')::INTEGER, 0) AS used_quantity
+    FROM trendyol_products p
+    CROSS JOIN LATERAL jsonb_array_elements(
+        CASE WHEN jsonb_typeof(p.cost_and_stock_info) = 'array' THEN p.cost_and_stock_info ELSE '[]'::jsonb END) AS lot
+) lots
+WHERE stock_date IS NOT NULL
+GROUP BY product_id, stock_date;
+
+-- The list aggregates stop being generated from the JSONB; the application refreshes them from product_stock_lots
+ALTER TABLE trendyol_products
+    ALTER COLUMN stock_lot_count DROP EXPRESSION,
+    ALTER COLUMN remaining_stock DROP EXPRESSION,
+    ALTER COLUMN remaining_stock_cost DROP EXPRESSION;
+
+UPDATE trendyol_products p SET
+    stock_lot_count = (SELECT COUNT(*) FROM product_stock_lots l WHERE l.product_id = p.id),
+    remaining_stock = (SELECT COALESCE(SUM(l.quantity - l.used_quantity), 0) FROM product_stock_lots l
+                       WHERE l.product_id = p.id),
+    remaining_stock_cost = (SELECT COALESCE(SUM((l.quantity - l.used_quantity) * l.unit_cost), 0)
+                            FROM product_stock_lots l WHERE l.product_id = p.id);
+
+ALTER TABLE trendyol_products
+    ALTER COLUMN stock_lot_count SET DEFAULT 0,
+    ALTER COLUMN remaining_stock SET DEFAULT 0,
+    ALTER COLUMN remaining_stock_cost SET DEFAULT 0,
+    DROP COLUMN cost_and_stock_info;
+
+DROP FUNCTION jsonb_stock_remaining_cost(JSONB);
+DROP FUNCTION jsonb_stock_remaining_quantity(JSONB);
+DROP FUNCTION jsonb_stock_lot_count(JSONB);
+DROP FUNCTION jsonb_stock_lots(JSONB);
@@ -0,0 +1,3 @@
+-- FIFO usage of a lot depends on every earlier order line, so a store-wide resync always replays the whole store
+-- and barcode jobs replay the whole barcode; the merged earliest date was never used to bound the work.
+ALTER TABLE stock_resync_jobs DROP COLUMN from_date;
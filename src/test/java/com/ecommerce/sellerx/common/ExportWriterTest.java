@@ -0,0 +1,58 @@
+package com.ecommerce.sellerx.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Row encoding of the streaming exports
+ */
+class ExportWriterTest {
+
+    // Configured like Spring Boot's mapper, which writes dates as ISO strings
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private String write(ExportFormat format, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = ExportWriter.open(out, format, gzip, List.of("title", "price", "date", "lots"), objectMapper)) {
+            writer.writeRow("Kupa, \"büyük\"", new BigDecimal("150.50"), LocalDateTime.of(2025, 3, 1, 10, 30),
+                    ExportWriter.RawJson.of("[{\"quantity\":5}]"));
+            writer.writeRow("Tabak", null, null, ExportWriter.RawJson.of(null));
+        }
+        byte[] bytes = out.toByteArray();
+        if (gzip) {
+            bytes = new GZIPInputStream(new ByteArrayInputStream(bytes)).readAllBytes();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testNdjsonWritesOneObjectPerLineWithRawJsonEmbedded() throws IOException {
+        String ndjson = write(ExportFormat.NDJSON, true);
+
+        assertEquals("{\"title\":\"Kupa, \\\"büyük\\\"\",\"price\":150.50,\"date\":\"2025-03-01T10:30:00\",\"lots\":[{\"quantity\":5}]}\n" +
+                "{\"title\":\"Tabak\",\"price\":null,\"date\":null,\"lots\":null}\n", ndjson);
+    }
+
+    @Test
+    void testCsvQuotesFieldsThatNeedIt() throws IOException {
+        String csv = write(ExportFormat.CSV, false);
+
+        assertEquals("title,price,date,lots\r\n" +
+                "\"Kupa, \"\"büyük\"\"\",150.50,2025-03-01T10:30,\"[{\"\"quantity\"\":5}]\"\r\n" +
+                "Tabak,,,\r\n", csv);
+    }
+}
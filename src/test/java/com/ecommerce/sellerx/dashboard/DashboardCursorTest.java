@@ -0,0 +1,63 @@
+package com.ecommerce.sellerx.dashboard;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Round trip of detail listing cursors and rejection of tokens that were tampered with or issued for another listing
+ */
+class DashboardCursorTest {
+
+    private static final String FILTER = DashboardCursor.filter("orders", UUID.randomUUID(), "thisMonth", "2026-10-01",
+            "DATE", "DESC");
+
+    @Test
+    void roundTripsTypedValues() {
+        LocalDateTime orderDate = LocalDateTime.of(2026, 10, 17, 14, 30, 5);
+        UUID id = UUID.randomUUID();
+        String token = new DashboardCursor<>(FILTER, orderDate, id).encode();
+
+        DashboardCursor<LocalDateTime, UUID> decoded = DashboardCursor.decode(token, FILTER, LocalDateTime::parse,
+                UUID::fromString);
+
+        assertEquals(orderDate, decoded.value());
+        assertEquals(id, decoded.tieBreaker());
+    }
+
+    @Test
+    void writesAmountsWithoutExponent() {
+        String token = new DashboardCursor<>(FILTER, new BigDecimal("1E+3"), "barcode").encode();
+
+        DashboardCursor<BigDecimal, String> decoded = DashboardCursor.decode(token, FILTER, BigDecimal::new, s -> s);
+
+        assertEquals("1000", decoded.value().toPlainString());
+    }
+
+    @Test
+    void rejectsTamperedValueAsInvalidCursor() {
+        String raw = String.join("\u001f", FILTER, "not-a-date", UUID.randomUUID().toString());
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> DashboardCursor.decode(token, FILTER, LocalDateTime::parse, UUID::fromString));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    @Test
+    void rejectsTokenOfAnotherStoreOrPeriod() {
+        String token = new DashboardCursor<>(FILTER, LocalDateTime.now(), UUID.randomUUID()).encode();
+        String otherStore = DashboardCursor.filter("orders", UUID.randomUUID(), "thisMonth", "2026-10-01", "DATE", "DESC");
+        String otherPeriod = FILTER.replace("thisMonth", "lastMonth");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DashboardCursor.decode(token, otherStore, LocalDateTime::parse, UUID::fromString));
+        assertThrows(IllegalArgumentException.class,
+                () -> DashboardCursor.decode(token, otherPeriod, LocalDateTime::parse, UUID::fromString));
+    }
+}
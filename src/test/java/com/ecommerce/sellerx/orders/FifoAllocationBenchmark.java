@@ -0,0 +1,140 @@
+package com.ecommerce.sellerx.orders;
+
+import com.ecommerce.sellerx.products.CostAndStockInfo;
+import com.ecommerce.sellerx.products.TrendyolProduct;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store-wide FIFO allocation on a synthetic store: previous per-product pass (group lines per barcode, sort them,
+ * scan the sorted lot list for every line) vs FifoAllocator's single date-ordered pass over all lines.
+ * Only the in-memory part is measured; the database reads and writes are the same for both.
+ * Run main() after mvn test-compile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FifoAllocationBenchmark {
+
+    @Param({"5000"})
+    private int products;
+
+    @Param({"200000"})
+    private int lines;
+
+    @Param({"12"})
+    private int lotsPerProduct;
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private List<TrendyolProduct> catalogue;
+    private List<List<CostAndStockInfo>> catalogueLots;
+    private String[] lineBarcodes;
+    private int[] lineQuantities;
+    private LocalDate[] lineDates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalogue = new ArrayList<>(products);
+        catalogueLots = new ArrayList<>(products);
+        for (int p = 0; p < products; p++) {
+            List<CostAndStockInfo> lots = new ArrayList<>(lotsPerProduct);
+            for (int l = 0; l < lotsPerProduct; l++) {
+                lots.add(CostAndStockInfo.builder()
+                        .stockDate(START.plusDays(l * 30L + random.nextInt(30)))
+                        .quantity(5 + random.nextInt(10))
+                        .unitCost(10.0 + random.nextInt(100))
+                        .costVatRate(20)
+                        .build());
+            }
+            TrendyolProduct product = new TrendyolProduct();
+            product.setBarcode("BC" + p);
+            catalogue.add(product);
+            catalogueLots.add(lots);
+        }
+
+        // Lines arrive in date order, as the engine streams them
+        lineBarcodes = new String[lines];
+        lineQuantities = new int[lines];
+        lineDates = new LocalDate[lines];
+        for (int i = 0; i < lines; i++) {
+            lineBarcodes[i] = "BC" + random.nextInt(products);
+            lineQuantities[i] = 1 + random.nextInt(3);
+            lineDates[i] = START.plusDays((long) i * 365 / lines);
+        }
+    }
+
+    /**
+     * Previous path: per product, collect and sort its lines, then scan the sorted lots for each line
+     */
+    @Benchmark
+    public void perProductPass(Blackhole blackhole) {
+        Map<String, List<Integer>> linesByBarcode = new HashMap<>();
+        for (int i = 0; i < lines; i++) {
+            linesByBarcode.computeIfAbsent(lineBarcodes[i], k -> new ArrayList<>()).add(i);
+        }
+        for (int p = 0; p < catalogue.size(); p++) {
+            TrendyolProduct product = catalogue.get(p);
+            List<CostAndStockInfo> sortedStock = catalogueLots.get(p).stream()
+                    .map(lot -> CostAndStockInfo.builder().stockDate(lot.getStockDate()).quantity(lot.getQuantity())
+                            .unitCost(lot.getUnitCost()).costVatRate(lot.getCostVatRate()).usedQuantity(0).build())
+                    .sorted(Comparator.comparing(CostAndStockInfo::getStockDate))
+                    .toList();
+            List<Integer> productLines = new ArrayList<>(linesByBarcode.getOrDefault(product.getBarcode(), List.of()));
+            productLines.sort(Comparator.comparing(i -> lineDates[i]));
+            for (int i : productLines) {
+                blackhole.consume(scanAllocate(sortedStock, lineQuantities[i], lineDates[i]));
+            }
+        }
+    }
+
+    /**
+     * Engine path: one pass over all lines against per-barcode lot cursors
+     */
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        FifoAllocator allocator = new FifoAllocator();
+        for (int p = 0; p < catalogue.size(); p++) {
+            allocator.addProduct(catalogue.get(p), catalogueLots.get(p));
+        }
+        for (int i = 0; i < lines; i++) {
+            blackhole.consume(allocator.allocate(lineBarcodes[i], lineQuantities[i], lineDates[i]));
+        }
+    }
+
+    private static CostAndStockInfo scanAllocate(List<CostAndStockInfo> sortedStock, int needed, LocalDate orderDate) {
+        for (CostAndStockInfo stockInfo : sortedStock) {
+            if (stockInfo.getStockDate().isAfter(orderDate)) {
+                continue;
+            }
+            int remaining = stockInfo.getRemainingQuantity();
+            if (remaining > 0) {
+                stockInfo.setUsedQuantity(stockInfo.getUsedQuantity() + Math.min(needed, remaining));
+                return stockInfo;
+            }
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FifoAllocationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.sellerx.orders;
+
+import com.ecommerce.sellerx.products.CostAndStockInfo;
+import com.ecommerce.sellerx.products.TrendyolProduct;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * FIFO lot cursor rules of FifoAllocator, without a database
+ */
+class FifoAllocatorTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FEB_1 = LocalDate.of(2025, 2, 1);
+
+    private CostAndStockInfo lot(LocalDate date, int quantity, double unitCost, int usedQuantity) {
+        return CostAndStockInfo.builder()
+                .stockDate(date).quantity(quantity).unitCost(unitCost).costVatRate(20).usedQuantity(usedQuantity)
+                .build();
+    }
+
+    private TrendyolProduct product(String barcode) {
+        TrendyolProduct product = new TrendyolProduct();
+        product.setId(UUID.randomUUID());
+        product.setBarcode(barcode);
+        return product;
+    }
+
+    @Test
+    void testOldestLotIsDrainedFirstAndOnlyLotsDatedBeforeTheOrderAreUsed() {
+        CostAndStockInfo february = lot(FEB_1, 10, 12.0, 0);
+        CostAndStockInfo january = lot(JAN_1, 2, 10.0, 0);
+        FifoAllocator allocator = new FifoAllocator();
+        allocator.addProduct(product("B1"), List.of(february, january));
+
+        assertNull(allocator.allocate("B1", 1, JAN_1.minusDays(1)), "No lot exists before the order date");
+        assertSame(january, allocator.allocate("B1", 1, JAN_1.plusDays(3)));
+        // The January lot has one unit left and the line takes only that unit from it
+        assertSame(january, allocator.allocate("B1", 5, JAN_1.plusDays(4)));
+        assertNull(allocator.allocate("B1", 1, JAN_1.plusDays(5)), "February stock is not available in January");
+        assertSame(february, allocator.allocate("B1", 3, FEB_1));
+    }
+
+    @Test
+    void testUsageIsRecomputedFromScratchAndOnlyChangedLotsAreReported() {
+        CostAndStockInfo staleUsage = lot(JAN_1, 5, 10.0, 4);
+        CostAndStockInfo correctUsage = lot(JAN_1, 5, 10.0, 2);
+        FifoAllocator allocator = new FifoAllocator();
+        TrendyolProduct stale = product("STALE");
+        allocator.addProduct(stale, List.of(staleUsage));
+        allocator.addProduct(product("OK"), List.of(correctUsage));
+        allocator.addProduct(product("EMPTY"), List.of());
+
+        allocator.allocate("STALE", 2, FEB_1);
+        allocator.allocate("OK", 2, FEB_1);
+
+        assertFalse(allocator.tracks("EMPTY"));
+        assertEquals(List.of(new FifoAllocator.UsageChange(stale.getId(), JAN_1, 2)), allocator.applyUsage());
+        assertEquals(2, staleUsage.getUsedQuantity());
+        assertEquals(2, correctUsage.getUsedQuantity());
+    }
+
+    @Test
+    void testDiffersComparesCostNumericallyAndTreatsMissingLotAsCleared() {
+        CostAndStockInfo january = lot(JAN_1, 5, 12.5, 0);
+
+        assertFalse(FifoAllocator.differs(new BigDecimal("12.50"), 20, JAN_1, january));
+        assertTrue(FifoAllocator.differs(new BigDecimal("12.50"), 20, FEB_1, january));
+        assertTrue(FifoAllocator.differs(new BigDecimal("12.50"), 20, JAN_1, null));
+        assertFalse(FifoAllocator.differs(null, null, null, null));
+    }
+}
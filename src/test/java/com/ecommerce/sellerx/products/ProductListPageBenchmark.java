@@ -0,0 +1,173 @@
+package com.ecommerce.sellerx.products;
+
+import com.ecommerce.sellerx.stores.Store;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One product list page built from full entities (cost_and_stock_info JSONB parsed per product, as the JSONB type
+ * does on load) vs from TrendyolProductListRow (scalar columns and generated stock aggregates), both serialised as
+ * the endpoint would. Only the in-memory part is measured; setUp prints the JSONB bytes each path reads from the
+ * result set and the response size. Run main() after mvn test-compile; the GC profiler reports
+ * gc.alloc.rate.norm, i.e. bytes allocated per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductListPageBenchmark {
+
+    private static final TypeReference<List<CostAndStockInfo>> LOTS = new TypeReference<>() {
+    };
+
+    @Param({"50"})
+    private int pageSize;
+
+    @Param({"24"})
+    private int lotsPerProduct;
+
+    private ObjectMapper objectMapper;
+    private TrendyolProductMapper productMapper;
+    private Store store;
+    private List<TrendyolProduct> scalars;
+    private List<String> lotColumns;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        productMapper = new TrendyolProductMapper();
+        store = new Store();
+        store.setId(UUID.randomUUID());
+        Random random = new Random(42);
+
+        scalars = new ArrayList<>(pageSize);
+        lotColumns = new ArrayList<>(pageSize);
+        for (int p = 0; p < pageSize; p++) {
+            List<CostAndStockInfo> lots = new ArrayList<>(lotsPerProduct);
+            int remaining = 0;
+            BigDecimal remainingCost = BigDecimal.ZERO;
+            for (int l = 0; l < lotsPerProduct; l++) {
+                CostAndStockInfo lot = CostAndStockInfo.builder()
+                        .stockDate(LocalDate.of(2024, 1, 1).plusDays(l * 15L))
+                        .quantity(20 + random.nextInt(80))
+                        .unitCost(10.0 + random.nextInt(100))
+                        .costVatRate(20)
+                        .usedQuantity(random.nextInt(20))
+                        .build();
+                lots.add(lot);
+                remaining += lot.getRemainingQuantity();
+                remainingCost = remainingCost.add(BigDecimal.valueOf(lot.getUnitCost() * lot.getRemainingQuantity()));
+            }
+            lotColumns.add(objectMapper.writeValueAsString(lots));
+            scalars.add(TrendyolProduct.builder()
+                    .id(UUID.randomUUID())
+                    .store(store)
+                    .productId(String.valueOf(700_000_000L + p))
+                    .barcode("869000000" + p)
+                    .title("Pamuklu Tişört Siyah M " + p)
+                    .categoryName("Tişört")
+                    .brand("Marka")
+                    .brandId(1234L)
+                    .pimCategoryId(411L)
+                    .productMainId("PM-" + p)
+                    .image("https://cdn.dsmcdn.com/ty" + p + "/product/media/images/1_org_zoom.jpg")
+                    .productUrl("https://www.trendyol.com/marka/urun-p-" + p)
+                    .salePrice(new BigDecimal("229.95"))
+                    .vatRate(20)
+                    .trendyolQuantity(remaining)
+                    .commissionRate(new BigDecimal("21.50"))
+                    .stockLotCount(lotsPerProduct)
+                    .remainingStock(remaining)
+                    .remainingStockCost(remainingCost)
+                    .build());
+        }
+
+        long jsonbBytes = lotColumns.stream().mapToLong(json -> json.getBytes(StandardCharsets.UTF_8).length).sum();
+        System.out.printf("%nJSONB bytes read per page: entities %d, list rows 0%n", jsonbBytes);
+        System.out.printf("Response bytes per page: entities %d, list rows %d%n",
+                objectMapper.writeValueAsBytes(entityPage()).length, objectMapper.writeValueAsBytes(rowPage()).length);
+    }
+
+    /**
+     * Previous path: every product entity parses its lots, the DTO carries them to the response
+     */
+    @Benchmark
+    public void entityPage(Blackhole blackhole) throws IOException {
+        blackhole.consume(objectMapper.writeValueAsBytes(entityPage()));
+    }
+
+    /**
+     * List row path: scalar columns and stock aggregates only
+     */
+    @Benchmark
+    public void listRowPage(Blackhole blackhole) throws IOException {
+        blackhole.consume(objectMapper.writeValueAsBytes(rowPage()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductListPageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    private List<TrendyolProductDto> entityPage() throws IOException {
+        List<TrendyolProductDto> page = new ArrayList<>(pageSize);
+        for (int p = 0; p < pageSize; p++) {
+            TrendyolProduct source = scalars.get(p);
+            TrendyolProduct product = TrendyolProduct.builder()
+                    .id(source.getId())
+                    .store(store)
+                    .productId(source.getProductId())
+                    .barcode(source.getBarcode())
+                    .title(source.getTitle())
+                    .categoryName(source.getCategoryName())
+                    .brand(source.getBrand())
+                    .brandId(source.getBrandId())
+                    .pimCategoryId(source.getPimCategoryId())
+                    .productMainId(source.getProductMainId())
+                    .image(source.getImage())
+                    .productUrl(source.getProductUrl())
+                    .salePrice(source.getSalePrice())
+                    .vatRate(source.getVatRate())
+                    .trendyolQuantity(source.getTrendyolQuantity())
+                    .commissionRate(source.getCommissionRate())
+                    .build();
+            page.add(productMapper.toDto(product, objectMapper.readValue(lotColumns.get(p), LOTS)));
+        }
+        return page;
+    }
+
+    private List<TrendyolProductListRow> rowPage() {
+        List<TrendyolProductListRow> page = new ArrayList<>(pageSize);
+        for (TrendyolProduct p : scalars) {
+            page.add(new TrendyolProductListRow(p.getId(), store.getId(), p.getProductId(), p.getBarcode(),
+                    p.getTitle(), p.getCategoryName(), p.getCreateDateTime(), p.getHasActiveCampaign(), p.getBrand(),
+                    p.getBrandId(), p.getPimCategoryId(), p.getProductMainId(), p.getImage(), p.getProductUrl(),
+                    p.getDimensionalWeight(), p.getSalePrice(), p.getVatRate(), p.getTrendyolQuantity(),
+                    p.getCommissionRate(), p.getShippingVolumeWeight(), p.getApproved(), p.getArchived(),
+                    p.getBlacklisted(), p.getRejected(), p.getOnSale(), p.getStockLotCount(), p.getRemainingStock(),
+                    p.getRemainingStockCost(), p.getCreatedAt(), p.getUpdatedAt()));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.sellerx.products;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Search term matching through the tr_normalize mapping of V28, applied in Java the way translate() and lower() do
+ */
+class ProductSearchNormalizationTest {
+
+    private static final Pattern TRANSLATE = Pattern.compile("translate\\(value, '([^']*)', '([^']*)'\\)");
+
+    private static String source;
+    private static String target;
+
+    @BeforeAll
+    static void loadMapping() throws IOException {
+        try (InputStream in = ProductSearchNormalizationTest.class
+                .getResourceAsStream("/db/migration/V28__add_trigram_product_search.sql")) {
+            Matcher matcher = TRANSLATE.matcher(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            assertTrue(matcher.find(), "tr_normalize uses translate()");
+            source = matcher.group(1);
+            target = matcher.group(2);
+        }
+    }
+
+    private static String normalize(String value) {
+        StringBuilder translated = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            int index = source.indexOf(c);
+            translated.append(index >= 0 ? target.charAt(index) : c);
+        }
+        return translated.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean matches(String text, String term) {
+        return normalize(text).contains(normalize(term));
+    }
+
+    @Test
+    void testEveryFoldedLetterHasItsOwnTarget() {
+        assertEquals(source.length(), target.length());
+    }
+
+    @Test
+    void testTurkishLettersMatchTheirAsciiSpelling() {
+        assertTrue(matches("Pamuklu Tişört", "tisort"));
+        assertTrue(matches("Pamuklu Tişört", "TİŞÖRT"));
+        assertTrue(matches("IŞIKLI AYNA", "isikli"));
+    }
+
+    @Test
+    void testCircumflexVowelsMatchTheirPlainSpelling() {
+        assertTrue(matches("Kâğıt Havlu", "kagit"));
+        assertTrue(matches("KÂĞIT HAVLU", "kağıt"));
+        assertTrue(matches("İslâmî Eserler", "islami"));
+        assertTrue(matches("Hukûk Kitabı", "hukuk"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.sellerx.products;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Lookups of StockLedger against the linear FIFO rules they replace
+ */
+class StockLedgerTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FEB_1 = LocalDate.of(2025, 2, 1);
+    private static final LocalDate MAR_1 = LocalDate.of(2025, 3, 1);
+
+    private CostAndStockInfo lot(LocalDate date, int quantity, Double unitCost, int usedQuantity) {
+        return CostAndStockInfo.builder()
+                .stockDate(date).quantity(quantity).unitCost(unitCost).costVatRate(20).usedQuantity(usedQuantity)
+                .build();
+    }
+
+    @Test
+    void testFirstAvailableSkipsExhaustedLotsAndRespectsTheOrderDate() {
+        StockLedger ledger = StockLedger.of(List.of(
+                lot(MAR_1, 5, 14.0, 0), lot(JAN_1, 2, 10.0, 2), lot(FEB_1, 3, 12.0, 1)));
+
+        assertEquals(3, ledger.size());
+        int index = ledger.firstAvailableOnOrBefore(FEB_1.plusDays(3));
+        assertEquals(FEB_1, ledger.stockDate(index));
+        assertEquals(12.0, ledger.unitCost(index));
+        assertEquals(2, ledger.remainingQuantity(index));
+        // The January lot is used up and February stock did not exist yet
+        assertEquals(-1, ledger.firstAvailableOnOrBefore(JAN_1.plusDays(10)));
+        assertEquals(2, ledger.availableOnOrBefore(FEB_1));
+        assertEquals(7, ledger.availableOnOrBefore(MAR_1));
+    }
+
+    @Test
+    void testLatestOnOrBeforeTakesTheNewestLotUpToTheDate() {
+        StockLedger ledger = StockLedger.of(List.of(lot(JAN_1, 2, 10.0, 0), lot(FEB_1, 3, null, 0)));
+
+        assertEquals(-1, ledger.latestOnOrBefore(JAN_1.minusDays(1)));
+        assertEquals(JAN_1, ledger.stockDate(ledger.latestOnOrBefore(JAN_1.plusDays(5))));
+        int february = ledger.latestOnOrBefore(MAR_1);
+        assertEquals(FEB_1, ledger.stockDate(february));
+        assertNull(ledger.unitCost(february));
+        assertEquals(20, ledger.costVatRate(february));
+    }
+
+    @Test
+    void testLotsWithoutDatesAreIgnored() {
+        StockLedger ledger = StockLedger.of(List.of(lot(null, 4, 9.0, 0)));
+
+        assertTrue(ledger.isEmpty());
+        assertEquals(-1, ledger.firstAvailableOnOrBefore(MAR_1));
+        assertEquals(0, ledger.availableOnOrBefore(MAR_1));
+    }
+}
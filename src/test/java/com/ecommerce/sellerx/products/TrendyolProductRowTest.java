@@ -0,0 +1,47 @@
+package com.ecommerce.sellerx.products;
+
+import com.ecommerce.sellerx.categories.TrendyolCategoryIndex;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Change detection of product sync through TrendyolProductRow.contentHash
+ */
+class TrendyolProductRowTest {
+
+    private TrendyolApiProductResponse.TrendyolApiProduct apiProduct(String salePrice, Integer quantity) {
+        TrendyolApiProductResponse.TrendyolApiProduct product = new TrendyolApiProductResponse.TrendyolApiProduct();
+        product.setId("P1");
+        product.setBarcode("B1");
+        product.setTitle("Kupa");
+        product.setPimCategoryId(42L);
+        product.setSalePrice(new BigDecimal(salePrice));
+        product.setQuantity(quantity);
+        return product;
+    }
+
+    private TrendyolCategoryIndex.CategoryInfo category(String commissionRate) {
+        return new TrendyolCategoryIndex.CategoryInfo(42L, "Kupa", null, new BigDecimal(commissionRate), null);
+    }
+
+    @Test
+    void testSameValuesHashTheSameRegardlessOfDecimalScaleOrNullDefaults() {
+        TrendyolProductRow first = TrendyolProductRow.from(apiProduct("150.5", 0), category("12.0"));
+        TrendyolProductRow second = TrendyolProductRow.from(apiProduct("150.50", null), category("12"));
+
+        assertEquals(first.contentHash(), second.contentHash());
+        assertEquals(32, first.contentHash().length());
+    }
+
+    @Test
+    void testApiAndCategoryChangesChangeTheHash() {
+        String base = TrendyolProductRow.from(apiProduct("150.50", 3), category("12")).contentHash();
+
+        assertNotEquals(base, TrendyolProductRow.from(apiProduct("149.90", 3), category("12")).contentHash());
+        assertNotEquals(base, TrendyolProductRow.from(apiProduct("150.50", 4), category("12")).contentHash());
+        assertNotEquals(base, TrendyolProductRow.from(apiProduct("150.50", 3), category("15")).contentHash());
+        assertNotEquals(base, TrendyolProductRow.from(apiProduct("150.50", 3), null).contentHash());
+    }
+}
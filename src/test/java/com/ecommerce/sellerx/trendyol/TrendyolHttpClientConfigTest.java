@@ -0,0 +1,75 @@
+package com.ecommerce.sellerx.trendyol;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The Trendyol request pipeline as wired by TrendyolHttpClientConfig: a retried attempt is timed and inflated
+ * like the first one
+ */
+class TrendyolHttpClientConfigTest {
+
+    private static final URI ORDERS = URI.create("https://apigw.trendyol.com/integration/order/sellers/12345/orders");
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void testThrottledThenGzipResponseIsInflatedAndEveryAttemptIsTimed() throws IOException {
+        MockClientHttpResponse throttled = new MockClientHttpResponse(new byte[0], HttpStatus.TOO_MANY_REQUESTS);
+        throttled.getHeaders().set(HttpHeaders.RETRY_AFTER, "0");
+        MockClientHttpResponse compressed = new MockClientHttpResponse(gzip("{\"content\":[]}"), HttpStatus.OK);
+        compressed.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        Deque<MockClientHttpResponse> script = new ArrayDeque<>(List.of(throttled, compressed));
+        List<MockClientHttpRequest> sent = new ArrayList<>();
+
+        TrendyolRateLimitConfig rateLimitConfig = new TrendyolRateLimitConfig();
+        rateLimitConfig.setPermitsPerSecond(1000);
+        rateLimitConfig.setInitialBackoffMs(1);
+        rateLimitConfig.setMaxBackoffMs(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ClientHttpRequestFactory factory = TrendyolHttpClientConfig.requestFactory((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            request.setResponse(script.removeFirst());
+            sent.add(request);
+            return request;
+        }, new TrendyolRateLimiter(rateLimitConfig), rateLimitConfig, new TrendyolMetricsInterceptor(meterRegistry));
+
+        try (ClientHttpResponse response = factory.createRequest(ORDERS, HttpMethod.GET).execute()) {
+            assertEquals(200, response.getStatusCode().value());
+            assertEquals("{\"content\":[]}", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        assertEquals(2, sent.size());
+        sent.forEach(request -> assertEquals("gzip", request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING)));
+        long samples = meterRegistry.find(TrendyolMetricsInterceptor.METRIC_NAME).tag("route", "orders").timers()
+                .stream().mapToLong(Timer::count).sum();
+        assertEquals(2, samples);
+        assertNotNull(meterRegistry.find(TrendyolMetricsInterceptor.METRIC_NAME).tag("status", "429").timer());
+        assertNotNull(meterRegistry.find(TrendyolMetricsInterceptor.METRIC_NAME).tag("status", "200").timer());
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.sellerx.trendyol;
+
+import com.ecommerce.sellerx.orders.TrendyolOrderApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Materialised vs streaming parsing of one Trendyol order page.
+ * Run main() after mvn test-compile (or org.openjdk.jmh.Main with the test classpath and -prof gc);
+ * the GC profiler reports gc.alloc.rate.norm, i.e. bytes allocated per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrendyolPageParsingBenchmark {
+
+    @Param({"200"})
+    private int pageSize;
+
+    @Param({"50"})
+    private int batchSize;
+
+    private ObjectMapper objectMapper;
+    private TrendyolPageReader pageReader;
+    private byte[] page;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pageReader = new TrendyolPageReader(null, objectMapper);
+        page = objectMapper.writeValueAsBytes(buildPage(pageSize));
+    }
+
+    /**
+     * Previous path: bind the whole page, then walk its content list
+     */
+    @Benchmark
+    public void materialisedPage(Blackhole blackhole) throws IOException {
+        TrendyolOrderApiResponse response = objectMapper.readValue(page, TrendyolOrderApiResponse.class);
+        List<TrendyolOrderApiResponse.TrendyolOrderContent> batch = new ArrayList<>(batchSize);
+        for (TrendyolOrderApiResponse.TrendyolOrderContent content : response.getContent()) {
+            batch.add(content);
+            if (batch.size() >= batchSize) {
+                blackhole.consume(batch);
+                batch.clear();
+            }
+        }
+        blackhole.consume(batch);
+    }
+
+    /**
+     * Streaming path: bind one package at a time into a bounded write batch
+     */
+    @Benchmark
+    public void streamingPage(Blackhole blackhole) throws IOException {
+        List<TrendyolOrderApiResponse.TrendyolOrderContent> batch = new ArrayList<>(batchSize);
+        pageReader.parse(new ByteArrayInputStream(page), TrendyolOrderApiResponse.TrendyolOrderContent.class, content -> {
+            batch.add(content);
+            if (batch.size() >= batchSize) {
+                blackhole.consume(batch);
+                batch.clear();
+            }
+        });
+        blackhole.consume(batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TrendyolPageParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * Synthetic page shaped like the orders endpoint, including fields neither path maps
+     */
+    private static Map<String, Object> buildPage(int size) {
+        List<Map<String, Object>> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> order = new LinkedHashMap<>();
+            order.put("id", 3_000_000_000L + i);
+            order.put("orderNumber", String.valueOf(10_000_000_000L + i));
+            order.put("cargoTrackingNumber", 7_330_000_000_000L + i);
+            order.put("grossAmount", 459.90);
+            order.put("totalDiscount", 40.00);
+            order.put("totalTyDiscount", 0);
+            order.put("totalPrice", 419.90);
+            order.put("originShipmentDate", 1_718_000_000_000L + i * 60_000L);
+            order.put("status", "Delivered");
+            order.put("shipmentPackageStatus", "Delivered");
+            order.put("cargoDeci", 2);
+            order.put("shipmentAddress", Map.of("firstName", "Ayşe", "lastName", "Yılmaz",
+                    "city", "İstanbul", "district", "Kadıköy", "fullAddress", "Moda Cad. No: " + i));
+            order.put("packageHistories", List.of(
+                    Map.of("createdDate", 1_718_000_000_000L, "status", "Created"),
+                    Map.of("createdDate", 1_718_100_000_000L, "status", "Shipped"),
+                    Map.of("createdDate", 1_718_200_000_000L, "status", "Delivered")));
+            List<Map<String, Object>> lines = new ArrayList<>();
+            for (int l = 0; l < 1 + i % 3; l++) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("barcode", "869000000" + (i * 3 + l));
+                line.put("productName", "Pamuklu Tişört Siyah M " + l);
+                line.put("quantity", 1 + l);
+                line.put("amount", 229.95);
+                line.put("discount", 20.00);
+                line.put("tyDiscount", 0);
+                line.put("vatBaseAmount", 20);
+                line.put("price", 209.95);
+                line.put("merchantSku", "SKU-" + i + "-" + l);
+                line.put("productColor", "Siyah");
+                line.put("productSize", "M");
+                lines.add(line);
+            }
+            order.put("lines", lines);
+            content.add(order);
+        }
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("totalElements", 12_000);
+        page.put("totalPages", 60);
+        page.put("page", 0);
+        page.put("size", size);
+        page.put("content", content);
+        return page;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.sellerx.trendyol;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket arithmetic of TrendyolRateLimiter; time is driven explicitly so nothing sleeps
+ */
+class TrendyolRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private TrendyolRateLimitConfig config(double permitsPerSecond, int burst) {
+        TrendyolRateLimitConfig config = new TrendyolRateLimitConfig();
+        config.setPermitsPerSecond(permitsPerSecond);
+        config.setBurst(burst);
+        config.setMinPermitsPerSecond(0.5);
+        config.setRecoveryFactor(0.25);
+        config.setInitialBackoffMs(1000);
+        config.setMaxBackoffMs(8000);
+        return config;
+    }
+
+    @Test
+    void testBurstIsServedImmediatelyThenPacedByRate() {
+        TrendyolRateLimiter.Bucket bucket = new TrendyolRateLimiter.Bucket(config(10, 3));
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(0, bucket.reserve(now));
+
+        long wait = bucket.reserve(now);
+        assertTrue(wait > 0 && wait <= SECOND / 10, "Fourth call should wait about one refill interval, was " + wait);
+        assertEquals(0, bucket.reserve(now + SECOND / 10));
+    }
+
+    @Test
+    void testThrottleHonoursRetryAfterAndHalvesRate() {
+        TrendyolRateLimiter.Bucket bucket = new TrendyolRateLimiter.Bucket(config(4, 2));
+        long now = System.nanoTime();
+
+        long backoff = bucket.onThrottled(now, 3 * SECOND);
+
+        assertEquals(3 * SECOND, backoff);
+        assertEquals(2.0, bucket.currentRate(), 0.0001);
+        assertEquals(2 * SECOND, bucket.reserve(now + SECOND));
+        assertEquals(0, bucket.reserve(now + 3 * SECOND + SECOND / 2));
+    }
+
+    @Test
+    void testBackoffDoublesWithoutRetryAfterAndIsCapped() {
+        TrendyolRateLimiter.Bucket bucket = new TrendyolRateLimiter.Bucket(config(4, 2));
+        long now = System.nanoTime();
+
+        assertEquals(1 * SECOND, bucket.onThrottled(now, -1));
+        assertEquals(2 * SECOND, bucket.onThrottled(now, -1));
+        assertEquals(4 * SECOND, bucket.onThrottled(now, -1));
+        assertEquals(8 * SECOND, bucket.onThrottled(now, -1));
+        assertEquals(8 * SECOND, bucket.onThrottled(now, -1));
+        assertEquals(0.5, bucket.currentRate(), 0.0001, "Rate must not drop below the configured floor");
+    }
+
+    @Test
+    void testRateRecoversOnSuccess() {
+        TrendyolRateLimiter.Bucket bucket = new TrendyolRateLimiter.Bucket(config(4, 2));
+        bucket.onThrottled(System.nanoTime(), 0);
+
+        bucket.onSuccess();
+        assertEquals(3.0, bucket.currentRate(), 0.0001);
+        bucket.onSuccess();
+        bucket.onSuccess();
+        assertEquals(4.0, bucket.currentRate(), 0.0001, "Rate must not exceed the configured maximum");
+    }
+
+    @Test
+    void testSellerKeyResolution() {
+        assertEquals("12345", TrendyolRateLimitingRequestFactory.resolveSellerKey(
+                URI.create("https://apigw.trendyol.com/integration/order/sellers/12345/orders?page=0")));
+        assertEquals("trendyol", TrendyolRateLimitingRequestFactory.resolveSellerKey(
+                URI.create("https://apigw.trendyol.com/integration/product/categories")));
+        assertNull(TrendyolRateLimitingRequestFactory.resolveSellerKey(URI.create("https://example.com/sellers/1")));
+    }
+
+    @Test
+    void testRetryAfterParsing() {
+        assertEquals(Duration.ofSeconds(7), TrendyolRateLimitingRequestFactory.parseRetryAfter("7"));
+        assertNull(TrendyolRateLimitingRequestFactory.parseRetryAfter(null));
+        assertNull(TrendyolRateLimitingRequestFactory.parseRetryAfter("soon"));
+        assertEquals(Duration.ZERO, TrendyolRateLimitingRequestFactory.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.sellerx.trendyol;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 429 retries of TrendyolRateLimitingRequestFactory against a scripted delegate factory
+ */
+class TrendyolRateLimitingRequestFactoryTest {
+
+    private static final URI ORDERS = URI.create("https://apigw.trendyol.com/integration/order/sellers/12345/orders");
+
+    private final Deque<MockClientHttpResponse> script = new ArrayDeque<>();
+    private final List<MockClientHttpRequest> sent = new ArrayList<>();
+
+    private TrendyolRateLimitingRequestFactory factory(int maxRetries) {
+        TrendyolRateLimitConfig config = new TrendyolRateLimitConfig();
+        config.setPermitsPerSecond(1000);
+        config.setBurst(10);
+        config.setInitialBackoffMs(1);
+        config.setMaxBackoffMs(1);
+        config.setMaxRetries(maxRetries);
+        return new TrendyolRateLimitingRequestFactory((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            request.setResponse(script.removeFirst());
+            sent.add(request);
+            return request;
+        }, new TrendyolRateLimiter(config), config);
+    }
+
+    private static MockClientHttpResponse response(HttpStatus status, String body) {
+        MockClientHttpResponse response = new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), status);
+        if (status == HttpStatus.TOO_MANY_REQUESTS) {
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "0");
+        }
+        return response;
+    }
+
+    @Test
+    void testThrottledRequestIsSentAgainWithItsHeadersAndBody() throws IOException {
+        script.add(response(HttpStatus.TOO_MANY_REQUESTS, ""));
+        script.add(response(HttpStatus.OK, "ok"));
+
+        ClientHttpRequest request = factory(3).createRequest(ORDERS, HttpMethod.POST);
+        request.getHeaders().set(HttpHeaders.AUTHORIZATION, "Basic abc");
+        request.getBody().write("{\"page\":0}".getBytes(StandardCharsets.UTF_8));
+        try (ClientHttpResponse response = request.execute()) {
+            assertEquals(200, response.getStatusCode().value());
+            assertEquals("ok", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        assertEquals(2, sent.size());
+        for (MockClientHttpRequest attempt : sent) {
+            assertEquals("Basic abc", attempt.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+            assertEquals("{\"page\":0}", attempt.getBodyAsString());
+        }
+    }
+
+    @Test
+    void testLastThrottledResponseIsReturnedOnceRetriesAreUsedUp() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            script.add(response(HttpStatus.TOO_MANY_REQUESTS, ""));
+        }
+
+        try (ClientHttpResponse response = factory(2).createRequest(ORDERS, HttpMethod.GET).execute()) {
+            assertEquals(429, response.getStatusCode().value());
+        }
+        assertEquals(3, sent.size());
+    }
+
+    @Test
+    void testOtherHostsAreNotPacedOrRetried() throws IOException {
+        script.add(response(HttpStatus.TOO_MANY_REQUESTS, ""));
+
+        try (ClientHttpResponse response = factory(3)
+                .createRequest(URI.create("https://example.com/sellers/1"), HttpMethod.GET).execute()) {
+            assertEquals(429, response.getStatusCode().value());
+        }
+        assertEquals(1, sent.size());
+    }
+}